@@ -0,0 +1,91 @@
+package com.project3.backend.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.project3.backend.service.IngredientLedgerService;
+import com.project3.backend.service.IngredientService;
+import com.project3.backend.service.ItemService;
+import com.project3.backend.service.OrderService;
+import com.project3.backend.service.SalesRollupService;
+
+/**
+ * The application shared by the benchmarks of one trial: a migrated and seeded Postgres database and a
+ * Spring context running the real services against it.
+ * <p>
+ * The database is a {@link BenchmarkDatabase}: an embedded Postgres started for the trial, or the server
+ * named by {@code -PjmhJdbcUrl=...} on the Gradle command line.
+ */
+@State(Scope.Benchmark)
+public class BackendState {
+
+    private BenchmarkDatabase database;
+
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The order service of the running application.
+     */
+    public OrderService orderService;
+
+    /**
+     * The item service of the running application.
+     */
+    public ItemService itemService;
+
+    /**
+     * The ingredient service of the running application.
+     */
+    public IngredientService ingredientService;
+
+    /**
+     * Starts the database and the application.
+     *
+     * @throws IOException  if the embedded database cannot be started
+     * @throws SQLException if seeding fails
+     */
+    @Setup(Level.Trial)
+    public void start() throws IOException, SQLException {
+        database = new BenchmarkDatabase();
+        String[] args = Stream.concat(Stream.of(database.getDataSourceArgs()),
+                                      Stream.of("--spring.main.banner-mode=off",
+                                                "--logging.level.root=WARN",
+                                                "--logging.level.org.springframework.security=WARN"))
+                .toArray(String[]::new);
+        context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+        if (database.isSeeded()) {
+            context.getBean(SalesRollupService.class).rebuild();
+            context.getBean(IngredientLedgerService.class).rebuild();
+        }
+        orderService = context.getBean(OrderService.class);
+        itemService = context.getBean(ItemService.class);
+        ingredientService = context.getBean(IngredientService.class);
+    }
+
+    /**
+     * Stops the application and the embedded database.
+     *
+     * @throws IOException if the embedded database cannot be stopped
+     */
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (database != null) {
+            database.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.project3.backend.benchmark;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.project3.backend.BackendApplication;
+
+/**
+ * The application context used by the benchmarks: every service, repository and cache of the backend,
+ * with their scheduled tasks, but without the controllers and the security configuration. Those need a
+ * web server and resolve the Google token issuer at startup, neither of which the benchmarks exercise.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {
+    SecurityAutoConfiguration.class,
+    UserDetailsServiceAutoConfiguration.class,
+    OAuth2ResourceServerAutoConfiguration.class
+})
+@AutoConfigurationPackage(basePackageClasses = BackendApplication.class)
+@EnableScheduling
+@ComponentScan(basePackageClasses = BackendApplication.class, excludeFilters = {
+    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = BackendApplication.class),
+    @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.project3\\.backend\\.(config|controller|benchmark)\\..*")
+})
+public class BenchmarkApplication {
+}
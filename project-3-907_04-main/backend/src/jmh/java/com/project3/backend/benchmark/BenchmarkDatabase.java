@@ -0,0 +1,223 @@
+package com.project3.backend.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * A migrated and seeded Postgres database for performance runs, shared by the benchmarks and the load test.
+ * <p>
+ * The database is an embedded Postgres started on demand, or the server named by the
+ * {@code benchmark.jdbc-url} system property, which must point at a scratch database. The schema relies on
+ * Postgres features such as partitioning and {@code ON CONFLICT} upserts, so H2 cannot host the full
+ * application. An empty database is seeded with {@code benchmark.orders} orders (20000 by default) spread
+ * over the past year.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    /**
+     * The number of menu items seeded.
+     */
+    public static final int ITEMS = 60;
+
+    /**
+     * The number of ingredients seeded.
+     */
+    public static final int INGREDIENTS = 40;
+
+    private final EmbeddedPostgres embedded;
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private final boolean seeded;
+
+    /**
+     * Starts or connects to the database, migrates it and seeds it if it is empty.
+     *
+     * @throws IOException  if the embedded database cannot be started
+     * @throws SQLException if seeding fails
+     */
+    public BenchmarkDatabase() throws IOException, SQLException {
+        String url = System.getProperty("benchmark.jdbc-url");
+        if (url == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            url = embedded.getJdbcUrl("postgres", "postgres");
+        } else {
+            embedded = null;
+        }
+        this.url = url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        this.username = System.getProperty("benchmark.jdbc-username", "postgres");
+        this.password = System.getProperty("benchmark.jdbc-password", "postgres");
+
+        DataSource dataSource = getDataSource();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        try (Connection connection = dataSource.getConnection()) {
+            seeded = seed(connection, Integer.getInteger("benchmark.orders", 20_000));
+        }
+    }
+
+    /**
+     * Returns a data source opening a new connection for every request, for setup work outside the application.
+     *
+     * @return The data source.
+     */
+    public DataSource getDataSource() {
+        return new DriverManagerDataSource(url, username, password);
+    }
+
+    /**
+     * Returns the arguments pointing a Spring Boot application at this database. Passed on the command line
+     * they take precedence over application.properties.
+     *
+     * @return The datasource arguments.
+     */
+    public String[] getDataSourceArgs() {
+        return new String[] {
+            "--spring.datasource.url=" + url,
+            "--spring.datasource.username=" + username,
+            "--spring.datasource.password=" + password
+        };
+    }
+
+    /**
+     * Returns whether the database was empty and has been seeded, in which case the application's derived
+     * tables still have to be rebuilt.
+     *
+     * @return Whether the database was seeded.
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Stops the embedded database, if one was started.
+     *
+     * @throws IOException if the embedded database cannot be stopped
+     */
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+
+    /**
+     * Fills an empty database with a menu, recipes and a year of orders, written with plain JDBC batches.
+     * The sequences are moved past the seeded IDs so the application can insert after them.
+     *
+     * @param connection The connection to the migrated database.
+     * @param orders     The number of orders to write.
+     * @return Whether the database was empty and has been seeded.
+     * @throws SQLException if a statement fails
+     */
+    private static boolean seed(Connection connection, int orders) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (statement.executeQuery("SELECT 1 FROM item LIMIT 1").next()) {
+                return false;
+            }
+            LocalDate today = LocalDate.now();
+            statement.execute("SELECT create_order_partitions('" + today.minusYears(1) + "', '" + today + "')");
+        }
+        connection.setAutoCommit(false);
+        Random random = new Random(315);
+        double[] prices = new double[ITEMS + 1];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO item (id, category_id, name, gluten_free, vegan, price, size, extra_sauce, image_url) " +
+                "VALUES (?, ?, ?, false, false, ?, 'M', false, '')")) {
+            for (int id = 1; id <= ITEMS; id++) {
+                prices[id] = 3 + random.nextInt(10);
+                ps.setInt(1, id);
+                ps.setInt(2, 1 + id % 6);
+                ps.setString(3, "item" + id);
+                ps.setDouble(4, prices[id]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO ingredient (id, name, stock, restock, amount_ordered, price, gluten_free, vegan) " +
+                "VALUES (?, ?, ?, ?, 0, 1.0, false, false)")) {
+            for (int id = 1; id <= INGREDIENTS; id++) {
+                ps.setInt(1, id);
+                ps.setString(2, "ingredient" + id);
+                ps.setInt(3, 1_000_000);
+                ps.setInt(4, 500 + random.nextInt(20_000));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO item_to_ingredient (id, item_id, ingredient_id, quantity) VALUES (?, ?, ?, ?)")) {
+            for (int row = 0; row < ITEMS * 4; row++) {
+                ps.setInt(1, row + 1);
+                ps.setInt(2, row / 4 + 1);
+                ps.setInt(3, 1 + (row * 7 + random.nextInt(3)) % INGREDIENTS);
+                ps.setInt(4, 1 + random.nextInt(3));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        LocalDateTime first = LocalDate.now().minusYears(1).atStartOfDay();
+        int minutes = (int) Duration.between(first, LocalDateTime.now()).toMinutes();
+        int lineId = 0;
+        try (PreparedStatement order = connection.prepareStatement(
+                     "INSERT INTO \"order\" (id, price, time, user_id, status) VALUES (?, ?, ?, 0, 'completed')");
+             PreparedStatement line = connection.prepareStatement(
+                     "INSERT INTO item_to_order (id, item_id, order_id, quantity, order_time) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= orders; id++) {
+                Timestamp time = Timestamp.valueOf(first.plusMinutes(random.nextInt(minutes)));
+                double price = 0;
+                int lines = 1 + random.nextInt(4);
+                for (int i = 0; i < lines; i++) {
+                    // Skewed towards the first items, leaving a tail of rarely ordered ones
+                    int item = 1 + (int) (ITEMS * Math.pow(random.nextDouble(), 2));
+                    int quantity = 1 + random.nextInt(2);
+                    price += prices[item] * quantity;
+                    line.setInt(1, ++lineId);
+                    line.setInt(2, item);
+                    line.setInt(3, id);
+                    line.setInt(4, quantity);
+                    line.setTimestamp(5, time);
+                    line.addBatch();
+                }
+                order.setInt(1, id);
+                order.setDouble(2, price);
+                order.setTimestamp(3, time);
+                order.addBatch();
+                if (id % 1000 == 0) {
+                    order.executeBatch();
+                    line.executeBatch();
+                }
+            }
+            order.executeBatch();
+            line.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[] {"item", "ingredient", "item_to_ingredient", "order", "item_to_order"}) {
+                statement.execute("SELECT setval('" + table + "_id_seq', (SELECT max(id) FROM \"" + table + "\"))");
+            }
+            statement.execute("ANALYZE");
+        }
+        connection.commit();
+        return true;
+    }
+}
@@ -0,0 +1,288 @@
+package com.project3.backend.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.project3.backend.entity.Ingredient;
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.ItemToIngredient;
+import com.project3.backend.index.DailySalesIndex;
+import com.project3.backend.inventory.ExcessInventory;
+
+/**
+ * Compares the excess items report computed by the in-memory engine with the CTE it replaced, on an in-memory
+ * H2 database in PostgreSQL mode filled with a year of synthetic orders. The engine side performs the same
+ * work as the service: loading the item, recipe and ingredient tables, counting the two partial boundary days
+ * from the orders, and summing the whole days from the daily sales vectors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExcessItemsBenchmark {
+
+    /**
+     * The excess items query used before the engine, kept verbatim as the baseline.
+     */
+    private static final String LEGACY_SQL = "WITH ItemSales AS (" +
+                        "SELECT io.item_id, SUM(ii.Quantity) AS total_sold " +
+                        "FROM item_to_order AS io " +
+                        "INNER JOIN \"order\" AS o ON io.order_id = o.id " +
+                        "LEFT JOIN item_TO_ingredient AS ii ON io.item_id = ii.item_ID " +
+                        "LEFT JOIN ingredient AS ing ON ii.ingredient_ID = ing.ID " +
+                        "WHERE o.time >= ? AND o.time <= ? " +
+                    "GROUP BY io.item_id), " +
+                    "ItemInventory AS (" +
+                        "SELECT i.id, i.name, i.price, " +
+                        "i.vegan, i.gluten_free, " +
+                        "i.category_id, i.size, i.extra_sauce, i.image_url, ing.restock, " +
+                        "SUM(ii.Quantity) AS total_ingredient " +
+                        "FROM item AS i " +
+                        "LEFT JOIN item_TO_ingredient AS ii ON i.ID = ii.id " +
+                        "LEFT JOIN ingredient AS ing ON ii.ingredient_ID = ing.id " +
+                    "GROUP BY i.id, i.name, i.price, i.vegan, i.gluten_free, i.category_id, i.size, i.extra_sauce, i.image_url, ing.restock), " +
+                    "DistinctItems AS (" +
+                        "SELECT ii.id, ii.name, ii.price, ii.vegan, " +
+                        "ii.gluten_free, ii.category_id, ii.size, ii.extra_sauce, ii.image_url, " +
+                        "CASE WHEN (total_sold IS NULL) THEN 0 ELSE total_sold END AS total_sold " +
+                        "FROM ItemInventory AS ii " +
+                        "LEFT JOIN ItemSales AS isales ON ii.id = isales.item_id " +
+                    "WHERE (COALESCE(isales.total_sold, 0) / ii.restock) < 0.10 OR isales.total_sold IS NULL) " +
+                    "SELECT * " +
+                    "FROM (" +
+                        "SELECT *, ROW_NUMBER() OVER(PARTITION BY id ORDER BY total_sold DESC) AS rn " +
+                    "FROM DistinctItems) AS ranked " +
+                    "WHERE rn = 1 AND total_sold = 0";
+
+    private static final String PARTIAL_DAY_SQL = "SELECT io.item_id, SUM(io.quantity) " +
+            "FROM item_to_order io WHERE io.order_time >= ? AND io.order_time < ? GROUP BY io.item_id";
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    private static final int DAYS = 365;
+
+    /**
+     * The number of synthetic orders.
+     */
+    @Param({"20000", "100000"})
+    public int orders;
+
+    private Connection connection;
+
+    private DailySalesIndex sales;
+
+    // A 90-day report range that starts and ends mid-day
+    private final LocalDateTime start = FIRST_DAY.plusDays(200).atTime(9, 30);
+
+    private final LocalDateTime end = FIRST_DAY.plusDays(290).atTime(17, 45);
+
+    /**
+     * Creates and fills the database, and loads the daily sales vectors the way the service does at startup.
+     *
+     * @throws SQLException if the database cannot be set up
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // The benchmark jar does not always keep the driver's service registration
+        DriverManager.registerDriver(new org.h2.Driver());
+        connection = DriverManager.getConnection("jdbc:h2:mem:excess" + orders + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id int PRIMARY KEY, category_id int, name varchar(64), gluten_free boolean, " +
+                    "vegan boolean, price double precision, size varchar(16), extra_sauce boolean, image_url varchar(64))");
+            statement.execute("CREATE TABLE ingredient (id int PRIMARY KEY, name varchar(64), stock int, restock int, " +
+                    "amount_ordered int, price double precision, gluten_free boolean, vegan boolean)");
+            statement.execute("CREATE TABLE item_to_ingredient (id int PRIMARY KEY, item_id int, ingredient_id int, quantity int)");
+            statement.execute("CREATE TABLE \"order\" (id int PRIMARY KEY, time timestamp, price double precision, user_id int, status varchar(16))");
+            statement.execute("CREATE TABLE item_to_order (id int PRIMARY KEY, order_id int, item_id int, quantity int, order_time timestamp)");
+            statement.execute("CREATE INDEX order_time_idx ON \"order\" (time)");
+            statement.execute("CREATE INDEX item_to_order_order_idx ON item_to_order (order_id)");
+            statement.execute("CREATE INDEX item_to_order_time_idx ON item_to_order (order_time)");
+        }
+
+        Random random = new Random(315);
+        int items = 60;
+        int ingredients = 40;
+        batch("INSERT INTO item VALUES (?, 1, ?, false, false, 5.0, 'M', false, '')", items, (ps, i) -> {
+            ps.setInt(1, i + 1);
+            ps.setString(2, "item" + i);
+        });
+        batch("INSERT INTO ingredient VALUES (?, ?, 1000, ?, 0, 1.0, false, false)", ingredients, (ps, i) -> {
+            ps.setInt(1, i + 1);
+            ps.setString(2, "ingredient" + i);
+            ps.setInt(3, 500 + random.nextInt(20_000));
+        });
+        batch("INSERT INTO item_to_ingredient VALUES (?, ?, ?, ?)", items * 4, (ps, i) -> {
+            ps.setInt(1, i + 1);
+            ps.setInt(2, i / 4 + 1);
+            ps.setInt(3, random.nextInt(ingredients) + 1);
+            ps.setInt(4, 1 + random.nextInt(3));
+        });
+        LocalDateTime[] times = new LocalDateTime[orders];
+        batch("INSERT INTO \"order\" VALUES (?, ?, 10.0, 0, 'done')", orders, (ps, i) -> {
+            times[i] = FIRST_DAY.atStartOfDay().plusMinutes(random.nextInt(DAYS * 24 * 60));
+            ps.setInt(1, i + 1);
+            ps.setTimestamp(2, Timestamp.valueOf(times[i]));
+        });
+        sales = new DailySalesIndex();
+        int[] lineId = {0};
+        batch("INSERT INTO item_to_order VALUES (?, ?, ?, ?, ?)", orders * 2, (ps, i) -> {
+            int order = i / 2;
+            // Popular items are skewed low, leaving the tail of the menu in excess
+            int item = 1 + (int) (items * Math.pow(random.nextDouble(), 3));
+            int quantity = 1 + random.nextInt(2);
+            ps.setInt(1, ++lineId[0]);
+            ps.setInt(2, order + 1);
+            ps.setInt(3, item);
+            ps.setInt(4, quantity);
+            ps.setTimestamp(5, Timestamp.valueOf(times[order]));
+            sales.add(times[order].toLocalDate(), item, quantity);
+        });
+    }
+
+    /**
+     * Closes the database.
+     *
+     * @throws SQLException if closing fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    /**
+     * Runs the CTE the engine replaced.
+     *
+     * @return The number of rows returned.
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int legacySql() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(LEGACY_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            int rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Computes the report like the excess items service: whole days from the sales vectors, partial days and
+     * the small catalog tables from the database.
+     *
+     * @return The excess items.
+     * @throws SQLException if a query fails
+     */
+    @Benchmark
+    public List<Item> engine() throws SQLException {
+        LocalDate firstDay = start.toLocalDate().plusDays(1);
+        LocalDate lastDay = end.toLocalDate();
+        Map<Integer, Long> sold = sales.sum(firstDay, lastDay);
+        addPartialDay(sold, start, firstDay.atStartOfDay());
+        addPartialDay(sold, lastDay.atStartOfDay(), end.plusNanos(1000));
+        return ExcessInventory.select(loadItems(), loadRecipes(), loadIngredients(), sold, 0.10);
+    }
+
+    private void addPartialDay(Map<Integer, Long> sold, LocalDateTime from, LocalDateTime to) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(PARTIAL_DAY_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sold.merge(rs.getInt(1), rs.getLong(2), Long::sum);
+                }
+            }
+        }
+    }
+
+    private List<Item> loadItems() throws SQLException {
+        List<Item> items = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, name FROM item")) {
+            while (rs.next()) {
+                Item item = new Item();
+                item.setId(rs.getInt(1));
+                item.setName(rs.getString(2));
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private List<ItemToIngredient> loadRecipes() throws SQLException {
+        List<ItemToIngredient> recipes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT item_id, ingredient_id, quantity FROM item_to_ingredient")) {
+            while (rs.next()) {
+                ItemToIngredient row = new ItemToIngredient();
+                row.setItemId(rs.getInt(1));
+                row.setIngredientId(rs.getInt(2));
+                row.setQuantity(rs.getInt(3));
+                recipes.add(row);
+            }
+        }
+        return recipes;
+    }
+
+    private List<Ingredient> loadIngredients() throws SQLException {
+        Map<Integer, Ingredient> ingredients = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, name, restock FROM ingredient")) {
+            while (rs.next()) {
+                ingredients.put(rs.getInt(1), new Ingredient(rs.getInt(1), rs.getString(2), 0, rs.getInt(3), 0, 0.0, false, false));
+            }
+        }
+        return new ArrayList<>(ingredients.values());
+    }
+
+    /**
+     * Binds the parameters of one row of a batch insert.
+     */
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int row) throws SQLException;
+    }
+
+    private void batch(String sql, int rows, RowBinder binder) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                binder.bind(ps, i);
+                ps.addBatch();
+                if (i % 1000 == 999) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.project3.backend.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.Order;
+
+/**
+ * Measures the JSON conversion of orders and menu items with an object mapper configured like the one
+ * Spring Boot gives the controllers, and the same conversions in CBOR, the binary encoding clients can ask
+ * for. The menu is also read back, as a client parsing the response would. It needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    private static final TypeReference<List<Item>> ITEM_LIST = new TypeReference<>() {
+    };
+
+    private ObjectMapper mapper;
+
+    private ObjectMapper cborMapper;
+
+    private List<Order> orders;
+
+    private List<Item> menu;
+
+    private String orderRequest;
+
+    private byte[] menuJson;
+
+    private byte[] menuCbor;
+
+    /**
+     * Builds a page of orders, a menu in both encodings and the body of an order request.
+     *
+     * @throws JsonProcessingException if the request body cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        orders = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 12, 0);
+        for (int id = 1; id <= 50; id++) {
+            Order order = new Order(id, 12.5f, time.plusMinutes(id), id % 7);
+            order.setStatus("completed");
+            orders.add(order);
+        }
+        menu = new ArrayList<>();
+        for (int id = 1; id <= BenchmarkDatabase.ITEMS; id++) {
+            Item item = new Item(id, 1 + id % 6, "item" + id, "M", id % 2 == 0, id % 3 == 0, false, 3.0 + id % 10);
+            item.setImageUrl("https://example.com/items/" + id + ".png");
+            menu.add(item);
+        }
+        orderRequest = "{\"price\":24.0,\"time\":\"2024-03-01T12:00:00\",\"userId\":3,\"status\":\"pending\"," +
+                "\"items\":{\"1\":2,\"7\":1,\"12\":1,\"30\":3}}";
+        menuJson = mapper.writeValueAsBytes(menu);
+        menuCbor = cborMapper.writeValueAsBytes(menu);
+    }
+
+    /**
+     * Writes a page of 50 orders, as returned by {@code GET /orders}.
+     *
+     * @return The JSON text.
+     * @throws JsonProcessingException if writing fails
+     */
+    @Benchmark
+    public String writeOrders() throws JsonProcessingException {
+        return mapper.writeValueAsString(orders);
+    }
+
+    /**
+     * Writes the whole menu, as returned by {@code GET /menuItems}.
+     *
+     * @return The JSON text.
+     * @throws JsonProcessingException if writing fails
+     */
+    @Benchmark
+    public String writeMenu() throws JsonProcessingException {
+        return mapper.writeValueAsString(menu);
+    }
+
+    /**
+     * Writes a page of 50 orders as CBOR, as returned by {@code GET /orders} with {@code Accept: application/cbor}.
+     *
+     * @return The CBOR bytes.
+     * @throws JsonProcessingException if writing fails
+     */
+    @Benchmark
+    public byte[] writeOrdersCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(orders);
+    }
+
+    /**
+     * Reads the whole menu from JSON, as a client of {@code GET /menuItems} does.
+     *
+     * @return The menu items.
+     * @throws IOException if reading fails
+     */
+    @Benchmark
+    public List<Item> readMenu() throws IOException {
+        return mapper.readValue(menuJson, ITEM_LIST);
+    }
+
+    /**
+     * Reads the whole menu from CBOR, as a client of {@code GET /menuItems} with {@code Accept: application/cbor} does.
+     *
+     * @return The menu items.
+     * @throws IOException if reading fails
+     */
+    @Benchmark
+    public List<Item> readMenuCbor() throws IOException {
+        return cborMapper.readValue(menuCbor, ITEM_LIST);
+    }
+
+    /**
+     * Reads the body of an order request, as sent to {@code POST /orders}.
+     *
+     * @return The order.
+     * @throws JsonProcessingException if reading fails
+     */
+    @Benchmark
+    public Order readOrder() throws JsonProcessingException {
+        return mapper.readValue(orderRequest, Order.class);
+    }
+}
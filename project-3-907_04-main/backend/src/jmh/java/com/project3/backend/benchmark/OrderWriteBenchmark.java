@@ -0,0 +1,86 @@
+package com.project3.backend.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.Order;
+
+/**
+ * Measures the write paths: placing an order, with every derived table and index it keeps up to date,
+ * and saving a menu item together with its recipe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderWriteBenchmark {
+
+    private List<Item> menu;
+
+    /**
+     * Reads the seeded menu once, with each item's recipe.
+     *
+     * @param app The running application.
+     */
+    @Setup(Level.Trial)
+    public void loadMenu(BackendState app) {
+        menu = app.itemService.fetchMenuItems();
+        for (Item item : menu) {
+            Map<Integer, Integer> recipe = new HashMap<>();
+            app.ingredientService.fetchIngredientsByItemId(item.getId())
+                    .forEach(row -> recipe.put(row.getId(), row.getQuantity()));
+            item.setIngredients(recipe);
+        }
+    }
+
+    /**
+     * Places a new order of one to four random menu items.
+     *
+     * @param app The running application.
+     * @return The saved order.
+     */
+    @Benchmark
+    public Order saveOrder(BackendState app) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<Integer, Integer> items = new HashMap<>();
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            items.put(menu.get(random.nextInt(menu.size())).getId(), 1 + random.nextInt(2));
+        }
+        Order order = new Order();
+        order.setStatus("pending");
+        order.setItems(items);
+        return app.orderService.saveOrder(order);
+    }
+
+    /**
+     * Saves a random menu item with one of its recipe quantities changed.
+     *
+     * @param app The running application.
+     * @return The saved item.
+     */
+    @Benchmark
+    public Item saveItem(BackendState app) {
+        Item item = menu.get(ThreadLocalRandom.current().nextInt(menu.size()));
+        Map<Integer, Integer> recipe = new HashMap<>(item.getIngredients());
+        recipe.replaceAll((ingredientId, quantity) -> quantity % 3 + 1);
+        Item update = new Item(item.getId(), item.getCategoryId(), item.getName(), item.getSize(),
+                item.isGlutenFree(), item.isVegan(), item.isExtraSauce(), item.getPrice());
+        update.setImageUrl(item.getImageUrl());
+        update.setIngredients(recipe);
+        item.setIngredients(recipe);
+        return app.itemService.saveItem(update);
+    }
+}
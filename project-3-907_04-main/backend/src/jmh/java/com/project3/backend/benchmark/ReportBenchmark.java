@@ -0,0 +1,107 @@
+package com.project3.backend.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.reports.IngredientUsageReport;
+import com.project3.backend.reports.OrderedTogetherReport;
+import com.project3.backend.reports.RestockReport;
+import com.project3.backend.reports.SalesReport;
+
+/**
+ * Measures every report served by the item and ingredient services over a range of the seeded order
+ * history. The range starts and ends part way through a day, like the ranges the dashboard sends, so the
+ * reports answered from rollups also have partial days to count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReportBenchmark {
+
+    /**
+     * The length of the report range in days.
+     */
+    @Param({"7", "90"})
+    public int days;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    /**
+     * Places the report range so that it ends yesterday afternoon.
+     */
+    @Setup(Level.Trial)
+    public void range() {
+        end = LocalDate.now().minusDays(1).atTime(16, 45);
+        start = end.minusDays(days).withHour(9).withMinute(30);
+    }
+
+    /**
+     * The sales report.
+     *
+     * @param app The running application.
+     * @return The report.
+     */
+    @Benchmark
+    public List<SalesReport> salesReport(BackendState app) {
+        return app.itemService.salesReport(start, end);
+    }
+
+    /**
+     * The excess items report.
+     *
+     * @param app The running application.
+     * @return The report.
+     */
+    @Benchmark
+    public List<Item> excessItems(BackendState app) {
+        return app.itemService.excessItems(start, end);
+    }
+
+    /**
+     * The items ordered together report, without a limit.
+     *
+     * @param app The running application.
+     * @return The report.
+     */
+    @Benchmark
+    public List<OrderedTogetherReport> orderedTogether(BackendState app) {
+        return app.itemService.fetchItemsOrderedTogether(start, end, null);
+    }
+
+    /**
+     * The ingredient usage report.
+     *
+     * @param app The running application.
+     * @return The report.
+     */
+    @Benchmark
+    public List<IngredientUsageReport> ingredientUsage(BackendState app) {
+        return app.ingredientService.fetchIngredientUsageBetweenDates(start, end);
+    }
+
+    /**
+     * The restock report, which does not depend on the range.
+     *
+     * @param app The running application.
+     * @return The report.
+     */
+    @Benchmark
+    public List<RestockReport> restockReport(BackendState app) {
+        return app.ingredientService.fetchStockLessThanRestock();
+    }
+}
@@ -0,0 +1,77 @@
+package com.project3.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LatencyRecorder collects the response times of one endpoint during one stage of a load test and
+ * summarizes them as percentiles. Every sample is kept, so the percentiles are exact; a stage at a few
+ * hundred requests per second holds well under a million samples.
+ */
+public class LatencyRecorder {
+
+    // Response times in nanoseconds, of successful and failed requests alike
+    private long[] samples = new long[1024];
+
+    // Number of samples recorded
+    private int count;
+
+    // Number of requests that failed or returned an error status
+    private int errors;
+
+    /**
+     * Records one request.
+     *
+     * @param nanos The time from the intended start of the request to its response.
+     * @param ok    Whether the request succeeded.
+     */
+    public synchronized void record(long nanos, boolean ok) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    /**
+     * Summarizes the recorded requests.
+     *
+     * @param seconds The length of the stage, used for the throughput.
+     * @return The count, errors, throughput in requests per second and p50/p95/p99/max in milliseconds.
+     */
+    public synchronized Map<String, Number> summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        Map<String, Number> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("throughput", count / seconds);
+        summary.put("p50", millis(percentile(sorted, 0.50)));
+        summary.put("p95", millis(percentile(sorted, 0.95)));
+        summary.put("p99", millis(percentile(sorted, 0.99)));
+        summary.put("max", millis(count == 0 ? 0 : sorted[count - 1]));
+        return summary;
+    }
+
+    /**
+     * Returns the nearest-rank percentile of the sorted samples.
+     *
+     * @param sorted   The samples in ascending order.
+     * @param fraction The percentile as a fraction between 0 and 1.
+     * @return The sample at the percentile, or 0 if there are none.
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
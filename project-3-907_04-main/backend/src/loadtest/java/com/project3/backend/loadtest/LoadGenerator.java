@@ -0,0 +1,175 @@
+package com.project3.backend.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator replays the traffic mix against the application as an open workload: each scenario's
+ * requests are scheduled at fixed intervals for its target rate, whether or not earlier requests have
+ * been answered, and are sent by a pool of {@link VirtualClient}s.
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    /**
+     * A request scheduled for a stage.
+     *
+     * @param scenario       The scenario to send.
+     * @param scheduledNanos The {@link System#nanoTime()} at which the request is due.
+     * @param stage          The stage recording the result.
+     */
+    record Ticket(Scenario scenario, long scheduledNanos, Stage stage) {
+    }
+
+    /**
+     * The results of one stage of the load test, per endpoint.
+     */
+    public static class Stage {
+
+        // Length of the stage
+        private final Duration duration;
+
+        // Latencies keyed by "METHOD /path"
+        private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+        // Requests scheduled but not yet answered
+        private int pending;
+
+        /**
+         * Creates an empty stage.
+         *
+         * @param duration The length of the stage.
+         */
+        Stage(Duration duration) {
+            this.duration = duration;
+        }
+
+        /**
+         * Returns the recorder of an endpoint, creating it on first use.
+         *
+         * @param endpoint The endpoint, as "METHOD /path".
+         * @return The recorder.
+         */
+        LatencyRecorder recorder(String endpoint) {
+            return recorders.computeIfAbsent(endpoint, e -> new LatencyRecorder());
+        }
+
+        /**
+         * Counts a request scheduled for this stage.
+         */
+        synchronized void scheduled() {
+            pending++;
+        }
+
+        /**
+         * Counts a request of this stage that was answered or failed.
+         */
+        synchronized void completed() {
+            if (--pending == 0) {
+                notifyAll();
+            }
+        }
+
+        /**
+         * Waits until every scheduled request of this stage was answered or failed.
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        synchronized void awaitCompletion() throws InterruptedException {
+            while (pending > 0) {
+                wait();
+            }
+        }
+
+        /**
+         * Summarizes the stage.
+         *
+         * @return The summary of each endpoint, in endpoint order.
+         */
+        public Map<String, Map<String, Number>> summarize() {
+            double seconds = duration.toNanos() / 1e9;
+            Map<String, Map<String, Number>> summary = new TreeMap<>();
+            recorders.forEach((endpoint, recorder) -> summary.put(endpoint, recorder.summarize(seconds)));
+            return summary;
+        }
+    }
+
+    // Requests waiting for a free client
+    private final BlockingQueue<Ticket> tickets = new LinkedBlockingQueue<>();
+
+    // Threads of the virtual clients
+    private final List<Thread> clients = new ArrayList<>();
+
+    /**
+     * Starts the virtual clients.
+     *
+     * @param baseUrl The URL of the application under test.
+     * @param clients The number of virtual clients.
+     */
+    public LoadGenerator(String baseUrl, int clients) {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(new VirtualClient(baseUrl, http, tickets, i), "client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            this.clients.add(thread);
+        }
+    }
+
+    /**
+     * Runs one stage: schedules every scenario at its rate for the duration, then waits for all of its
+     * requests to be answered.
+     *
+     * @param rates    The target rate of each scenario, in requests per second.
+     * @param duration The length of the stage.
+     * @return The results of the stage.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Stage run(Map<Scenario, Double> rates, Duration duration) throws InterruptedException {
+        Stage stage = new Stage(duration);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<Thread> schedulers = new ArrayList<>();
+        rates.forEach((scenario, rate) -> {
+            if (rate <= 0) {
+                return;
+            }
+            long interval = (long) (1e9 / rate);
+            Thread scheduler = new Thread(() -> {
+                for (long due = start; due < end; due += interval) {
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    stage.scheduled();
+                    tickets.add(new Ticket(scenario, due, stage));
+                }
+            }, "schedule-" + scenario);
+            scheduler.start();
+            schedulers.add(scheduler);
+        });
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+        stage.awaitCompletion();
+        return stage;
+    }
+
+    /**
+     * Stops the virtual clients.
+     */
+    @Override
+    public void close() {
+        clients.forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,201 @@
+package com.project3.backend.loadtest;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project3.backend.BackendApplication;
+import com.project3.backend.benchmark.BenchmarkDatabase;
+import com.project3.backend.service.IngredientLedgerService;
+import com.project3.backend.service.SalesRollupService;
+
+/**
+ * Synthetic lunch-rush load test. Boots the application on a random port against a local Postgres (see
+ * {@link BenchmarkDatabase}) with a stubbed JWT decoder, then replays a traffic mix of menu polls, order
+ * posts, server order listings and manager reports from a pool of virtual clients.
+ * <p>
+ * The order rate is ramped through the stages given by {@code --order-rates} while the rest of the mix
+ * stays at its rate. Every stage reports the count, errors, throughput and p50/p95/p99/max latency of each
+ * endpoint. The ramp stops at the first stage where {@code POST /orders} misses its p99 target, fails
+ * requests or falls behind its rate, and the last stage that met it is reported as the sustained rate.
+ * <p>
+ * Each stage is tagged with the threads requests ran on, so results of the default platform threads and of
+ * {@code ./gradlew loadTest -PvirtualThreads} can be compared.
+ * <p>
+ * Run with {@code ./gradlew loadTest --args='--order-rates=10,20,40 --duration=30'}. Options:
+ * <ul>
+ * <li>{@code --order-rates} order posts per second of each stage (10,20,40,80)</li>
+ * <li>{@code --menu-rate}, {@code --orders-rate}, {@code --report-rate} requests per second of the rest
+ * of the mix (40, 5, 0.5)</li>
+ * <li>{@code --duration} seconds per stage (60), {@code --warmup} seconds of unrecorded warmup (20)</li>
+ * <li>{@code --clients} number of virtual clients (200)</li>
+ * <li>{@code --p99-target} order post p99 in milliseconds a stage must meet (250)</li>
+ * <li>{@code --output} file the results are written to as JSON (build/reports/loadtest/results.json)</li>
+ * <li>{@code --journal} accepts orders through the order journal, posting them without idempotency keys</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    /**
+     * Email of the server account used for order listings.
+     */
+    static final String SERVER_EMAIL = "server@loadtest.local";
+
+    /**
+     * Email of the manager account used for reports.
+     */
+    static final String MANAGER_EMAIL = "manager@loadtest.local";
+
+    /**
+     * Bearer token of the server account.
+     */
+    static final String SERVER_TOKEN = StubJwtConfiguration.token(SERVER_EMAIL);
+
+    /**
+     * Bearer token of the manager account.
+     */
+    static final String MANAGER_TOKEN = StubJwtConfiguration.token(MANAGER_EMAIL);
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The options, as {@code --name=value}.
+     * @throws Exception if the database or application cannot be started
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        double[] orderRates = Arrays.stream(options.getOrDefault("order-rates", "10,20,40,80").split(","))
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        Map<Scenario, Double> rates = new EnumMap<>(Scenario.class);
+        rates.put(Scenario.MENU, Double.parseDouble(options.getOrDefault("menu-rate", "40")));
+        rates.put(Scenario.ORDERS, Double.parseDouble(options.getOrDefault("orders-rate", "5")));
+        rates.put(Scenario.REPORT, Double.parseDouble(options.getOrDefault("report-rate", "0.5")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "20")));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        double p99Target = Double.parseDouble(options.getOrDefault("p99-target", "250"));
+        File output = new File(options.getOrDefault("output", "build/reports/loadtest/results.json"));
+        boolean journal = Boolean.parseBoolean(options.getOrDefault("journal", "false"));
+        Scenario.orderKeys = !journal;
+
+        try (BenchmarkDatabase database = new BenchmarkDatabase()) {
+            addUsers(database.getDataSource());
+            List<String> appArgs = new ArrayList<>(Arrays.asList(database.getDataSourceArgs()));
+            appArgs.addAll(List.of(
+                    "--server.port=0",
+                    "--spring.main.allow-bean-definition-overriding=true",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--logging.level.org.springframework.security=WARN"));
+            if (journal) {
+                appArgs.addAll(List.of(
+                        "--orders.journal.enabled=true",
+                        "--orders.journal.path=build/loadtest/orders.journal"));
+            }
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class, StubJwtConfiguration.class)
+                    .run(appArgs.toArray(String[]::new))) {
+                if (database.isSeeded()) {
+                    context.getBean(SalesRollupService.class).rebuild();
+                    context.getBean(IngredientLedgerService.class).rebuild();
+                }
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                String threads = Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtual" : "platform";
+                System.out.printf("Requests run on %s threads%n", threads);
+
+                List<Map<String, Object>> results = new ArrayList<>();
+                double sustained = 0;
+                try (LoadGenerator generator = new LoadGenerator(baseUrl, clients)) {
+                    rates.put(Scenario.ORDER, orderRates[0]);
+                    System.out.printf("Warming up for %d s%n", warmup.toSeconds());
+                    generator.run(rates, warmup);
+
+                    for (double orderRate : orderRates) {
+                        rates.put(Scenario.ORDER, orderRate);
+                        Map<String, Map<String, Number>> endpoints = generator.run(rates, duration).summarize();
+                        print(orderRate, endpoints);
+
+                        Map<String, Object> stage = new LinkedHashMap<>();
+                        stage.put("threads", threads);
+                        stage.put("journal", journal);
+                        stage.put("orderRate", orderRate);
+                        stage.put("rates", new EnumMap<>(rates));
+                        stage.put("endpoints", endpoints);
+                        results.add(stage);
+
+                        Map<String, Number> orders = endpoints.get("POST /orders");
+                        if (orders == null
+                                || orders.get("p99").doubleValue() > p99Target
+                                || orders.get("errors").intValue() > 0
+                                || orders.get("throughput").doubleValue() < 0.95 * orderRate) {
+                            break;
+                        }
+                        sustained = orderRate;
+                    }
+                }
+
+                output.getAbsoluteFile().getParentFile().mkdirs();
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output, results);
+                System.out.printf("%nSustained %s orders/s with POST /orders p99 under %s ms%n", sustained, p99Target);
+                System.out.println("Results written to " + output);
+            }
+        }
+    }
+
+    /**
+     * Adds the server and manager accounts the load test authenticates as, unless they exist.
+     *
+     * @param dataSource The database.
+     * @throws Exception if the accounts cannot be added
+     */
+    private static void addUsers(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                     "INSERT INTO \"user\" (username, email, role) SELECT ?, ?, ? " +
+                     "WHERE NOT EXISTS (SELECT 1 FROM \"user\" WHERE email = ?)")) {
+            for (String[] user : new String[][] {{"loadtest-server", SERVER_EMAIL, "server"},
+                                                 {"loadtest-manager", MANAGER_EMAIL, "manager"}}) {
+                ps.setString(1, user[0]);
+                ps.setString(2, user[1]);
+                ps.setString(3, user[2]);
+                ps.setString(4, user[1]);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Prints the results of a stage as a table.
+     *
+     * @param orderRate The order rate of the stage.
+     * @param endpoints The summary of each endpoint.
+     */
+    private static void print(double orderRate, Map<String, Map<String, Number>> endpoints) {
+        System.out.printf("%nStage at %s orders/s%n", orderRate);
+        System.out.printf("%-28s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        endpoints.forEach((endpoint, s) -> System.out.printf("%-28s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, s.get("count").intValue(), s.get("errors").intValue(), s.get("throughput").doubleValue(),
+                s.get("p50").doubleValue(), s.get("p95").doubleValue(), s.get("p99").doubleValue(),
+                s.get("max").doubleValue()));
+    }
+}
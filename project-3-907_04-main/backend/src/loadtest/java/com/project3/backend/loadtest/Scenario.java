@@ -0,0 +1,112 @@
+package com.project3.backend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.project3.backend.benchmark.BenchmarkDatabase;
+
+/**
+ * The kinds of traffic in the lunch-rush mix. Each scenario is driven at its own target rate and builds
+ * the next request of a virtual client; the endpoint it hits is reported separately.
+ */
+public enum Scenario {
+
+    /**
+     * A kiosk polling the menu bundle, revalidating the copy it holds.
+     */
+    MENU {
+        @Override
+        HttpRequest request(String baseUrl, VirtualClient client, Random random) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/menu"));
+            String etag = client.getEtag("/menu");
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            return request.GET().build();
+        }
+    },
+
+    /**
+     * A customer placing an order of one to four menu items, keyed for safe retries like a kiosk does unless
+     * {@link #orderKeys} is off.
+     */
+    ORDER {
+        @Override
+        HttpRequest request(String baseUrl, VirtualClient client, Random random) {
+            Map<Integer, Integer> items = new HashMap<>();
+            int lines = 1 + random.nextInt(4);
+            for (int i = 0; i < lines; i++) {
+                items.merge(1 + random.nextInt(BenchmarkDatabase.ITEMS), 1, Integer::sum);
+            }
+            String body = String.format("{\"price\":%d.0,\"time\":\"%s\",\"userId\":0,\"status\":\"pending\",\"items\":{%s}}",
+                    8 * lines, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS),
+                    items.entrySet().stream()
+                            .map(e -> "\"" + e.getKey() + "\":" + e.getValue())
+                            .collect(Collectors.joining(",")));
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (orderKeys) {
+                request.header("Idempotency-Key", UUID.randomUUID().toString());
+            }
+            return request.build();
+        }
+    },
+
+    /**
+     * A server refreshing the first page of pending orders.
+     */
+    ORDERS {
+        @Override
+        HttpRequest request(String baseUrl, VirtualClient client, Random random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/orders?status=pending&limit=50"))
+                    .header("Authorization", "Bearer " + LoadTest.SERVER_TOKEN)
+                    .GET()
+                    .build();
+        }
+    },
+
+    /**
+     * A manager opening one of the reports over the last week.
+     */
+    REPORT {
+        private final String[] reports = {
+            "/salesReport", "/excessItems", "/orderedTogether", "/ingredientUsageReport", "/restockReport"
+        };
+
+        @Override
+        HttpRequest request(String baseUrl, VirtualClient client, Random random) {
+            String report = reports[random.nextInt(reports.length)];
+            LocalDate today = LocalDate.now();
+            String range = "?startDate=" + today.minusDays(7).atStartOfDay() + "&endDate=" + today.atTime(23, 59, 59);
+            return HttpRequest.newBuilder(URI.create(baseUrl + report + range))
+                    .header("Authorization", "Bearer " + LoadTest.MANAGER_TOKEN)
+                    .GET()
+                    .build();
+        }
+    };
+
+    /**
+     * Whether order posts carry an {@code Idempotency-Key}. Keyed orders bypass the order journal, so it is
+     * turned off to load the journal.
+     */
+    static volatile boolean orderKeys = true;
+
+    /**
+     * Builds the next request of this scenario.
+     *
+     * @param baseUrl The URL of the application under test.
+     * @param client  The virtual client sending the request.
+     * @param random  The random source of the client.
+     * @return The request.
+     */
+    abstract HttpRequest request(String baseUrl, VirtualClient client, Random random);
+}
@@ -0,0 +1,69 @@
+package com.project3.backend.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import com.project3.backend.config.CachingJwtDecoder;
+
+/**
+ * Replaces the Google-backed JwtDecoder for load tests, so the application starts and authenticates
+ * requests without reaching accounts.google.com. A token is the Base64url encoded email of the caller;
+ * the roles still come from the user table, as in production.
+ * <p>
+ * The stub sits behind the same {@link CachingJwtDecoder} as the production decoder. Registered after
+ * {@code WebSecurityConfig}, its bean replaces the production one when bean definition overriding is
+ * enabled.
+ */
+@Configuration
+public class StubJwtConfiguration {
+
+    /**
+     * Issuer placed in every decoded token.
+     */
+    static final String ISSUER = "https://accounts.google.com";
+
+    /**
+     * Creates the stub decoder.
+     *
+     * @return the JwtDecoder bean
+     */
+    @Bean
+    JwtDecoder jwtDecoder() {
+        JwtDecoder stub = token -> {
+            String email;
+            try {
+                email = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new BadJwtException("Not a load test token");
+            }
+            Instant now = Instant.now();
+            return Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .issuer(ISSUER)
+                    .subject(email)
+                    .claim("email", email)
+                    .issuedAt(now)
+                    .expiresAt(now.plus(Duration.ofHours(1)))
+                    .build();
+        };
+        return new CachingJwtDecoder(stub, 10_000);
+    }
+
+    /**
+     * Mints a token the stub decoder accepts for the given email.
+     *
+     * @param email The email of the caller.
+     * @return The bearer token.
+     */
+    static String token(String email) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(email.getBytes(StandardCharsets.UTF_8));
+    }
+}
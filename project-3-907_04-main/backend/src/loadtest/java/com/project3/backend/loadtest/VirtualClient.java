@@ -0,0 +1,91 @@
+package com.project3.backend.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * VirtualClient is one simulated kiosk, server or manager screen. It takes the requests scheduled by the
+ * {@link LoadGenerator} one at a time, so at most as many requests are in flight as there are clients,
+ * and keeps the ETags of the responses it received for conditional requests.
+ * <p>
+ * Latency is measured from the time a request was scheduled, not from when a client got to it, so time
+ * spent waiting for a free client counts against the server rather than hiding the backlog.
+ */
+public class VirtualClient implements Runnable {
+
+    // URL of the application under test
+    private final String baseUrl;
+
+    // Shared HTTP client, pooling connections between the virtual clients
+    private final HttpClient http;
+
+    // Requests scheduled by the load generator
+    private final BlockingQueue<LoadGenerator.Ticket> tickets;
+
+    // Random source for the request contents
+    private final Random random;
+
+    // Last ETag received, keyed by path
+    private final Map<String, String> etags = new HashMap<>();
+
+    /**
+     * Creates a virtual client.
+     *
+     * @param baseUrl The URL of the application under test.
+     * @param http    The shared HTTP client.
+     * @param tickets The queue of scheduled requests.
+     * @param seed    The seed of the client's random source.
+     */
+    public VirtualClient(String baseUrl, HttpClient http, BlockingQueue<LoadGenerator.Ticket> tickets, long seed) {
+        this.baseUrl = baseUrl;
+        this.http = http;
+        this.tickets = tickets;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Returns the ETag last received for the path.
+     *
+     * @param path The request path.
+     * @return The ETag, or null if none was received.
+     */
+    String getEtag(String path) {
+        return etags.get(path);
+    }
+
+    /**
+     * Sends scheduled requests until interrupted.
+     */
+    @Override
+    public void run() {
+        while (true) {
+            LoadGenerator.Ticket ticket;
+            try {
+                ticket = tickets.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            HttpRequest request = ticket.scenario().request(baseUrl, this, random);
+            String path = request.uri().getPath();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+                response.headers().firstValue("ETag").ifPresent(etag -> etags.put(path, etag));
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                return;
+            }
+            long latency = System.nanoTime() - ticket.scheduledNanos();
+            ticket.stage().recorder(request.method() + " " + path).record(latency, ok);
+            ticket.stage().completed();
+        }
+    }
+}
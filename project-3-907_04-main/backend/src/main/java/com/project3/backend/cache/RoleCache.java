@@ -0,0 +1,194 @@
+package com.project3.backend.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code RoleCache} class is a bounded, time-limited cache of user roles keyed by email.
+ * Reads are lock-free lookups in a {@link ConcurrentHashMap}; entries expire after a fixed TTL and are
+ * dropped immediately when the corresponding user is saved or deleted.
+ */
+@Component
+public class RoleCache {
+
+    /**
+     * A cached role together with the {@link System#nanoTime()} at which it expires.
+     */
+    private static final class Entry {
+        private final String role;
+        private final long expiresAt;
+
+        private Entry(String role, long expiresAt) {
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The cached entries keyed by email.
+     */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every invalidation, so a load that raced with an invalidation is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that had to load the role.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The time an entry stays valid, in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The maximum number of cached entries.
+     */
+    private final int maxSize;
+
+    /**
+     * The source of {@link System#nanoTime()} readings used to check expiry.
+     */
+    private final LongSupplier ticker;
+
+    /**
+     * Constructs a new {@code RoleCache}.
+     *
+     * @param ttlSeconds The number of seconds an entry stays valid.
+     * @param maxSize    The maximum number of cached entries.
+     */
+    @Autowired
+    public RoleCache(@Value("${auth.role-cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${auth.role-cache.max-size:10000}") int maxSize) {
+        this(ttlSeconds, maxSize, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new {@code RoleCache} reading the time from the given ticker.
+     *
+     * @param ttlSeconds The number of seconds an entry stays valid.
+     * @param maxSize    The maximum number of cached entries.
+     * @param ticker     The source of nanosecond time readings.
+     */
+    RoleCache(long ttlSeconds, int maxSize, LongSupplier ticker) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Returns the cached role for the email, loading and caching it on a miss or after expiry.
+     *
+     * @param email  The email of the user.
+     * @param loader The function loading the role from the database.
+     * @return The role of the user.
+     */
+    public String get(String email, Function<String, String> loader) {
+        long now = ticker.getAsLong();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.role;
+        }
+        misses.increment();
+
+        long loadGeneration = generation.get();
+        String role = loader.apply(email);
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        Entry loaded = new Entry(role, now + ttlNanos);
+        entries.put(email, loaded);
+        if (generation.get() != loadGeneration) {
+            // An invalidation ran while the role was loading, so the value may already be stale
+            entries.remove(email, loaded);
+        }
+        return role;
+    }
+
+    /**
+     * Drops the cached role for the email.
+     *
+     * @param email The email whose role changed.
+     */
+    public void invalidate(String email) {
+        generation.incrementAndGet();
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    /**
+     * Drops every cached role.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Removes expired entries, and clears the cache if it is still full afterwards.
+     *
+     * @param now The current ticker reading.
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.expiresAt >= 0);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to load the role.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache.
+     *
+     * @return The hit rate between 0 and 1, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return The cache size.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
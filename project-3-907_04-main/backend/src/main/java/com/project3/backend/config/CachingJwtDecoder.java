@@ -0,0 +1,146 @@
+package com.project3.backend.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * CachingJwtDecoder is a JwtDecoder that remembers tokens which have already been decoded and validated.
+ * A token is verified by the delegate decoder (signature, issuer and the Google ID token check) the first
+ * time it is seen, and is then served from memory until its {@code exp} claim passes. Entries are keyed by
+ * the SHA-256 hash of the token and the number of entries is bounded.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    // Decoder performing the full verification on a cache miss
+    private final JwtDecoder delegate;
+
+    // Clock used to check token expiry
+    private final Clock clock;
+
+    // Maximum number of cached tokens
+    private final int maxSize;
+
+    // Verified tokens keyed by the hex SHA-256 of the token string
+    private final ConcurrentHashMap<String, Jwt> verified = new ConcurrentHashMap<>();
+
+    // Number of tokens served from the cache
+    private final LongAdder hits = new LongAdder();
+
+    // Number of tokens passed to the delegate decoder
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a caching decoder using the system clock.
+     *
+     * @param delegate The decoder performing the full verification.
+     * @param maxSize  The maximum number of cached tokens.
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize) {
+        this(delegate, maxSize, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a caching decoder.
+     *
+     * @param delegate The decoder performing the full verification.
+     * @param maxSize  The maximum number of cached tokens.
+     * @param clock    The clock used to check token expiry.
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Clock clock) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Decodes the token, returning the cached result when the same token was already verified and has not expired.
+     *
+     * @param token The encoded JWT.
+     * @return The decoded and validated Jwt.
+     * @throws JwtException if the token is invalid.
+     */
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Instant now = clock.instant();
+        Jwt cached = verified.get(key);
+        if (cached != null && cached.getTokenValue().equals(token) && now.isBefore(cached.getExpiresAt())) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            if (verified.size() >= maxSize) {
+                evict(now);
+            }
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Removes expired tokens, and clears the cache if it is still full afterwards.
+     *
+     * @param now The current time.
+     */
+    private void evict(Instant now) {
+        verified.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+        if (verified.size() >= maxSize) {
+            verified.clear();
+        }
+    }
+
+    /**
+     * Hashes the token so that cache keys have a fixed, small size.
+     *
+     * @param token The encoded JWT.
+     * @return The hex SHA-256 digest of the token.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the number of tokens served from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of tokens that were fully verified.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached tokens.
+     *
+     * @return The cache size.
+     */
+    public int size() {
+        return verified.size();
+    }
+}
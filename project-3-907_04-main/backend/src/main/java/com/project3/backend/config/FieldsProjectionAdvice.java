@@ -0,0 +1,128 @@
+package com.project3.backend.config;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.project3.backend.entity.Order;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.reports.SalesReport;
+
+/**
+ * Applies the {@code fields} request parameter to JSON and CBOR responses. {@code GET /orders?fields=id,status}
+ * writes only the listed properties of each order, which lets clients that show a few columns skip the rest.
+ * <p>
+ * The projection applies to the records the endpoints return: entities, report rows and open orders. Wrappers
+ * such as {@code OrderPage} or {@code Dashboard} are written whole, so {@code fields} selects the properties of
+ * the records inside them, and of records nested in records, such as the ingredient of a restock report row.
+ * Unknown names are ignored. The menu endpoints are served pre-serialized and ignore the parameter.
+ */
+@RestControllerAdvice
+public class FieldsProjectionAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * The request parameter listing the properties to write, separated by commas.
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * The Jackson filter ID given to the projectable records.
+     */
+    static final String FILTER_ID = "fields";
+
+    /**
+     * The packages of the projectable records.
+     */
+    private static final Set<String> PACKAGES = Set.of(
+            Order.class.getPackageName(),
+            SalesReport.class.getPackageName(),
+            OrderState.class.getPackageName());
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    /**
+     * Sets the projection filter on the body when fields are requested. Other responses are left alone, so
+     * they are not wrapped for nothing.
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Set<String> fields = fields(request);
+        if (body == null || fields.isEmpty()) {
+            return body;
+        }
+        MappingJacksonValue container = body instanceof MappingJacksonValue value ? value : new MappingJacksonValue(body);
+        container.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return container;
+    }
+
+    /**
+     * Reads the requested properties, accepting both {@code fields=a,b} and {@code fields=a&fields=b}.
+     *
+     * @param request The current request.
+     * @return The property names, empty when none were requested.
+     */
+    private static Set<String> fields(ServerHttpRequest request) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return Set.of();
+        }
+        String[] values = servletRequest.getServletRequest().getParameterValues(PARAMETER);
+        if (values == null) {
+            return Set.of();
+        }
+        return Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Gives the projectable records the {@link #FILTER_ID} filter without annotating them, so object mappers
+     * other than the application's keep writing them without a filter provider. Spring Data projections are
+     * proxies, so the interfaces of a class are checked as well.
+     */
+    static final class Introspector extends NopAnnotationIntrospector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            if (!(annotated instanceof AnnotatedClass)) {
+                return null;
+            }
+            Class<?> type = annotated.getRawType();
+            if (PACKAGES.contains(type.getPackageName())) {
+                return FILTER_ID;
+            }
+            for (Class<?> implemented : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (PACKAGES.contains(implemented.getPackageName())) {
+                    return FILTER_ID;
+                }
+            }
+            return null;
+        }
+    }
+}
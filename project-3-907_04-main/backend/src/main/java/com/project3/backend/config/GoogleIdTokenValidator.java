@@ -1,5 +1,7 @@
 package com.project3.backend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
@@ -26,6 +28,8 @@ import java.util.*;
  */
 @Component
 public class GoogleIdTokenValidator implements OAuth2TokenValidator<Jwt> {
+    private static final Logger log = LoggerFactory.getLogger(GoogleIdTokenValidator.class);
+
 
     // Custom OAuth2Error instance for representing a custom error
     private OAuth2Error error = new OAuth2Error("custom_code", "Custom error message", null);
@@ -54,7 +58,7 @@ public class GoogleIdTokenValidator implements OAuth2TokenValidator<Jwt> {
             idToken = verifier.verify(idTokenString);
         } catch (GeneralSecurityException | IOException e) {
             // Handle exceptions during token verification
-            e.printStackTrace();
+            log.warn("Google ID token verification failed", e);
             idToken = null;
         }
 
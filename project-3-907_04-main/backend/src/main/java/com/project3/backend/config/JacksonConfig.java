@@ -0,0 +1,52 @@
+package com.project3.backend.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Configures the encodings of response bodies. Besides JSON, every endpoint that returns objects can answer
+ * {@code Accept: application/cbor} with CBOR, a binary encoding of the same document that is smaller and
+ * faster to parse on low-powered clients. Both encodings honor the {@code fields} parameter, see
+ * {@link FieldsProjectionAdvice}.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Prepares the object mappers for {@link FieldsProjectionAdvice}: the projectable records get its filter,
+     * and responses that do not ask for a projection write every property.
+     *
+     * @return the customizer of the object mapper builder
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsProjectionCustomizer() {
+        return builder -> builder
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+                // After the modules registered their introspectors, which setting one on the builder would replace
+                .postConfigurer(mapper -> mapper.setAnnotationIntrospectors(
+                        AnnotationIntrospector.pair(mapper.getSerializationConfig().getAnnotationIntrospector(),
+                                new FieldsProjectionAdvice.Introspector()),
+                        mapper.getDeserializationConfig().getAnnotationIntrospector()));
+    }
+
+    /**
+     * Creates the CBOR message converter from the builder Spring Boot configured, so CBOR documents have the
+     * same properties and date formats as the JSON ones. It replaces the default CBOR converter, which ignores
+     * the application's Jackson settings.
+     *
+     * @param builder the object mapper builder configured by Spring Boot
+     * @return the CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
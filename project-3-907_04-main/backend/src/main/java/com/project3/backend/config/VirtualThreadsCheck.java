@@ -0,0 +1,37 @@
+package com.project3.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports at startup whether requests run on virtual or platform threads. Spring Boot silently keeps platform
+ * threads when {@code spring.threads.virtual.enabled} is set on a runtime older than Java 21, so that case is
+ * logged as a warning.
+ */
+@Component
+public class VirtualThreadsCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Logs the threading mode once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request handling runs on virtual threads");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("Virtual threads are enabled but need Java 21, running on Java {} with platform threads",
+                    Runtime.version().feature());
+        }
+    }
+}
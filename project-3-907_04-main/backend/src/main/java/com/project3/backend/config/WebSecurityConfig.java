@@ -1,5 +1,6 @@
 package com.project3.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -29,6 +30,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class WebSecurityConfig {
 	String issuerUri = "https://accounts.google.com";
 
+	@Value("${auth.token-cache.max-size:10000}")
+	int verifiedTokenCacheSize;
+
 	/**
 	 * Creates a SecurityFilterChain for configuring the security settings of the application.
 	 *
@@ -42,11 +46,15 @@ public class WebSecurityConfig {
 		.csrf(AbstractHttpConfigurer::disable)
 		.cors(cors->cors.configurationSource(corsConfigurationSource()))
 		.authorizeHttpRequests(auth ->
-			auth.requestMatchers("/menuItems", "/itemCategories").permitAll()
+			auth.requestMatchers("/menuItems", "/menuItems/changes", "/itemCategories", "/menu").permitAll()
+			.requestMatchers("/actuator/health").permitAll()
+			.requestMatchers("/actuator/prometheus").hasAnyAuthority("ROLE_admin")
 			.requestMatchers(HttpMethod.POST, "/orders").permitAll()
-			.requestMatchers(HttpMethod.GET, "/orders").hasAnyAuthority("ROLE_server", "ROLE_manager", "ROLE_admin")
-			.requestMatchers("/ingredients", "/itemToIngredient").hasAnyAuthority("ROLE_manager", "ROLE_admin")
-			.requestMatchers("/users").hasAnyAuthority("ROLE_admin")
+			.requestMatchers(HttpMethod.POST, "/orders/batch").hasAnyAuthority("ROLE_server", "ROLE_manager", "ROLE_admin")
+			.requestMatchers(HttpMethod.GET, "/orders", "/orders/open", "/orders/open/stream").hasAnyAuthority("ROLE_server", "ROLE_manager", "ROLE_admin")
+			.requestMatchers("/ingredients", "/itemToIngredient", "/menuItems/batch", "/inventory", "/dashboard").hasAnyAuthority("ROLE_manager", "ROLE_admin")
+			.requestMatchers("/users", "/users/**").hasAnyAuthority("ROLE_admin")
+			.requestMatchers(HttpMethod.POST, "/salesReport/rebuild", "/orderedTogether/rebuild", "/ingredientUsageReport/rebuild").hasAnyAuthority("ROLE_admin")
 			.anyRequest().authenticated()
 		)
 		.oauth2ResourceServer(oauth2 ->
@@ -60,6 +68,7 @@ public class WebSecurityConfig {
 	/**
 	 * Creates a JwtDecoder bean that is used to decode JSON Web Tokens (JWTs).
 	 * The JwtDecoder is responsible for validating and decoding the JWTs.
+	 * Verified tokens are cached until they expire, so each ID token is verified once rather than on every request.
 	 *
 	 * @return the JwtDecoder bean
 	 */
@@ -74,7 +83,7 @@ public class WebSecurityConfig {
 
 		jwtDecoder.setJwtValidator(withAudience);
 
-		return jwtDecoder;
+		return new CachingJwtDecoder(jwtDecoder, verifiedTokenCacheSize);
 	}
 
 	/**
@@ -3,36 +3,60 @@ package com.project3.backend.controller;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.time.LocalDateTime;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
+import com.project3.backend.cache.RoleCache;
+import com.project3.backend.dto.Dashboard;
+import com.project3.backend.dto.MenuChanges;
+import com.project3.backend.dto.MenuSnapshot;
+import com.project3.backend.dto.OrderPage;
 import com.project3.backend.entity.Ingredient;
 import com.project3.backend.entity.Item;
-import com.project3.backend.entity.ItemCategory;
 import com.project3.backend.entity.Order;
 import com.project3.backend.entity.User;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.logging.LogSampler;
 import com.project3.backend.reports.IngredientToItemWithQuantity;
 import com.project3.backend.reports.IngredientUsageReport;
 import com.project3.backend.reports.ItemToOrderWithQuantity;
 import com.project3.backend.reports.OrderedTogetherReport;
 import com.project3.backend.reports.RestockReport;
 import com.project3.backend.reports.SalesReport;
+import com.project3.backend.service.CoOccurrenceServiceImpl;
+import com.project3.backend.service.DashboardServiceImpl;
+import com.project3.backend.service.IngredientLedgerServiceImpl;
 import com.project3.backend.service.IngredientServiceImpl;
-import com.project3.backend.service.ItemCategoryServiceImpl;
+import com.project3.backend.service.KitchenQueueServiceImpl;
+import com.project3.backend.service.InventoryServiceImpl;
 import com.project3.backend.service.ItemServiceImpl;
+import com.project3.backend.service.LowStockAlertServiceImpl;
+import com.project3.backend.service.MenuSnapshotServiceImpl;
+import com.project3.backend.service.OrderIdempotencyServiceImpl;
+import com.project3.backend.service.OrderJournalServiceImpl;
 import com.project3.backend.service.OrderServiceImpl;
+import com.project3.backend.service.SalesRollupServiceImpl;
 import com.project3.backend.service.UserServiceImpl;
 
 /**
@@ -40,45 +64,152 @@ import com.project3.backend.service.UserServiceImpl;
  */
 @RestController
 public class DatabaseController {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseController.class);
+
     @Autowired
     private ItemServiceImpl itemService;
     @Autowired
     private IngredientServiceImpl ingredientService;
     @Autowired
-    private ItemCategoryServiceImpl itemCategoryService;
-    @Autowired
     private OrderServiceImpl orderService;
     @Autowired
     private UserServiceImpl userService;
+    @Autowired
+    private MenuSnapshotServiceImpl menuSnapshotService;
+    @Autowired
+    private RoleCache roleCache;
+    @Autowired
+    private SalesRollupServiceImpl salesRollupService;
+
+    @Autowired
+    private CoOccurrenceServiceImpl coOccurrenceService;
+
+    @Autowired
+    private IngredientLedgerServiceImpl ingredientLedgerService;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private LowStockAlertServiceImpl lowStockAlertService;
+
+    @Autowired
+    private LogSampler logSampler;
+
+    @Autowired
+    private DashboardServiceImpl dashboardService;
+
+    @Autowired
+    private OrderIdempotencyServiceImpl orderIdempotencyService;
+
+    @Autowired
+    private OrderJournalServiceImpl orderJournalService;
+
+    @Autowired
+    private KitchenQueueServiceImpl kitchenQueueService;
 
     /**
-     * Retrieves the menu items from the database.
+     * Retrieves the menu items from the in-memory menu snapshot.
      *
-     * @return a list of menu items
+     * @param ifNoneMatch the ETags the client already holds
+     * @param accept the media types the client accepts
+     * @param acceptEncoding the encodings the client accepts
+     * @return the serialized list of menu items, or 304 if the client's copy is current
      */
     @GetMapping("/menuItems")
-    public List<Item> getMenuItems() {
-        return itemService.fetchMenuItems();
+    public ResponseEntity<byte[]> getMenuItems(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return snapshotResponse(menuSnapshotService.fetchSnapshot().getItems(), ifNoneMatch, accept, acceptEncoding);
     }
 
     /**
-        * Retrieves a list of item categories.
-        *
-        * @return The list of item categories.
-        */
+     * Retrieves the item categories from the in-memory menu snapshot.
+     *
+     * @param ifNoneMatch the ETags the client already holds
+     * @param accept the media types the client accepts
+     * @param acceptEncoding the encodings the client accepts
+     * @return the serialized list of item categories, or 304 if the client's copy is current
+     */
     @GetMapping("/itemCategories")
-    public List<ItemCategory> getItemCategories() {
-        return itemCategoryService.fetchItemCategories();
+    public ResponseEntity<byte[]> getItemCategories(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return snapshotResponse(menuSnapshotService.fetchSnapshot().getCategories(), ifNoneMatch, accept, acceptEncoding);
     }
 
     /**
-        * Retrieves a list of all orders.
-        *
-        * @return the list of orders
-        */
+     * Retrieves the item categories and menu items together as a single menu bundle.
+     *
+     * @param ifNoneMatch the ETags the client already holds
+     * @param accept the media types the client accepts
+     * @param acceptEncoding the encodings the client accepts
+     * @return the serialized menu bundle, or 304 if the client's copy is current
+     */
+    @GetMapping("/menu")
+    public ResponseEntity<byte[]> getMenu(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return snapshotResponse(menuSnapshotService.fetchSnapshot().getBundle(), ifNoneMatch, accept, acceptEncoding);
+    }
+
+    /**
+     * Retrieves the menu changes since a version the client holds, so kiosks stay in sync without downloading
+     * the whole menu on every change. Start from the version of the menu bundle and pass back the returned
+     * version on the next call; when the response asks for a reset, download the menu bundle again.
+     *
+     * @param since the menu version the client holds
+     * @return the items changed and deleted since then, and the version they bring the client to
+     */
+    @GetMapping("/menuItems/changes")
+    public MenuChanges getMenuChanges(@RequestParam long since) {
+        return menuSnapshotService.fetchChanges(since);
+    }
+
+    /**
+     * Retrieves one page of orders, newest first, optionally filtered by time range, status and user.
+     *
+     * @param startDate the inclusive lower bound on the order time
+     * @param endDate the inclusive upper bound on the order time
+     * @param status the order status to match
+     * @param userId the user ID to match
+     * @param cursor the cursor returned with the previous page, omitted for the first page
+     * @param limit the maximum number of orders to return
+     * @return the requested page of orders and the cursor for the next one
+     */
     @GetMapping("/orders")
-    public List<Order> getOrders() {
-        return orderService.fetchAllOrders();
+    public OrderPage getOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                               @RequestParam(required = false) String status,
+                               @RequestParam(required = false) Integer userId,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(defaultValue = "" + OrderServiceImpl.DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.fetchOrders(startDate, endDate, status, userId, cursor, limit);
+    }
+
+    /**
+     * Retrieves the open orders, those not completed or cancelled yet, with their line items, oldest first.
+     * They are served from memory, so the cost does not grow with the order history.
+     *
+     * @param status the statuses to include; every open status when omitted
+     * @return the open orders
+     */
+    @GetMapping("/orders/open")
+    public List<OrderState> getOpenOrders(@RequestParam(required = false) Set<String> status) {
+        return kitchenQueueService.fetchOpenOrders(status);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the open orders for kitchen and server screens. The open orders are
+     * sent first as a snapshot event, then an upsert event each time an order is placed or changed and a
+     * remove event each time one is closed, deleted or leaves the requested statuses.
+     *
+     * @param status the statuses to follow; every open status when omitted
+     * @return the emitter of the event stream
+     */
+    @GetMapping(value = "/orders/open/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOpenOrders(@RequestParam(required = false) Set<String> status) {
+        return kitchenQueueService.subscribe(status);
     }
 
     /**
@@ -123,6 +254,19 @@ public class DatabaseController {
     public List<User> getUsers() {
         return userService.fetchUsers();
     }
+
+    /**
+     * Retrieves the statistics of the email to role cache used on the authentication path.
+     *
+     * @return a map containing the cache size, hit count, miss count and hit rate
+     */
+    @GetMapping("/users/roleCache")
+    public Map<String, Number> getRoleCacheStats() {
+        return Map.of("size", roleCache.size(),
+                      "hits", roleCache.getHitCount(),
+                      "misses", roleCache.getMissCount(),
+                      "hitRate", roleCache.getHitRate());
+    }
     
     /**
         * Saves an item to the database.
@@ -132,10 +276,23 @@ public class DatabaseController {
         */
     @PostMapping("/menuItems")
     public Item saveItem(@RequestBody Item item) {
-        System.out.println("Saving item: " + item.toString());
+        if (log.isInfoEnabled() && logSampler.sample("saveItem")) {
+            log.atInfo().addKeyValue("itemId", item.getId()).addKeyValue("name", item.getName()).log("Saving item");
+        }
         return itemService.saveItem(item);
     }
 
+    /**
+     * Saves many items, with their recipes, in a single transaction.
+     *
+     * @param items the items to be saved
+     * @return the saved items
+     */
+    @PostMapping("/menuItems/batch")
+    public List<Item> saveItems(@RequestBody List<Item> items) {
+        return itemService.saveItems(items);
+    }
+
     /**
         * Saves an ingredient to the database.
         *
@@ -144,23 +301,53 @@ public class DatabaseController {
         */
     @PostMapping("/ingredients")
     public Ingredient saveIngredient(@RequestBody Ingredient ingredient) {
-        System.out.println("Saving ingredient: " + ingredient.toString());
+        if (log.isInfoEnabled() && logSampler.sample("saveIngredient")) {
+            log.atInfo().addKeyValue("ingredientId", ingredient.getId()).addKeyValue("name", ingredient.getName()).log("Saving ingredient");
+        }
         return ingredientService.saveIngredient(ingredient);
     }
 
     /**
-        * Saves an order in the database.
+        * Saves an order in the database. A client that may retry the submission sends an Idempotency-Key
+        * header; a retry with the same key returns the order created the first time instead of a duplicate.
+        * With the order journal enabled, a new order without a key is acknowledged once it is journaled and
+        * written to the database in the background.
         *
         * @param order the order to be saved
+        * @param idempotencyKey the key identifying this submission across retries, or null
         * @return the saved order
         */
     @PostMapping("/orders")
-    public Order saveOrder(@RequestBody Order order) {
-        System.out.println("Saving order: " + order.toString());
+    public Order saveOrder(@RequestBody Order order,
+                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (log.isInfoEnabled() && logSampler.sample("saveOrder")) {
+            log.atInfo().addKeyValue("orderId", order.getId())
+                    .addKeyValue("lineItems", () -> order.getItems() == null ? 0 : order.getItems().size())
+                    .log("Saving order");
+        }
+        if (idempotencyKey != null) {
+            return orderIdempotencyService.saveOrder(idempotencyKey, order);
+        }
+        if (order.getId() == 0 && orderJournalService.isEnabled()) {
+            return orderJournalService.accept(order);
+        }
         return orderService.saveOrder(order);
     }
 
 
+    /**
+     * Saves a batch of new orders, with all of their items, in a single transaction. Restricted to staff, since
+     * a batch holds a database connection for up to {@code MAX_BATCH_SIZE} orders; it serves back-office entry
+     * and offline sync.
+     *
+     * @param orders the orders to be saved
+     * @return the saved orders
+     */
+    @PostMapping("/orders/batch")
+    public List<Order> saveOrders(@RequestBody List<Order> orders) {
+        return orderService.saveOrders(orders);
+    }
+
     /**
      * Saves a user to the database.
      * 
@@ -169,7 +356,9 @@ public class DatabaseController {
      */
     @PostMapping("/users")
     public User saveUser(@RequestBody User user) {
-        System.out.println("Saving user: " + user.toString());
+        if (log.isInfoEnabled() && logSampler.sample("saveUser")) {
+            log.atInfo().addKeyValue("userId", user.getId()).addKeyValue("role", user.getRole()).log("Saving user");
+        }
         return userService.saveUser(user);
     }
 
@@ -226,6 +415,16 @@ public class DatabaseController {
         return itemService.salesReport(startDate, endDate);
     }
 
+    /**
+     * Rebuilds the hourly sales rollup behind the sales report from the full order history.
+     *
+     * @return a map containing the number of rollup rows corrected
+     */
+    @PostMapping("/salesReport/rebuild")
+    public Map<String, Integer> rebuildSalesRollup() {
+        return Map.of("rows", salesRollupService.rebuild());
+    }
+
     /**
      * Retrieves the ingredient usage report between the specified start and end dates.
      *
@@ -239,6 +438,16 @@ public class DatabaseController {
         return ingredientService.fetchIngredientUsageBetweenDates(startDate, endDate);
     }
 
+    /**
+     * Rebuilds the daily ingredient ledger behind the ingredient usage report from the full order history.
+     *
+     * @return the number of ledger rows corrected
+     */
+    @PostMapping("/ingredientUsageReport/rebuild")
+    public Map<String, Integer> rebuildIngredientLedger() {
+        return Map.of("rows", ingredientLedgerService.rebuild());
+    }
+
     /**
      * Retrieves a list of excess items within a specified date range.
      * 
@@ -262,17 +471,111 @@ public class DatabaseController {
         return ingredientService.fetchStockLessThanRestock();
     }
 
+    /**
+     * Opens a Server-Sent Events stream of low-stock alerts. The ingredients currently below their restock
+     * level are sent first as a snapshot event, then an alert event each time an ingredient crosses its
+     * restock level in either direction.
+     *
+     * @return the emitter of the event stream
+     */
+    @GetMapping(value = "/restockReport/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRestockAlerts() {
+        return lowStockAlertService.subscribe();
+    }
+
+    /**
+     * Retrieves the oversell statistics of the inventory engine that decrements stock as orders are placed.
+     *
+     * @return a map holding the number of oversells and the ingredients currently oversold
+     */
+    @GetMapping("/inventory")
+    public Map<String, Object> getInventoryStatus() {
+        return inventoryService.getStatus();
+    }
+
     /**
      * Retrieves a list of items that are frequently ordered together within a specified time range.
      *
      * @param startDate the start date and time of the time range
      * @param endDate the end date and time of the time range
+     * @param limit the maximum number of pairs to return; all pairs when omitted
      * @return a list of OrderedTogetherReport objects representing the items frequently ordered together
      */
     @GetMapping("/orderedTogether")
     public List<OrderedTogetherReport> getOrderedTogether(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate, 
-                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return itemService.fetchItemsOrderedTogether(startDate, endDate);
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                                                          @RequestParam(required = false) Integer limit) {
+        return itemService.fetchItemsOrderedTogether(startDate, endDate, limit);
+    }
+
+    /**
+     * Rebuilds the ordered-together co-occurrence index from the full order history.
+     *
+     * @return the number of day and item-pair counts written
+     */
+    @PostMapping("/orderedTogether/rebuild")
+    public Map<String, Integer> rebuildOrderedTogether() {
+        return Map.of("rows", coOccurrenceService.rebuild());
+    }
+
+    /**
+     * Retrieves every manager report for a time period in one response. The reports run concurrently; one that
+     * fails or times out is left out and listed under {@code errors} while the others are still returned.
+     *
+     * @param startDate the start date and time of the time period
+     * @param endDate the end date and time of the time period
+     * @param limit the maximum number of ordered-together pairs to return; all pairs when omitted
+     * @return the dashboard holding each report
+     */
+    @GetMapping("/dashboard")
+    public Dashboard getDashboard(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+                                  @RequestParam(required = false) Integer limit) {
+        return dashboardService.fetchDashboard(startDate, endDate, limit);
+    }
+
+    /**
+     * Builds the response for a pre-serialized menu snapshot document. The CBOR bytes are sent when the
+     * client accepts CBOR, otherwise the gzip bytes are sent as-is when the client accepts gzip, and 304 is
+     * returned when the client already holds the current document.
+     *
+     * @param body the snapshot document to send
+     * @param ifNoneMatch the value of the If-None-Match request header
+     * @param accept the value of the Accept request header
+     * @param acceptEncoding the value of the Accept-Encoding request header
+     * @return the response entity carrying the document or the 304 status
+     */
+    private ResponseEntity<byte[]> snapshotResponse(MenuSnapshot.Body body, String ifNoneMatch, String accept, String acceptEncoding) {
+        boolean cbor = accept != null && accept.contains(MediaType.APPLICATION_CBOR_VALUE);
+        boolean gzip = !cbor && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = cbor ? body.getCborEtag() : gzip ? body.getGzipEtag() : body.getEtag();
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(body.getEtag()) || tag.equals(body.getGzipEtag()) || tag.equals(body.getCborEtag())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(etag)
+                            .cacheControl(CacheControl.noCache())
+                            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                            .build();
+                }
+            }
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (cbor) {
+            return response.contentType(MediaType.APPLICATION_CBOR).body(body.getCbor());
+        }
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        return response.body(body.getJson());
     }
 
     /**
@@ -283,11 +586,10 @@ public class DatabaseController {
      */
     @GetMapping("/auth/login")
     public Map<String, String> getLoginInfo(Authentication authentication) {
-        JwtAuthenticationToken clientAuthentication = (JwtAuthenticationToken) authentication;
-        System.out.println("Client authentication: " + clientAuthentication.toString());
         String name = authentication.getName();
         Optional<? extends GrantedAuthority> roleOptional = authentication.getAuthorities().stream().findFirst();
         String role = roleOptional.isPresent() ? roleOptional.get().getAuthority() : "";
+        log.atDebug().addKeyValue("user", name).addKeyValue("role", role).log("Login");
         return Map.of("user", name, "role", role);
     }
 }
@@ -0,0 +1,52 @@
+package com.project3.backend.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.reports.IngredientUsageReport;
+import com.project3.backend.reports.OrderedTogetherReport;
+import com.project3.backend.reports.RestockReport;
+import com.project3.backend.reports.SalesReport;
+
+import lombok.Data;
+
+/**
+ * The {@code Dashboard} class combines the manager reports into a single document so that the manager
+ * screen loads with one request. A section that failed or did not finish in time is left {@code null}
+ * and listed in {@code errors}, and the other sections are still returned.
+ */
+@Data
+public class Dashboard {
+
+    /**
+     * The sales report for the period.
+     */
+    private List<SalesReport> salesReport;
+
+    /**
+     * The ingredient usage report for the period.
+     */
+    private List<IngredientUsageReport> ingredientUsageReport;
+
+    /**
+     * The ingredients below their restock level.
+     */
+    private List<RestockReport> restockReport;
+
+    /**
+     * The items with excess stock in the period.
+     */
+    private List<Item> excessItems;
+
+    /**
+     * The items most frequently ordered together in the period.
+     */
+    private List<OrderedTogetherReport> orderedTogether;
+
+    /**
+     * The sections that are missing, by name, with the reason: {@code "timeout"} or {@code "failed"}.
+     */
+    private Map<String, String> errors = new LinkedHashMap<>();
+}
@@ -0,0 +1,44 @@
+package com.project3.backend.dto;
+
+import java.util.List;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.ItemCategory;
+
+import lombok.Data;
+
+/**
+ * The {@code MenuBundle} class combines the item categories and menu items into a single
+ * document so that kiosks can load the whole menu with one request.
+ */
+@Data
+public class MenuBundle {
+
+    /**
+     * The version of the menu snapshot this bundle was built from.
+     */
+    private long version;
+
+    /**
+     * All item categories.
+     */
+    private List<ItemCategory> categories;
+
+    /**
+     * All menu items.
+     */
+    private List<Item> items;
+
+    /**
+     * Constructs a new {@code MenuBundle}.
+     *
+     * @param version    The version of the menu snapshot.
+     * @param categories All item categories.
+     * @param items      All menu items.
+     */
+    public MenuBundle(long version, List<ItemCategory> categories, List<Item> items) {
+        this.version = version;
+        this.categories = categories;
+        this.items = items;
+    }
+}
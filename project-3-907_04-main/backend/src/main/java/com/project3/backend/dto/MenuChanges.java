@@ -0,0 +1,52 @@
+package com.project3.backend.dto;
+
+import java.util.List;
+
+import com.project3.backend.entity.Item;
+
+import lombok.Data;
+
+/**
+ * The {@code MenuChanges} class holds the menu changes between two versions: the items added or changed and
+ * the IDs of the items deleted. A client applies them to its copy of the menu and passes {@code version} back
+ * to fetch the following changes. When {@code reset} is set, the changes since the client's version are no
+ * longer known and the client must download the whole menu again.
+ */
+@Data
+public class MenuChanges {
+
+    /**
+     * The menu version the changes bring the client to.
+     */
+    private long version;
+
+    /**
+     * Whether the client must discard its copy and download the whole menu.
+     */
+    private boolean reset;
+
+    /**
+     * The items added or changed since the client's version, as they are now.
+     */
+    private List<Item> items;
+
+    /**
+     * The IDs of the items deleted since the client's version.
+     */
+    private List<Integer> deletedItemIds;
+
+    /**
+     * Constructs a new {@code MenuChanges}.
+     *
+     * @param version        The menu version the changes bring the client to.
+     * @param reset          Whether the client must download the whole menu.
+     * @param items          The items added or changed.
+     * @param deletedItemIds The IDs of the items deleted.
+     */
+    public MenuChanges(long version, boolean reset, List<Item> items, List<Integer> deletedItemIds) {
+        this.version = version;
+        this.reset = reset;
+        this.items = items;
+        this.deletedItemIds = deletedItemIds;
+    }
+}
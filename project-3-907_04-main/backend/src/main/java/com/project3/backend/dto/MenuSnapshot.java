@@ -0,0 +1,120 @@
+package com.project3.backend.dto;
+
+import java.util.Map;
+
+import com.project3.backend.entity.Item;
+
+import lombok.Getter;
+
+/**
+ * The {@code MenuSnapshot} class is an immutable, versioned copy of the public menu.
+ * Each document is held already serialized to JSON, gzip-compressed JSON and CBOR, together with
+ * a strong ETag derived from its content, so it can be written to clients as-is. The items are also kept
+ * by ID, to answer the menu change feed; they must not be modified.
+ */
+@Getter
+public final class MenuSnapshot {
+
+    /**
+     * The version of the menu data this snapshot was built from.
+     */
+    private final long version;
+
+    /**
+     * The serialized list of menu items.
+     */
+    private final Body items;
+
+    /**
+     * The serialized list of item categories.
+     */
+    private final Body categories;
+
+    /**
+     * The serialized {@link MenuBundle} holding both categories and items.
+     */
+    private final Body bundle;
+
+    /**
+     * The menu items by ID.
+     */
+    private final Map<Integer, Item> itemsById;
+
+    /**
+     * Constructs a new {@code MenuSnapshot}.
+     *
+     * @param version    The version of the menu data.
+     * @param items      The serialized list of menu items.
+     * @param categories The serialized list of item categories.
+     * @param bundle     The serialized menu bundle.
+     * @param itemsById  The menu items by ID.
+     */
+    public MenuSnapshot(long version, Body items, Body categories, Body bundle, Map<Integer, Item> itemsById) {
+        this.version = version;
+        this.items = items;
+        this.categories = categories;
+        this.bundle = bundle;
+        this.itemsById = itemsById;
+    }
+
+    /**
+     * One pre-serialized document of the snapshot as JSON, in identity and gzip encodings, and as CBOR.
+     */
+    @Getter
+    public static final class Body {
+
+        /**
+         * The strong ETag of the document, including the surrounding quotes.
+         */
+        private final String etag;
+
+        /**
+         * The uncompressed JSON bytes.
+         */
+        private final byte[] json;
+
+        /**
+         * The gzip-compressed JSON bytes.
+         */
+        private final byte[] gzip;
+
+        /**
+         * The CBOR bytes, which are compact enough to be sent uncompressed.
+         */
+        private final byte[] cbor;
+
+        /**
+         * Constructs a new {@code Body}.
+         *
+         * @param etag The strong ETag of the document.
+         * @param json The uncompressed JSON bytes.
+         * @param gzip The gzip-compressed JSON bytes.
+         * @param cbor The CBOR bytes.
+         */
+        public Body(String etag, byte[] json, byte[] gzip, byte[] cbor) {
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+            this.cbor = cbor;
+        }
+
+        /**
+         * Returns the ETag of the gzip-encoded representation. A different encoding is a different
+         * representation, so it must carry a different strong validator.
+         *
+         * @return The ETag of the gzip-encoded document.
+         */
+        public String getGzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        /**
+         * Returns the ETag of the CBOR representation.
+         *
+         * @return The ETag of the CBOR document.
+         */
+        public String getCborEtag() {
+            return etag.substring(0, etag.length() - 1) + "-cbor\"";
+        }
+    }
+}
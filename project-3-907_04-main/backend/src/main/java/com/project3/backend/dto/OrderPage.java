@@ -0,0 +1,37 @@
+package com.project3.backend.dto;
+
+import java.util.List;
+
+import com.project3.backend.entity.Order;
+
+import lombok.Data;
+
+/**
+ * The {@code OrderPage} class represents one slice of orders returned by the paginated order listing.
+ * Orders are sorted newest first, and {@code nextCursor} is the opaque keyset cursor to pass back
+ * to fetch the following slice, or {@code null} when there are no more orders.
+ */
+@Data
+public class OrderPage {
+
+    /**
+     * The orders contained in this page.
+     */
+    private List<Order> orders;
+
+    /**
+     * The cursor pointing just past the last order of this page, or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Constructs a new {@code OrderPage}.
+     *
+     * @param orders     The orders contained in this page.
+     * @param nextCursor The cursor for the next page, or {@code null} if this is the last page.
+     */
+    public OrderPage(List<Order> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,54 @@
+package com.project3.backend.dto;
+
+import lombok.Data;
+
+/**
+ * The {@code StockAlert} class represents an ingredient crossing its restock threshold, as pushed to
+ * the low-stock alert stream. {@code type} is {@code "low"} when the stock drops below the restock level
+ * and {@code "restocked"} when it is back at or above it.
+ */
+@Data
+public class StockAlert {
+
+    /**
+     * The direction of the crossing, either {@code "low"} or {@code "restocked"}.
+     */
+    private String type;
+
+    /**
+     * The ID of the ingredient.
+     */
+    private int ingredientId;
+
+    /**
+     * The name of the ingredient.
+     */
+    private String name;
+
+    /**
+     * The estimated current stock of the ingredient.
+     */
+    private long stock;
+
+    /**
+     * The restock threshold of the ingredient.
+     */
+    private int restock;
+
+    /**
+     * Constructs a new {@code StockAlert}.
+     *
+     * @param type         The direction of the crossing.
+     * @param ingredientId The ID of the ingredient.
+     * @param name         The name of the ingredient.
+     * @param stock        The estimated current stock.
+     * @param restock      The restock threshold.
+     */
+    public StockAlert(String type, int ingredientId, String name, long stock, int restock) {
+        this.type = type;
+        this.ingredientId = ingredientId;
+        this.name = name;
+        this.stock = stock;
+        this.restock = restock;
+    }
+}
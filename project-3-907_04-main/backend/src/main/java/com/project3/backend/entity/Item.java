@@ -34,7 +34,7 @@ public class Item {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "item_id_seq")
-    @SequenceGenerator(name = "item_id_seq", sequenceName = "item_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "item_id_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private int id;
 
     /**
@@ -19,7 +19,7 @@ public class ItemToIngredient {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "item_to_ingredient_id_seq")
-    @SequenceGenerator(name = "item_to_ingredient_id_seq", sequenceName = "item_to_ingredient_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "item_to_ingredient_id_seq", sequenceName = "item_to_ingredient_id_seq", allocationSize = 50)
     int id;
 
     /**
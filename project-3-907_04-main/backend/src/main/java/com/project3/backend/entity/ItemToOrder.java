@@ -1,5 +1,7 @@
 package com.project3.backend.entity;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -18,7 +20,7 @@ public class ItemToOrder {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "item_to_order_id_seq")
-    @SequenceGenerator(name = "item_to_order_id_seq", sequenceName = "item_to_order_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "item_to_order_id_seq", sequenceName = "item_to_order_id_seq", allocationSize = 50)
     int id;
 
     /**
@@ -35,4 +37,9 @@ public class ItemToOrder {
      * The quantity of the item in the order.
      */
     int quantity;
+
+    /**
+     * The time of the order, copied from it. The table is partitioned by month on this column.
+     */
+    LocalDateTime orderTime;
 }
@@ -14,8 +14,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
@@ -27,6 +29,11 @@ import jakarta.persistence.JoinColumn;
  */
 @Entity
 @Data
+@Table(indexes = {
+    @Index(name = "order_time_id_idx", columnList = "time, id"),
+    @Index(name = "order_status_time_id_idx", columnList = "status, time, id"),
+    @Index(name = "order_user_id_time_id_idx", columnList = "userId, time, id")
+})
 public class Order {
 
     /**
@@ -34,7 +41,7 @@ public class Order {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "order_id_seq")
-    @SequenceGenerator(name = "order_id_seq", sequenceName = "order_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "order_id_seq", sequenceName = "order_id_seq", allocationSize = 50)
     private int id;
 
     /**
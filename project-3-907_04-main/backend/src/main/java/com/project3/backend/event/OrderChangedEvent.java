@@ -0,0 +1,43 @@
+package com.project3.backend.event;
+
+import lombok.Getter;
+
+/**
+ * The {@code OrderChangedEvent} class is published by the order write path every time an order is
+ * created, updated or deleted. It is published inside the writing transaction, so listeners that keep
+ * derived tables in the database can update them atomically with the order, while in-memory listeners
+ * should use {@code @TransactionalEventListener} to react only once the order has been committed.
+ */
+@Getter
+public final class OrderChangedEvent {
+
+    /**
+     * The state of the order before the change, or {@code null} if the order was created.
+     */
+    private final OrderState before;
+
+    /**
+     * The state of the order after the change, or {@code null} if the order was deleted.
+     */
+    private final OrderState after;
+
+    /**
+     * Constructs a new {@code OrderChangedEvent}.
+     *
+     * @param before The state before the change, or {@code null} for a new order.
+     * @param after  The state after the change, or {@code null} for a deleted order.
+     */
+    public OrderChangedEvent(OrderState before, OrderState after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Returns the ID of the changed order.
+     *
+     * @return The order ID.
+     */
+    public int getOrderId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,64 @@
+package com.project3.backend.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * The {@code OrderState} class is an immutable copy of an order and its line items at one point in time.
+ * It is carried by {@link OrderChangedEvent} so that listeners can see both the previous and the new
+ * contents of an order.
+ */
+@Getter
+public final class OrderState {
+
+    /**
+     * The ID of the order.
+     */
+    private final int id;
+
+    /**
+     * The total price of the order.
+     */
+    private final double price;
+
+    /**
+     * The time the order was placed.
+     */
+    private final LocalDateTime time;
+
+    /**
+     * The user ID associated with the order.
+     */
+    private final int userId;
+
+    /**
+     * The status of the order.
+     */
+    private final String status;
+
+    /**
+     * The line items of the order, mapping item ID to quantity.
+     */
+    private final Map<Integer, Integer> items;
+
+    /**
+     * Constructs a new {@code OrderState}.
+     *
+     * @param id     The ID of the order.
+     * @param price  The total price of the order.
+     * @param time   The time the order was placed.
+     * @param userId The user ID associated with the order.
+     * @param status The status of the order.
+     * @param items  The line items of the order; the map is copied.
+     */
+    public OrderState(int id, double price, LocalDateTime time, int userId, String status, Map<Integer, Integer> items) {
+        this.id = id;
+        this.price = price;
+        this.time = time;
+        this.userId = userId;
+        this.status = status;
+        this.items = items == null ? Map.of() : Map.copyOf(items);
+    }
+}
@@ -0,0 +1,117 @@
+package com.project3.backend.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The {@code DailySalesIndex} class holds, for every day, a vector of the quantity sold of each item.
+ * Items are mapped to dense vector slots on first sight, so a day costs one {@code long} per known item.
+ * Summing a range reduces the day vectors of the range with a parallel stream, one partition per day.
+ * The class is thread-safe; each day vector is guarded by its own monitor.
+ */
+public class DailySalesIndex {
+
+    /**
+     * The sales vector of one day.
+     */
+    private static final class Day {
+        private long[] quantities = new long[16];
+
+        private synchronized void add(int slot, long quantity) {
+            if (slot >= quantities.length) {
+                quantities = Arrays.copyOf(quantities, Math.max(slot + 1, quantities.length * 2));
+            }
+            quantities[slot] += quantity;
+        }
+
+        private synchronized long[] snapshot() {
+            return quantities.clone();
+        }
+    }
+
+    private final ConcurrentSkipListMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+
+    // Item ID -> vector slot
+    private final ConcurrentHashMap<Integer, Integer> slots = new ConcurrentHashMap<>();
+
+    // Vector slot -> item ID, replaced when it grows
+    private volatile int[] itemIds = new int[16];
+
+    private int slotCount;
+
+    /**
+     * Adds a quantity sold of one item on one day. A negative quantity removes sales, e.g. when an order
+     * is edited or deleted.
+     *
+     * @param day      The day of the sale.
+     * @param itemId   The ID of the item.
+     * @param quantity The quantity sold.
+     */
+    public void add(LocalDate day, int itemId, long quantity) {
+        if (quantity != 0) {
+            days.computeIfAbsent(day, d -> new Day()).add(slotOf(itemId), quantity);
+        }
+    }
+
+    /**
+     * Sums the quantity sold of every item over a range of whole days.
+     *
+     * @param firstDay The inclusive first day of the range.
+     * @param endDay   The exclusive last day of the range.
+     * @return The non-zero quantities sold keyed by item ID.
+     */
+    public Map<Integer, Long> sum(LocalDate firstDay, LocalDate endDay) {
+        long[] total = days.subMap(firstDay, true, endDay, false).values().parallelStream()
+                .map(Day::snapshot)
+                .reduce(new long[0], DailySalesIndex::plus);
+        int[] ids = itemIds;
+        Map<Integer, Long> sold = new HashMap<>();
+        for (int slot = 0; slot < total.length; slot++) {
+            if (total[slot] != 0) {
+                sold.put(ids[slot], total[slot]);
+            }
+        }
+        return sold;
+    }
+
+    /**
+     * Removes every day.
+     */
+    public void clear() {
+        days.clear();
+    }
+
+    private int slotOf(int itemId) {
+        Integer slot = slots.get(itemId);
+        return slot != null ? slot : slots.computeIfAbsent(itemId, this::assignSlot);
+    }
+
+    private synchronized int assignSlot(int itemId) {
+        int slot = slotCount++;
+        int[] ids = itemIds;
+        if (slot >= ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[slot] = itemId;
+        // Published before the slot is returned, so readers never see a slot without its item ID
+        itemIds = ids;
+        return slot;
+    }
+
+    /**
+     * Adds two vectors into a new one as long as the longer of them, leaving both unchanged.
+     */
+    private static long[] plus(long[] a, long[] b) {
+        long[] longer = a.length >= b.length ? a : b;
+        long[] shorter = longer == a ? b : a;
+        long[] sum = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            sum[i] += shorter[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,308 @@
+package com.project3.backend.index;
+
+import java.util.Arrays;
+
+/**
+ * The {@code PairCountMap} class is an open-addressing hash map from an unordered pair of item IDs to an
+ * {@code int} count. Keys and counts live in primitive arrays, so adding to a count never allocates,
+ * and a pair whose count drops to zero is removed. The class is not thread-safe.
+ */
+public final class PairCountMap {
+
+    // Marks an unused slot; packed keys of non-negative IDs are never negative
+    private static final long EMPTY = -1L;
+
+    // Packed pair keys, or EMPTY
+    private long[] keys;
+
+    // Count of the pair stored in the same slot
+    private int[] counts;
+
+    // Number of pairs stored
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public PairCountMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map sized for the expected number of pairs.
+     *
+     * @param expectedSize The expected number of pairs.
+     */
+    public PairCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Packs an unordered pair of item IDs into a single key, smaller ID first.
+     *
+     * @param itemA One item ID.
+     * @param itemB The other item ID.
+     * @return The packed key.
+     */
+    public static long key(int itemA, int itemB) {
+        int low = Math.min(itemA, itemB);
+        int high = Math.max(itemA, itemB);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the smaller item ID of a packed key.
+     *
+     * @param key The packed key.
+     * @return The smaller item ID.
+     */
+    public static int first(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Returns the larger item ID of a packed key.
+     *
+     * @param key The packed key.
+     * @return The larger item ID.
+     */
+    public static int second(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Adds a delta to the count of a pair, removing the pair if its count becomes zero.
+     *
+     * @param key   The packed pair key.
+     * @param delta The amount to add.
+     */
+    public void add(long key, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                counts[slot] += delta;
+                if (counts[slot] == 0) {
+                    remove(slot);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        if (++size * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Returns the count of a pair.
+     *
+     * @param key The packed pair key.
+     * @return The count, or zero if the pair is absent.
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds every count of another map to this one.
+     *
+     * @param other The map to add.
+     */
+    public void addAll(PairCountMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != EMPTY) {
+                add(other.keys[slot], other.counts[slot]);
+            }
+        }
+    }
+
+    /**
+     * Passes every pair and its count to the consumer.
+     *
+     * @param consumer The consumer receiving the pairs.
+     */
+    public void forEach(PairConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(keys[slot], counts[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this map.
+     *
+     * @return The copy.
+     */
+    public PairCountMap copy() {
+        PairCountMap copy = new PairCountMap(0);
+        copy.keys = keys.clone();
+        copy.counts = counts.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the keys of the {@code k} pairs with the highest positive counts, highest first.
+     * Ties are broken by key. Selection uses a bounded min-heap of packed {@code (count, slot)} longs.
+     *
+     * @param k The maximum number of pairs to return.
+     * @return The selected packed keys.
+     */
+    public long[] topKeys(int k) {
+        int limit = Math.min(k, size);
+        if (limit <= 0) {
+            return new long[0];
+        }
+        long[] heap = new long[limit];
+        int heapSize = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == EMPTY || counts[slot] <= 0) {
+                continue;
+            }
+            long entry = ((long) counts[slot] << 32) | slot;
+            if (heapSize < limit) {
+                heap[heapSize] = entry;
+                siftUp(heap, heapSize++);
+            } else if (entry > heap[0]) {
+                heap[0] = entry;
+                siftDown(heap, heapSize);
+            }
+        }
+        long[] entries = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(entries);
+        long[] result = new long[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            result[i] = keys[(int) entries[heapSize - 1 - i]];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of pairs stored.
+     *
+     * @return The number of pairs.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Empties a slot and shifts the following entries of its probe run back, keeping lookups correct
+     * without tombstones.
+     *
+     * @param freed The slot to empty.
+     */
+    private void remove(int freed) {
+        int mask = keys.length - 1;
+        int slot = freed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                break;
+            }
+            int home = slot(keys[slot], mask);
+            // Move the entry back if its home slot is not between the freed slot and its current slot
+            boolean between = freed <= slot ? (freed < home && home <= slot) : (freed < home || home <= slot);
+            if (!between) {
+                keys[freed] = keys[slot];
+                counts[freed] = counts[slot];
+                freed = slot;
+            }
+        }
+        keys[freed] = EMPTY;
+        counts[freed] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < heapSize && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            long swap = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = swap;
+            index = smallest;
+        }
+    }
+
+    /**
+     * Receives one pair and its count without boxing.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+
+        /**
+         * Accepts one pair.
+         *
+         * @param key   The packed pair key.
+         * @param count The count of the pair.
+         */
+        void accept(long key, int count);
+    }
+}
@@ -0,0 +1,61 @@
+package com.project3.backend.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.project3.backend.entity.Ingredient;
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.ItemToIngredient;
+
+/**
+ * The {@code ExcessInventory} class selects the items whose sales barely touched their ingredient stock.
+ * For every ingredient of an item's recipe, the restock ratio is the amount the item's sales consumed
+ * (quantity sold times recipe quantity) divided by the ingredient's restock level. An item is in excess
+ * when its highest restock ratio stays below the threshold; items without a recipe have a ratio of zero.
+ */
+public final class ExcessInventory {
+
+    private ExcessInventory() {
+    }
+
+    /**
+     * Selects the excess items, ordered by ascending restock ratio and then by item ID.
+     *
+     * @param items       Every item.
+     * @param recipes     Every recipe row.
+     * @param ingredients Every ingredient.
+     * @param sold        The quantity sold of each item in the period, keyed by item ID.
+     * @param threshold   The restock ratio below which an item is in excess.
+     * @return The excess items.
+     */
+    public static List<Item> select(Iterable<Item> items, Iterable<ItemToIngredient> recipes,
+                                    Iterable<Ingredient> ingredients, Map<Integer, Long> sold, double threshold) {
+        Map<Integer, Integer> restockById = new HashMap<>();
+        for (Ingredient ingredient : ingredients) {
+            restockById.put(ingredient.getId(), ingredient.getRestock());
+        }
+        Map<Integer, Double> ratioByItem = new HashMap<>();
+        for (ItemToIngredient row : recipes) {
+            long consumed = sold.getOrDefault(row.getItemId(), 0L) * row.getQuantity();
+            Integer restock = restockById.get(row.getIngredientId());
+            if (restock == null || consumed == 0) {
+                continue;
+            }
+            double ratio = restock > 0 ? (double) consumed / restock : Double.POSITIVE_INFINITY;
+            ratioByItem.merge(row.getItemId(), ratio, Math::max);
+        }
+
+        List<Item> excess = new ArrayList<>();
+        for (Item item : items) {
+            if (ratioByItem.getOrDefault(item.getId(), 0.0) < threshold) {
+                excess.add(item);
+            }
+        }
+        excess.sort(Comparator.comparingDouble((Item item) -> ratioByItem.getOrDefault(item.getId(), 0.0))
+                .thenComparingInt(Item::getId));
+        return excess;
+    }
+}
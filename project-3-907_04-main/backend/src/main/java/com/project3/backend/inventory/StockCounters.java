@@ -0,0 +1,216 @@
+package com.project3.backend.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code StockCounters} class tracks ingredient consumption that has not been written to the database yet.
+ * Each ingredient has a striped {@link LongAdder}, so order threads consuming the same hot ingredient never
+ * contend on a lock or a single CAS location.
+ * <p>
+ * Pending deltas are never reset. The flusher remembers, per ingredient, how much of the running total it has
+ * written, and the next drain takes only the difference. A consumption that races with a drain is therefore
+ * picked up by the following one, never lost or written twice.
+ * <p>
+ * {@link #consume} may be called from any thread. {@link #drain}, {@link #commit} and {@link #rebase} must be
+ * called by one flushing thread at a time.
+ */
+public class StockCounters {
+
+    /**
+     * The stock last read from the database, with the running consumption total already included in it.
+     */
+    private static final class Baseline {
+        private final long stock;
+        private final long consumedAt;
+
+        private Baseline(long stock, long consumedAt) {
+            this.stock = stock;
+            this.consumedAt = consumedAt;
+        }
+    }
+
+    /**
+     * The counters of one ingredient.
+     */
+    private static final class Counter {
+
+        // Running total of consumption; negative deltas return stock
+        private final LongAdder consumed = new LongAdder();
+
+        // Part of the running total written to the database, only touched by the flusher
+        private long flushed;
+
+        // Stock read at the last rebase, or null before the first one
+        private volatile Baseline baseline;
+
+        private long estimate(Baseline base) {
+            return base.stock - (consumed.sum() - base.consumedAt);
+        }
+    }
+
+    /**
+     * The deltas taken by one {@link #drain}, to be written and then passed to {@link #commit}.
+     */
+    public static final class Drain {
+        private final int[] ingredientIds;
+        private final long[] deltas;
+        private final long[] totals;
+
+        private Drain(int[] ingredientIds, long[] deltas, long[] totals) {
+            this.ingredientIds = ingredientIds;
+            this.deltas = deltas;
+            this.totals = totals;
+        }
+
+        /**
+         * Returns the number of ingredients with a pending delta.
+         *
+         * @return The number of deltas.
+         */
+        public int size() {
+            return ingredientIds.length;
+        }
+
+        /**
+         * Returns the ingredient ID of one delta.
+         *
+         * @param index The index of the delta.
+         * @return The ingredient ID.
+         */
+        public int getIngredientId(int index) {
+            return ingredientIds[index];
+        }
+
+        /**
+         * Returns the amount of one ingredient consumed since the last commit.
+         *
+         * @param index The index of the delta.
+         * @return The amount to subtract from the stored stock.
+         */
+        public long getDelta(int index) {
+            return deltas[index];
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    // Ingredients whose estimated stock went below zero since they were last seen non-negative
+    private final Set<Integer> oversold = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder oversells = new LongAdder();
+
+    /**
+     * Records consumption of an ingredient. A negative amount returns stock, e.g. when an order is edited
+     * or deleted.
+     *
+     * @param ingredientId The ID of the ingredient.
+     * @param amount       The amount consumed.
+     * @return {@code true} if the consumption took the estimated stock below zero.
+     */
+    public boolean consume(int ingredientId, long amount) {
+        if (amount == 0) {
+            return false;
+        }
+        Counter counter = counters.computeIfAbsent(ingredientId, id -> new Counter());
+        counter.consumed.add(amount);
+        Baseline base = counter.baseline;
+        if (amount > 0 && base != null && counter.estimate(base) < 0) {
+            oversells.increment();
+            oversold.add(ingredientId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the estimated current stock of an ingredient: the last stock read from the database minus the
+     * consumption recorded since.
+     *
+     * @param ingredientId The ID of the ingredient.
+     * @return The estimate, or empty if the stock of the ingredient has not been read yet.
+     */
+    public OptionalLong estimate(int ingredientId) {
+        Counter counter = counters.get(ingredientId);
+        Baseline base = counter == null ? null : counter.baseline;
+        return base == null ? OptionalLong.empty() : OptionalLong.of(counter.estimate(base));
+    }
+
+    /**
+     * Takes the consumption recorded since the last commit for every ingredient.
+     *
+     * @return The pending deltas.
+     */
+    public Drain drain() {
+        List<Integer> ids = new ArrayList<>();
+        List<long[]> values = new ArrayList<>();
+        counters.forEach((id, counter) -> {
+            long total = counter.consumed.sum();
+            if (total != counter.flushed) {
+                ids.add(id);
+                values.add(new long[] {total - counter.flushed, total});
+            }
+        });
+        int[] ingredientIds = new int[ids.size()];
+        long[] deltas = new long[ids.size()];
+        long[] totals = new long[ids.size()];
+        for (int i = 0; i < ingredientIds.length; i++) {
+            ingredientIds[i] = ids.get(i);
+            deltas[i] = values.get(i)[0];
+            totals[i] = values.get(i)[1];
+        }
+        return new Drain(ingredientIds, deltas, totals);
+    }
+
+    /**
+     * Marks the deltas of a drain as written. A drain that failed to be written is simply not committed,
+     * and its deltas are taken again by the next drain.
+     *
+     * @param drain The drain that was written.
+     */
+    public void commit(Drain drain) {
+        for (int i = 0; i < drain.ingredientIds.length; i++) {
+            counters.get(drain.ingredientIds[i]).flushed = drain.totals[i];
+        }
+    }
+
+    /**
+     * Replaces the baselines with stock freshly read from the database, which must include every committed
+     * drain and nothing else written by this instance. Ingredients whose estimate is non-negative again are no longer reported as oversold.
+     *
+     * @param stock The stored stock keyed by ingredient ID.
+     */
+    public void rebase(Map<Integer, Integer> stock) {
+        stock.forEach((id, value) -> {
+            Counter counter = counters.computeIfAbsent(id, key -> new Counter());
+            Baseline base = new Baseline(value, counter.flushed);
+            counter.baseline = base;
+            if (counter.estimate(base) >= 0) {
+                oversold.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Returns the ingredients whose estimated stock is currently below zero.
+     *
+     * @return The IDs of the oversold ingredients.
+     */
+    public Set<Integer> getOversold() {
+        return Set.copyOf(oversold);
+    }
+
+    /**
+     * Returns the number of consumptions that took an ingredient's estimated stock below zero.
+     *
+     * @return The oversell count.
+     */
+    public long getOversellCount() {
+        return oversells.sum();
+    }
+}
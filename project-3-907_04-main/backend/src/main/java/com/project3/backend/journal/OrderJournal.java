@@ -0,0 +1,379 @@
+package com.project3.backend.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import com.project3.backend.entity.Order;
+
+/**
+ * The {@code OrderJournal} class is a write-ahead log of accepted orders in a memory-mapped file. An order is
+ * durable once {@link #append} returns, before it reaches the database; a writer takes the orders in sequence
+ * with {@link #take} and calls {@link #checkpoint} after each committed batch.
+ * <p>
+ * The file starts with a header holding the offset and sequence number of the first order not yet written to
+ * the database. Records follow it back to back, each made of its payload length, a CRC-32C of the sequence
+ * number and payload, the sequence number and the encoded order. When the writer catches up, appending starts
+ * over right after the header, so the file only has to hold the orders the database is behind on.
+ * <p>
+ * {@link #recover} reads the records from the checkpoint on and stops at the first one that is torn, corrupt
+ * or out of sequence, which is where appending resumes. Records before an unexpected crash may therefore be
+ * replayed a second time, so the writer must skip orders that already exist.
+ * <p>
+ * {@link #append} may be called from any thread; {@link #take} and {@link #checkpoint} by one writer thread.
+ */
+public class OrderJournal implements Closeable {
+
+    /**
+     * An order in the journal, with its position.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final int end;
+        private final Order order;
+
+        private Entry(long sequence, int end, Order order) {
+            this.sequence = sequence;
+            this.end = end;
+            this.order = order;
+        }
+
+        /**
+         * Returns the sequence number of the entry, counting up from the first order ever appended.
+         *
+         * @return The sequence number.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Returns the order, as it was accepted.
+         *
+         * @return The order.
+         */
+        public Order getOrder() {
+            return order;
+        }
+    }
+
+    private static final int MAGIC = 0x4f4a4e31; // "OJN1"
+
+    // magic, checkpoint offset, checkpoint sequence, CRC of the three
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+
+    // payload length, CRC, sequence
+    private static final int RECORD_HEADER_SIZE = 4 + 4 + 8;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final boolean sync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition appended = lock.newCondition();
+
+    // Orders appended but not taken by the writer yet, in sequence; guarded by the lock
+    private final ArrayDeque<Entry> untaken = new ArrayDeque<>();
+
+    // Where the next record goes and its sequence number; guarded by the lock
+    private int position = HEADER_SIZE;
+    private long nextSequence;
+
+    // The first order not written to the database yet; guarded by the lock
+    private int checkpointOffset = HEADER_SIZE;
+    private long checkpointSequence;
+
+    /**
+     * Opens or creates a journal file.
+     *
+     * @param path     The journal file.
+     * @param capacity The size of the file in bytes, which bounds the orders the database can fall behind on.
+     * @param sync     Whether every append is forced to disk before it returns, rather than left to the OS.
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public OrderJournal(Path path, int capacity, boolean sync) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, (int) channel.size()));
+        this.sync = sync;
+        if (buffer.getInt(0) != MAGIC) {
+            writeHeader(HEADER_SIZE, 0);
+        }
+    }
+
+    /**
+     * Reads the orders appended after the last checkpoint and queues them for the writer, then positions the
+     * journal after them. Must be called once, before the first {@link #append}.
+     *
+     * @return The number of orders not known to be in the database.
+     */
+    public int recover() {
+        lock.lock();
+        try {
+            int offset = HEADER_SIZE;
+            long sequence = -1;
+            if (headerCrc(buffer.getInt(4), buffer.getLong(8)) == buffer.getInt(16)
+                    && buffer.getInt(4) >= HEADER_SIZE && buffer.getInt(4) <= buffer.capacity()) {
+                offset = buffer.getInt(4);
+                sequence = buffer.getLong(8);
+            }
+            checkpointOffset = offset;
+            List<Entry> entries = new ArrayList<>();
+            while (offset + RECORD_HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(offset);
+                int crc = buffer.getInt(offset + 4);
+                long recordSequence = buffer.getLong(offset + 8);
+                if (length <= 0 || offset + RECORD_HEADER_SIZE + length > buffer.capacity()
+                        || (sequence >= 0 && recordSequence != sequence)) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(offset + RECORD_HEADER_SIZE, payload);
+                if (crc(recordSequence, payload) != crc) {
+                    break;
+                }
+                if (entries.isEmpty()) {
+                    checkpointSequence = recordSequence;
+                }
+                offset += RECORD_HEADER_SIZE + length;
+                entries.add(new Entry(recordSequence, offset, decode(ByteBuffer.wrap(payload))));
+                sequence = recordSequence + 1;
+            }
+            position = offset;
+            nextSequence = Math.max(sequence, 0);
+            if (entries.isEmpty()) {
+                checkpointSequence = nextSequence;
+            }
+            untaken.addAll(entries);
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends an order and, in sync mode, forces it to disk.
+     *
+     * @param order The order to append, with its ID already assigned.
+     * @return The entry of the order, or null if the journal is full.
+     */
+    public Entry append(Order order) {
+        byte[] payload = encode(order);
+        int crc;
+        long sequence;
+        int offset;
+        Entry entry;
+        int length = RECORD_HEADER_SIZE + payload.length;
+        lock.lock();
+        try {
+            if (position + length > buffer.capacity()) {
+                return null;
+            }
+            sequence = nextSequence++;
+            offset = position;
+            position += length;
+            crc = crc(sequence, payload);
+            buffer.putInt(offset + 4, crc);
+            buffer.putLong(offset + 8, sequence);
+            buffer.put(offset + RECORD_HEADER_SIZE, payload);
+            // The length goes last, so a record torn by a crash is never mistaken for a complete one
+            buffer.putInt(offset, payload.length);
+            // Queued under the lock, so the writer sees the orders in sequence and never checkpoints past a gap
+            entry = new Entry(sequence, offset + length, order);
+            untaken.add(entry);
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (sync) {
+            buffer.force(offset, length);
+        }
+        return entry;
+    }
+
+    /**
+     * Takes the next orders to write to the database, waiting for one if there are none. The orders stay in
+     * the journal until they are checkpointed, so the writer must keep them until their batch commits.
+     *
+     * @param max     The maximum number of orders to take.
+     * @param timeout The longest time to wait for an order.
+     * @param unit    The unit of the timeout.
+     * @return The orders, in sequence; empty if none arrived in time.
+     * @throws InterruptedException if the writer is interrupted while waiting
+     */
+    public List<Entry> take(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (untaken.isEmpty()) {
+                if (remaining <= 0) {
+                    return List.of();
+                }
+                remaining = appended.awaitNanos(remaining);
+            }
+            List<Entry> entries = new ArrayList<>(Math.min(max, untaken.size()));
+            while (entries.size() < max && !untaken.isEmpty()) {
+                entries.add(untaken.poll());
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that every order up to and including the given entry is in the database. Once nothing is left,
+     * appending starts over at the beginning of the file.
+     *
+     * @param entry The last entry written to the database.
+     */
+    public void checkpoint(Entry entry) {
+        lock.lock();
+        try {
+            checkpointSequence = entry.sequence + 1;
+            checkpointOffset = entry.end;
+            if (checkpointSequence == nextSequence) {
+                checkpointOffset = HEADER_SIZE;
+                position = HEADER_SIZE;
+            }
+            writeHeader(checkpointOffset, checkpointSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes held by orders not written to the database yet.
+     *
+     * @return The pending size in bytes.
+     */
+    public int getPendingBytes() {
+        lock.lock();
+        try {
+            return position - checkpointOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of orders not written to the database yet.
+     *
+     * @return The pending order count.
+     */
+    public long getPendingCount() {
+        lock.lock();
+        try {
+            return nextSequence - checkpointSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeHeader(int offset, long sequence) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, offset);
+        buffer.putLong(8, sequence);
+        buffer.putInt(16, headerCrc(offset, sequence));
+        if (sync) {
+            buffer.force(0, HEADER_SIZE);
+        }
+    }
+
+    private static int headerCrc(int offset, long sequence) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(12).putInt(offset).putLong(sequence).flip());
+        return (int) crc.getValue();
+    }
+
+    private static int crc(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(sequence).flip());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Encodes the fields of an order that are written to the database: ID, price, time, user, status and items.
+     *
+     * @param order The order.
+     * @return The encoded order.
+     */
+    static byte[] encode(Order order) {
+        byte[] status = order.getStatus() == null ? null : order.getStatus().getBytes(StandardCharsets.UTF_8);
+        Map<Integer, Integer> items = order.getItems() == null ? Map.of() : order.getItems();
+        ByteBuffer out = ByteBuffer.allocate(4 + 8 + 8 + 4 + 4 + 4 + (status == null ? 0 : status.length) + 4 + 8 * items.size());
+        out.putInt(order.getId());
+        out.putDouble(order.getPrice());
+        out.putLong(order.getTime().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(order.getTime().getNano());
+        out.putInt(order.getUserId());
+        out.putInt(status == null ? -1 : status.length);
+        if (status != null) {
+            out.put(status);
+        }
+        out.putInt(items.size());
+        items.forEach((itemId, quantity) -> out.putInt(itemId).putInt(quantity));
+        return out.array();
+    }
+
+    /**
+     * Decodes an order written by {@link #encode}.
+     *
+     * @param in The encoded order.
+     * @return The order.
+     */
+    static Order decode(ByteBuffer in) {
+        Order order = new Order();
+        order.setId(in.getInt());
+        order.setPrice(in.getDouble());
+        order.setTime(LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+        order.setUserId(in.getInt());
+        int statusLength = in.getInt();
+        if (statusLength >= 0) {
+            byte[] status = new byte[statusLength];
+            in.get(status);
+            order.setStatus(new String(status, StandardCharsets.UTF_8));
+        }
+        int itemCount = in.getInt();
+        Map<Integer, Integer> items = new HashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.put(in.getInt(), in.getInt());
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    /**
+     * Forces pending changes to disk and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.project3.backend.logging;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AsyncAppenderBase;
+
+/**
+ * The {@code DroppingAsyncAppender} class is a Logback {@link AsyncAppender} that never blocks the logging
+ * thread and counts the events it drops. Events are handed to a bounded queue drained by a single worker
+ * writing to the wrapped appenders; when the queue is full the event is discarded rather than waited for.
+ * <p>
+ * An event is counted as dropped exactly when the queue refuses it, so the count stays exact with many
+ * threads logging at once. Logback keeps its queue private, so the appender takes it from the base class
+ * when started. Configure it with a {@code discardingThreshold} of 0, so that the only events lost are the
+ * ones counted here. The count is process-wide because Logback, not Spring, creates the appender.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    /**
+     * The number of events dropped because the queue was full.
+     */
+    private static final LongAdder dropped = new LongAdder();
+
+    /**
+     * The queue drained by the worker, or {@code null} if it could not be taken from the base class.
+     */
+    private volatile BlockingQueue<ILoggingEvent> queue;
+
+    /**
+     * Starts the worker and takes the queue it drains.
+     */
+    @Override
+    public void start() {
+        super.start();
+        if (isStarted()) {
+            queue = workerQueue();
+        }
+    }
+
+    /**
+     * Queues the event, or drops and counts it if the queue is full or refuses it.
+     *
+     * @param event The logging event.
+     */
+    @Override
+    protected void append(ILoggingEvent event) {
+        BlockingQueue<ILoggingEvent> queue = this.queue;
+        if (queue == null) {
+            super.append(event);
+            return;
+        }
+        if (queue.remainingCapacity() < getDiscardingThreshold() && isDiscardable(event)) {
+            return;
+        }
+        // A full queue drops the event before it is prepared; one filled up meanwhile refuses it
+        if (queue.remainingCapacity() > 0) {
+            preprocess(event);
+            if (queue.offer(event)) {
+                return;
+            }
+        }
+        dropped.increment();
+    }
+
+    /**
+     * Reads the queue the base class created on start.
+     *
+     * @return The queue, or {@code null} if this Logback version does not hold it where expected, in which
+     * case events are queued by the base class without being counted.
+     */
+    @SuppressWarnings("unchecked")
+    private BlockingQueue<ILoggingEvent> workerQueue() {
+        try {
+            Field field = AsyncAppenderBase.class.getDeclaredField("blockingQueue");
+            field.setAccessible(true);
+            return (BlockingQueue<ILoggingEvent>) field.get(this);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            addError("Cannot read the queue of " + AsyncAppenderBase.class.getName() + ", dropped events are not counted", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of events dropped so far.
+     *
+     * @return The dropped event count.
+     */
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,48 @@
+package com.project3.backend.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code LogSampler} class decides which requests of a busy endpoint are logged. Each endpoint keeps
+ * its own counter and every {@code logging.sample.every}-th request is sampled, starting with the first,
+ * so a quiet endpoint is still logged while a rush cannot flood the log.
+ */
+@Component
+public class LogSampler {
+
+    /**
+     * The number of requests per endpoint for each sampled one.
+     */
+    private final int every;
+
+    /**
+     * The number of requests seen, keyed by endpoint.
+     */
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code LogSampler}.
+     *
+     * @param every The number of requests per endpoint for each sampled one; 1 samples every request.
+     */
+    public LogSampler(@Value("${logging.sample.every:100}") int every) {
+        this.every = Math.max(1, every);
+    }
+
+    /**
+     * Counts a request of the endpoint and returns whether it should be logged.
+     *
+     * @param endpoint The endpoint name.
+     * @return Whether the request is sampled.
+     */
+    public boolean sample(String endpoint) {
+        if (every == 1) {
+            return true;
+        }
+        return counters.computeIfAbsent(endpoint, e -> new AtomicLong()).getAndIncrement() % every == 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.project3.backend.metrics;
+
+import org.springframework.stereotype.Component;
+
+import com.project3.backend.logging.DroppingAsyncAppender;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes the number of log events dropped by the asynchronous appender as {@code logging.events.dropped}.
+ */
+@Component
+public class LoggingMetrics {
+
+    /**
+     * Registers the counter.
+     *
+     * @param registry The registry the counter is published to.
+     */
+    public LoggingMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("logging.events.dropped", DroppingAsyncAppender.class,
+                        appender -> DroppingAsyncAppender.getDroppedCount())
+                .description("Log events dropped because the asynchronous log queue was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.project3.backend.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.service.OrderIdempotencyService;
+import com.project3.backend.service.OrderJournalService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the orders and line items written, from the order change events of the write path. Only committed
+ * changes are counted, so rolled back orders do not inflate the rates.
+ * <p>
+ * {@code orders.written} is tagged with the kind of change ({@code created}, {@code updated} or
+ * {@code deleted}); {@code orders.line.items.written} counts the line items of created and updated orders.
+ * {@code orders.deduplicated} counts the submissions replayed for a repeated {@code Idempotency-Key}, tagged
+ * with where the earlier order was found ({@code memory} or {@code database}). {@code orders.journal.pending}
+ * is the number of journaled orders not written to the database yet, and {@code orders.journal.rejected} counts
+ * the journaled orders the database rejected, which were moved to the dead letter file.
+ */
+@Component
+public class OrderMetrics {
+
+    private final Counter created;
+
+    private final Counter updated;
+
+    private final Counter deleted;
+
+    private final Counter lineItems;
+
+    /**
+     * Registers the counters.
+     *
+     * @param registry    The registry the counters are published to.
+     * @param idempotency The service deduplicating order submissions.
+     * @param journal     The service journaling accepted orders.
+     */
+    public OrderMetrics(MeterRegistry registry, OrderIdempotencyService idempotency, OrderJournalService journal) {
+        created = counter(registry, "created");
+        updated = counter(registry, "updated");
+        deleted = counter(registry, "deleted");
+        lineItems = Counter.builder("orders.line.items.written")
+                .description("Line items of created and updated orders")
+                .register(registry);
+        for (String source : new String[] {"memory", "database"}) {
+            FunctionCounter.builder("orders.deduplicated", idempotency, service -> service.getDeduplicatedCount(source))
+                    .description("Order submissions answered with the order of an earlier submission with the same key")
+                    .tag("source", source)
+                    .register(registry);
+        }
+        Gauge.builder("orders.journal.pending", journal, OrderJournalService::getPendingCount)
+                .description("Journaled orders not written to the database yet")
+                .register(registry);
+        FunctionCounter.builder("orders.journal.rejected", journal, OrderJournalService::getRejectedCount)
+                .description("Journaled orders rejected by the database and moved to the dead letter file")
+                .register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String change) {
+        return Counter.builder("orders.written")
+                .description("Orders written, by kind of change")
+                .tag("change", change)
+                .register(registry);
+    }
+
+    /**
+     * Counts a committed order change.
+     *
+     * @param event The order change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getAfter() == null) {
+            deleted.increment();
+            return;
+        }
+        (event.getBefore() == null ? created : updated).increment();
+        lineItems.increment(event.getAfter().getItems().size());
+    }
+}
@@ -0,0 +1,32 @@
+package com.project3.backend.reports;
+
+import lombok.Data;
+
+/**
+ * The {@code IngredientUsageReportEntry} class is an {@link IngredientUsageReport} assembled in memory,
+ * used when one report row is the sum of several partial results.
+ */
+@Data
+public class IngredientUsageReportEntry implements IngredientUsageReport {
+
+    /**
+     * The name of the ingredient.
+     */
+    private String ingredientName;
+
+    /**
+     * The amount of the ingredient used.
+     */
+    private int amountUsed;
+
+    /**
+     * Constructs a new {@code IngredientUsageReportEntry}.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @param amountUsed     The amount of the ingredient used.
+     */
+    public IngredientUsageReportEntry(String ingredientName, int amountUsed) {
+        this.ingredientName = ingredientName;
+        this.amountUsed = amountUsed;
+    }
+}
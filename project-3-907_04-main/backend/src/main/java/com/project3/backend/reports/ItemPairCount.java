@@ -0,0 +1,29 @@
+package com.project3.backend.reports;
+
+/**
+ * The {@code ItemPairCount} interface represents the number of orders containing a pair of items,
+ * identified by their IDs with the smaller ID first.
+ */
+public interface ItemPairCount {
+
+    /**
+     * Retrieves the smaller item ID of the pair.
+     *
+     * @return The ID of the first item.
+     */
+    int getItem1Id();
+
+    /**
+     * Retrieves the larger item ID of the pair.
+     *
+     * @return The ID of the second item.
+     */
+    int getItem2Id();
+
+    /**
+     * Retrieves the number of orders containing both items.
+     *
+     * @return The pair count.
+     */
+    int getPairCount();
+}
@@ -0,0 +1,21 @@
+package com.project3.backend.reports;
+
+/**
+ * The {@code ItemQuantity} interface represents the total quantity of one item sold.
+ */
+public interface ItemQuantity {
+
+    /**
+     * Retrieves the ID of the item.
+     *
+     * @return The ID of the item.
+     */
+    int getItemId();
+
+    /**
+     * Retrieves the quantity of the item sold.
+     *
+     * @return The quantity sold.
+     */
+    long getQuantity();
+}
@@ -0,0 +1,39 @@
+package com.project3.backend.reports;
+
+import lombok.Data;
+
+/**
+ * The {@code OrderedTogetherReportEntry} class is an {@link OrderedTogetherReport} assembled in memory
+ * from the co-occurrence index.
+ */
+@Data
+public class OrderedTogetherReportEntry implements OrderedTogetherReport {
+
+    /**
+     * The name of the first item, which sorts before the second.
+     */
+    private String item1Name;
+
+    /**
+     * The name of the second item.
+     */
+    private String item2Name;
+
+    /**
+     * The number of orders containing both items.
+     */
+    private int pairCount;
+
+    /**
+     * Constructs a new {@code OrderedTogetherReportEntry}.
+     *
+     * @param item1Name The name of the first item.
+     * @param item2Name The name of the second item.
+     * @param pairCount The number of orders containing both items.
+     */
+    public OrderedTogetherReportEntry(String item1Name, String item2Name, int pairCount) {
+        this.item1Name = item1Name;
+        this.item2Name = item2Name;
+        this.pairCount = pairCount;
+    }
+}
@@ -6,6 +6,13 @@ package com.project3.backend.reports;
  */
 public interface SalesReport {
 
+    /**
+     * Returns the ID of the item associated with the sales report.
+     *
+     * @return the ID of the item
+     */
+    int getId();
+
     /**
      * Returns the name of the item associated with the sales report.
      *
@@ -0,0 +1,39 @@
+package com.project3.backend.reports;
+
+import lombok.Data;
+
+/**
+ * The {@code SalesReportEntry} class is a {@link SalesReport} assembled in memory, used when one report
+ * row is the sum of several partial results.
+ */
+@Data
+public class SalesReportEntry implements SalesReport {
+
+    /**
+     * The ID of the item.
+     */
+    private int id;
+
+    /**
+     * The name of the item.
+     */
+    private String itemName;
+
+    /**
+     * The number of orders containing the item.
+     */
+    private int orderCount;
+
+    /**
+     * Constructs a new {@code SalesReportEntry}.
+     *
+     * @param id         The ID of the item.
+     * @param itemName   The name of the item.
+     * @param orderCount The number of orders containing the item.
+     */
+    public SalesReportEntry(int id, String itemName, int orderCount) {
+        this.id = id;
+        this.itemName = itemName;
+        this.orderCount = orderCount;
+    }
+}
@@ -1,6 +1,7 @@
 package com.project3.backend.repository;
 
 import java.util.List;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.springframework.data.jpa.repository.Query;
@@ -41,16 +42,47 @@ public interface IngredientRepository extends CrudRepository<Ingredient, Integer
      * @return List of IngredientUsageReport objects.
      */
     @Query(value = "SELECT i.name AS ingredientName, SUM(iti.quantity) AS amountUsed " +
-                   "FROM \"order\" O " +
-                   "JOIN \"item_to_order\" ito ON ito.order_id = O.id " +
+                   "FROM \"item_to_order\" ito " +
                    "JOIN \"item_to_ingredient\" iti ON iti.item_id = ito.item_id " +
                    "JOIN \"ingredient\" i ON i.id = iti.ingredient_id " +
-                   "WHERE O.time BETWEEN :startDate AND :endDate " +
+                   "WHERE ito.order_time BETWEEN :startDate AND :endDate " +
                    "GROUP BY i.name " +
                    "ORDER BY i.name", nativeQuery = true)
     List<IngredientUsageReport> findIngredientUsageBetweenDates(@Param("startDate") LocalDateTime startDate, 
                                                                 @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Retrieves ingredient usage for orders placed in a half-open time range.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The exclusive end of the range.
+     * @return List of IngredientUsageReport objects.
+     */
+    @Query(value = "SELECT i.name AS ingredientName, SUM(iti.quantity) AS amountUsed " +
+                   "FROM \"item_to_order\" ito " +
+                   "JOIN \"item_to_ingredient\" iti ON iti.item_id = ito.item_id " +
+                   "JOIN \"ingredient\" i ON i.id = iti.ingredient_id " +
+                   "WHERE ito.order_time >= :startDate AND ito.order_time < :endDate " +
+                   "GROUP BY i.name", nativeQuery = true)
+    List<IngredientUsageReport> findIngredientUsageBefore(@Param("startDate") LocalDateTime startDate,
+                                                          @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Retrieves ingredient usage from the daily ingredient ledger for a range of whole days.
+     *
+     * @param startDay The inclusive first day of the range.
+     * @param endDay   The exclusive last day of the range.
+     * @return List of IngredientUsageReport objects.
+     */
+    @Query(value = "SELECT i.name AS ingredientName, SUM(l.amount_used) AS amountUsed " +
+                   "FROM ingredient_usage_daily l " +
+                   "JOIN \"ingredient\" i ON i.id = l.ingredient_id " +
+                   "WHERE l.day >= :startDay AND l.day < :endDay " +
+                   "GROUP BY i.name " +
+                   "HAVING SUM(l.amount_used) <> 0", nativeQuery = true)
+    List<IngredientUsageReport> findIngredientUsageFromLedger(@Param("startDay") LocalDate startDay,
+                                                              @Param("endDay") LocalDate endDay);
+
     /**
      * Retrieves a list of ingredients that need restocking, along with the restock amount.
      *
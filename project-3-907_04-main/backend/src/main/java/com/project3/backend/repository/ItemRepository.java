@@ -10,6 +10,8 @@ import org.springframework.stereotype.Repository;
 
 import com.project3.backend.entity.Item;
 import com.project3.backend.reports.ItemToOrderWithQuantity;
+import com.project3.backend.reports.ItemPairCount;
+import com.project3.backend.reports.ItemQuantity;
 import com.project3.backend.reports.OrderedTogetherReport;
 import com.project3.backend.reports.SalesReport;
 
@@ -28,8 +30,7 @@ public interface ItemRepository extends CrudRepository<Item, Integer> {
     @Query(value = "SELECT i.id, i.name, i.price, i.vegan, i.gluten_free AS glutenFree, i.category_id AS categoryId, i.size, i.extra_sauce AS extraSauce, i.image_url as imageUrl, io.quantity " +
                    "FROM item i " +
                    "JOIN item_to_order io ON i.id = io.item_id " +
-                   "JOIN \"order\" o ON io.order_id = o.id " +
-                   "WHERE o.id = :orderId", nativeQuery = true)
+                   "WHERE io.order_id = :orderId", nativeQuery = true)
     List<ItemToOrderWithQuantity> findByItemToOrders_orderId(int orderId);
     
     /**
@@ -40,52 +41,41 @@ public interface ItemRepository extends CrudRepository<Item, Integer> {
      * @return List of SalesReport objects.
      */
     @Query(value = "SELECT i.id, i.name AS itemName, COUNT(io.order_id) AS orderCount FROM item i " +
-                   "LEFT JOIN item_to_order io ON i.id = io.item_id " + 
-                   "LEFT JOIN \"order\" o ON io.order_id = o.id " + 
-                   "WHERE o.time BETWEEN :startDate AND :endDate " +
+                   "JOIN item_to_order io ON i.id = io.item_id " +
+                   "WHERE io.order_time BETWEEN :startDate AND :endDate " +
                    "GROUP BY i.id, itemName " + 
                    "ORDER BY orderCount DESC", nativeQuery=true)
     List<SalesReport> findItemsWithOrderCount(@Param("startDate") LocalDateTime startDate, 
                                               @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Retrieves a list of items considered excess based on sales and restock data.
+     * Retrieves the order count of each item for orders placed in a half-open time range.
      *
-     * @param chosenTimestamp   The chosen timestamp for filtering sales data.
-     * @param currentTimestamp  The current timestamp for filtering sales data.
-     * @return List of Item objects representing excess items.
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The exclusive end of the range.
+     * @return List of SalesReport objects.
      */
-    @Query(value = "WITH ItemSales AS (" +
-                        "SELECT io.item_id, SUM(ii.Quantity) AS total_sold " +
-                        "FROM item_to_order AS io " +
-                        "INNER JOIN \"order\" AS o ON io.order_id = o.id " +
-                        "LEFT JOIN item_TO_ingredient AS ii ON io.item_id = ii.item_ID " +
-                        "LEFT JOIN ingredient AS ing ON ii.ingredient_ID = ing.ID " +
-                        "WHERE o.time >= :chosen_timestamp AND o.time <= :current_timestamp " +
-                    "GROUP BY io.item_id), " +
-                    "ItemInventory AS (" +
-                        "SELECT i.id, i.name, i.price, " +
-                        "i.vegan, i.gluten_free, " +
-                        "i.category_id, i.size, i.extra_sauce, i.image_url, ing.restock, " +
-                        "SUM(ii.Quantity) AS total_ingredient " +
-                        "FROM item AS i " +
-                        "LEFT JOIN item_TO_ingredient AS ii ON i.ID = ii.id " +
-                        "LEFT JOIN ingredient AS ing ON ii.ingredient_ID = ing.id " +
-                    "GROUP BY i.id, i.name, i.price, i.vegan, i.gluten_free, i.category_id, i.size, i.extra_sauce, i.image_url, ing.restock), " +
-                    "DistinctItems AS (" +
-                        "SELECT ii.id, ii.name, ii.price, ii.vegan, " +
-                        "ii.gluten_free, ii.category_id, ii.size, ii.extra_sauce, ii.image_url, " +
-                        "CASE WHEN (total_sold IS NULL) THEN 0 ELSE total_sold END AS total_sold " +
-                        "FROM ItemInventory AS ii " +
-                        "LEFT JOIN ItemSales AS isales ON ii.id = isales.item_id " +
-                    "WHERE (COALESCE(isales.total_sold, 0) / ii.restock) < 0.10 OR isales.total_sold IS NULL) " +
-                    "SELECT * " +
-                    "FROM (" +
-                        "SELECT *, ROW_NUMBER() OVER(PARTITION BY id ORDER BY total_sold DESC) AS rn " +
-                    "FROM DistinctItems) AS ranked " +
-                    "WHERE rn = 1 AND total_sold = 0", nativeQuery = true)
-    List<Item> findExcessItems(@Param("chosen_timestamp") LocalDateTime chosenTimestamp, 
-                               @Param("current_timestamp") LocalDateTime currentTimestamp);
+    @Query(value = "SELECT i.id, i.name AS itemName, COUNT(io.order_id) AS orderCount FROM item i " +
+                   "JOIN item_to_order io ON i.id = io.item_id " +
+                   "WHERE io.order_time >= :startDate AND io.order_time < :endDate " +
+                   "GROUP BY i.id, itemName", nativeQuery = true)
+    List<SalesReport> findItemsWithOrderCountBefore(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Retrieves the order count of each item from the hourly sales rollup for a range of whole hours.
+     *
+     * @param startHour The inclusive first hour of the range.
+     * @param endHour   The exclusive last hour of the range.
+     * @return List of SalesReport objects.
+     */
+    @Query(value = "SELECT i.id, i.name AS itemName, SUM(s.order_count) AS orderCount FROM item_sales_hourly s " +
+                   "JOIN item i ON i.id = s.item_id " +
+                   "WHERE s.hour >= :startHour AND s.hour < :endHour " +
+                   "GROUP BY i.id, itemName " +
+                   "HAVING SUM(s.order_count) > 0", nativeQuery = true)
+    List<SalesReport> findItemsWithOrderCountFromRollup(@Param("startHour") LocalDateTime startHour,
+                                                        @Param("endHour") LocalDateTime endHour);
 
     /**
      * Retrieves a list of items ordered together frequently within a specified date range.
@@ -95,13 +85,13 @@ public interface ItemRepository extends CrudRepository<Item, Integer> {
      * @return List of OrderedTogetherReport objects.
      */
     @Query(value = "WITH FilteredOrders AS (" +
-					"SELECT o.id AS order_id, io1.item_id AS item1_id, io2.item_id AS item2_id " +
-					"FROM \"order\" o " +
-					"JOIN item_to_order io1 ON o.id = io1.order_id " +
-					"JOIN item_to_order io2 ON o.id = io2.order_id " +
+					"SELECT io1.order_id, io1.item_id AS item1_id, io2.item_id AS item2_id " +
+					"FROM item_to_order io1 " +
+					"JOIN item_to_order io2 ON io1.order_id = io2.order_id AND io1.order_time = io2.order_time " +
 					"JOIN item i1 ON io1.item_id = i1.id " +
 					"JOIN item i2 ON io2.item_id = i2.id " +
-					"WHERE o.time BETWEEN :startDate AND :endDate " +
+					"WHERE io1.order_time BETWEEN :startDate AND :endDate " +
+					"AND io2.order_time BETWEEN :startDate AND :endDate " +
 					"AND io1.item_id < io2.item_id " +
 					"AND i1.name < i2.name " +
 				") " +
@@ -115,4 +105,66 @@ public interface ItemRepository extends CrudRepository<Item, Integer> {
                         
     List<OrderedTogetherReport> findItemsOrderedTogether(@Param("startDate") LocalDateTime startDate, 
                                                          @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Counts the orders containing each pair of items within a date range, inclusive of both ends.
+     *
+     * @param startDate The start date of the date range.
+     * @param endDate   The end date of the date range.
+     * @return List of ItemPairCount objects, one per pair of item IDs.
+     */
+    @Query(value = "SELECT io1.item_id AS item1Id, io2.item_id AS item2Id, COUNT(DISTINCT io1.order_id) AS pairCount " +
+                    "FROM item_to_order io1 " +
+                    "JOIN item_to_order io2 ON io1.order_id = io2.order_id AND io1.order_time = io2.order_time " +
+                        "AND io1.item_id < io2.item_id " +
+                    "WHERE io1.order_time BETWEEN :startDate AND :endDate " +
+                    "AND io2.order_time BETWEEN :startDate AND :endDate " +
+                    "GROUP BY io1.item_id, io2.item_id", nativeQuery = true)
+    List<ItemPairCount> findItemPairCounts(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Counts the orders containing each pair of items from a start date up to, but excluding, an end date.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The exclusive end of the range.
+     * @return List of ItemPairCount objects, one per pair of item IDs.
+     */
+    @Query(value = "SELECT io1.item_id AS item1Id, io2.item_id AS item2Id, COUNT(DISTINCT io1.order_id) AS pairCount " +
+                    "FROM item_to_order io1 " +
+                    "JOIN item_to_order io2 ON io1.order_id = io2.order_id AND io1.order_time = io2.order_time " +
+                        "AND io1.item_id < io2.item_id " +
+                    "WHERE io1.order_time >= :startDate AND io1.order_time < :endDate " +
+                    "AND io2.order_time >= :startDate AND io2.order_time < :endDate " +
+                    "GROUP BY io1.item_id, io2.item_id", nativeQuery = true)
+    List<ItemPairCount> findItemPairCountsBefore(@Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Retrieves the quantity sold of each item within a date range, inclusive of both ends.
+     *
+     * @param startDate The start date of the date range.
+     * @param endDate   The end date of the date range.
+     * @return List of ItemQuantity objects.
+     */
+    @Query(value = "SELECT io.item_id AS itemId, SUM(io.quantity) AS quantity " +
+                   "FROM item_to_order io " +
+                   "WHERE io.order_time BETWEEN :startDate AND :endDate " +
+                   "GROUP BY io.item_id", nativeQuery = true)
+    List<ItemQuantity> findItemQuantities(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Retrieves the quantity sold of each item from a start date up to, but excluding, an end date.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The exclusive end of the range.
+     * @return List of ItemQuantity objects.
+     */
+    @Query(value = "SELECT io.item_id AS itemId, SUM(io.quantity) AS quantity " +
+                   "FROM item_to_order io " +
+                   "WHERE io.order_time >= :startDate AND io.order_time < :endDate " +
+                   "GROUP BY io.item_id", nativeQuery = true)
+    List<ItemQuantity> findItemQuantitiesBefore(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+}
@@ -1,8 +1,12 @@
 package com.project3.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.project3.backend.entity.ItemToIngredient;
 
@@ -23,6 +27,14 @@ public interface ItemToIngredientRepository extends CrudRepository<ItemToIngredi
      */
     List<ItemToIngredient> findByItemId(int itemId);
 
+    /**
+     * Retrieves all {@code ItemToIngredient} entities belonging to any of the specified items.
+     *
+     * @param itemIds The IDs of the items.
+     * @return A list of {@code ItemToIngredient} entities associated with the specified items.
+     */
+    List<ItemToIngredient> findByItemIdIn(Collection<Integer> itemIds);
+
     /**
      * Retrieves a single {@code ItemToIngredient} entity based on the specified item and ingredient IDs.
      *
@@ -39,4 +51,14 @@ public interface ItemToIngredientRepository extends CrudRepository<ItemToIngredi
      * @param id The ID of the item for which associated entities should be deleted.
      */
     void deleteByItemId(int id);
+
+    /**
+     * Deletes all {@code ItemToIngredient} entities with the given IDs in a single statement.
+     *
+     * @param ids The IDs of the rows to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("DELETE FROM ItemToIngredient iti WHERE iti.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -2,9 +2,14 @@ package com.project3.backend.repository;
 
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.project3.backend.entity.ItemToOrder;
 
@@ -24,6 +29,16 @@ public interface ItemToOrderRepository extends CrudRepository<ItemToOrder, Integ
      */
     List<ItemToOrder> findByOrderId(int orderId);
 
+    /**
+     * Retrieves the {@link com.project3.backend.entity.ItemToOrder} entities of an order placed at a known time.
+     * Passing the time lets the database read only the monthly partition holding the order.
+     *
+     * @param orderId   The ID of the order.
+     * @param orderTime The time of the order.
+     * @return A list of {@link com.project3.backend.entity.ItemToOrder} entities associated with the given order.
+     */
+    List<ItemToOrder> findByOrderIdAndOrderTime(int orderId, LocalDateTime orderTime);
+
     /**
      * Retrieves a single {@link com.project3.backend.entity.ItemToOrder} entity based on the specified item ID and order ID.
      *
@@ -40,4 +55,14 @@ public interface ItemToOrderRepository extends CrudRepository<ItemToOrder, Integ
      * @param id The ID of the order for which items are to be deleted.
      */
     void deleteByOrderId(int id);
+
+    /**
+     * Deletes all {@link com.project3.backend.entity.ItemToOrder} entities with the given IDs in a single statement.
+     *
+     * @param ids The IDs of the rows to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("DELETE FROM ItemToOrder ito WHERE ito.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Integer> ids);
 }
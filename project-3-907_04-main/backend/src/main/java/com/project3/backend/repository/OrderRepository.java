@@ -1,6 +1,12 @@
 package com.project3.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.project3.backend.entity.Order;
@@ -10,4 +16,39 @@ import com.project3.backend.entity.Order;
  */
 @Repository
 public interface OrderRepository extends CrudRepository<Order, Integer>{
+
+    /**
+     * Retrieves a page of orders, newest first, using keyset pagination on {@code (time, id)}.
+     * Every filter is optional and is ignored when {@code null}. The cursor parameters identify the
+     * last order of the previous page; only orders strictly after it in {@code (time DESC, id DESC)}
+     * order are returned. The cursor is compared as a row value, which Postgres uses as the bound of a scan
+     * of the {@code (time, id)} index, so a page deep into the history reads as few rows as the first; the
+     * redundant {@code time} bound lets it skip the newer monthly partitions. The query is native since HQL
+     * cannot compare row values, and quotes {@code time} as Hibernate does for keywords. The parameters are cast in their null checks because the Postgres driver
+     * sends a null without a type, which the server cannot resolve on its own.
+     *
+     * @param startDate  The inclusive lower bound on the order time.
+     * @param endDate    The inclusive upper bound on the order time.
+     * @param status     The order status to match.
+     * @param userId     The user ID to match.
+     * @param cursorTime The time of the last order of the previous page.
+     * @param cursorId   The ID of the last order of the previous page.
+     * @param pageable   The page request limiting the number of rows returned.
+     * @return List of orders belonging to the requested page.
+     */
+    @Query(value = "SELECT o.* FROM \"order\" o " +
+                   "WHERE (CAST(:startDate AS timestamp) IS NULL OR o.\"time\" >= :startDate) " +
+                   "AND (CAST(:endDate AS timestamp) IS NULL OR o.\"time\" <= :endDate) " +
+                   "AND (CAST(:status AS varchar) IS NULL OR o.status = :status) " +
+                   "AND (CAST(:userId AS integer) IS NULL OR o.user_id = :userId) " +
+                   "AND (CAST(:cursorTime AS timestamp) IS NULL " +
+                        "OR (o.\"time\" <= :cursorTime AND (o.\"time\", o.id) < (:cursorTime, :cursorId))) " +
+                   "ORDER BY o.\"time\" DESC, o.id DESC", nativeQuery = true)
+    List<Order> findPage(@Param("startDate") LocalDateTime startDate,
+                         @Param("endDate") LocalDateTime endDate,
+                         @Param("status") String status,
+                         @Param("userId") Integer userId,
+                         @Param("cursorTime") LocalDateTime cursorTime,
+                         @Param("cursorId") Integer cursorId,
+                         Pageable pageable);
 }
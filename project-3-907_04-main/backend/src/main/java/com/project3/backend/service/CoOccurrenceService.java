@@ -0,0 +1,43 @@
+package com.project3.backend.service;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.reports.OrderedTogetherReport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The {@code CoOccurrenceService} interface maintains the in-process index of how often each pair of items
+ * is ordered together per day, and answers the ordered-together report from it.
+ */
+public interface CoOccurrenceService {
+
+    /**
+     * Applies the difference between the previous and the new state of a committed order to the index.
+     *
+     * @param event The order change to apply.
+     */
+    void onOrderChanged(OrderChangedEvent event);
+
+    /**
+     * Rebuilds the whole index, and its persisted copy, from the order history.
+     *
+     * @return The number of (day, pair) counts written.
+     */
+    int rebuild();
+
+    /**
+     * Writes the days changed since the last flush to the persisted copy of the index.
+     */
+    void flush();
+
+    /**
+     * Generates the ordered-together report for a time range.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @param limit     The maximum number of pairs to return, or {@code null} for all of them.
+     * @return List of OrderedTogetherReport objects ordered by descending pair count.
+     */
+    List<OrderedTogetherReport> orderedTogether(LocalDateTime startDate, LocalDateTime endDate, Integer limit);
+}
@@ -0,0 +1,492 @@
+package com.project3.backend.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.index.PairCountMap;
+import com.project3.backend.reports.ItemPairCount;
+import com.project3.backend.reports.OrderedTogetherReport;
+import com.project3.backend.reports.OrderedTogetherReportEntry;
+import com.project3.backend.repository.ItemRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service implementation that keeps, in memory, the number of orders containing each pair of items per day.
+ * Committed order changes are applied to the day buckets as they happen, and a report over any range only
+ * merges the day buckets inside it, so its cost depends on the number of days and distinct pairs rather than
+ * on the number of orders. Only the partial days at the edges of a range are counted from the orders.
+ * <p>
+ * Changed days are written to the {@code item_pair_daily} table periodically and on shutdown, and the table
+ * is loaded back at startup. Until the index is loaded the report falls back to the order query.
+ */
+@Service
+public class CoOccurrenceServiceImpl implements CoOccurrenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(CoOccurrenceServiceImpl.class);
+
+    /**
+     * Counts the orders containing each pair of items per day over the full order history.
+     */
+    private static final String BACKFILL =
+            "SELECT CAST(io1.order_time AS date) AS day, io1.item_id AS item_a, io2.item_id AS item_b, COUNT(DISTINCT io1.order_id) AS pair_count " +
+            "FROM item_to_order io1 " +
+            "JOIN item_to_order io2 ON io1.order_id = io2.order_id AND io1.order_time = io2.order_time AND io1.item_id < io2.item_id " +
+            "GROUP BY CAST(io1.order_time AS date), io1.item_id, io2.item_id";
+
+    private static final String LOAD = "SELECT day, item_a, item_b, pair_count FROM item_pair_daily";
+
+    private static final String CONTENTS = "SELECT order_id, order_time, item_id FROM item_to_order WHERE order_id = ANY(?)";
+
+    private static final String INSERT = "INSERT INTO item_pair_daily (day, item_a, item_b, pair_count) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    // Day -> pair counts of the orders placed that day; each bucket is guarded by its own monitor
+    private final ConcurrentSkipListMap<LocalDate, PairCountMap> buckets = new ConcurrentSkipListMap<>();
+
+    // Days changed since they were last written to item_pair_daily
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    // Held shared by incremental updates and reads, and exclusively while the buckets are replaced
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    // Serializes rebuilds and writes to item_pair_daily
+    private final ReentrantLock persistLock = new ReentrantLock();
+
+    // Order changes received while a rebuild reads the history, or null when no rebuild is running;
+    // replaced only under the write lock, so a change is either recorded here or applied after the swap
+    private Queue<OrderChangedEvent> pendingChanges;
+
+    // Whether the buckets hold the full history, either loaded from item_pair_daily or rebuilt
+    private volatile boolean loaded;
+
+    /**
+     * Applies a committed order change to the index. The pairs of the previous contents are removed from their
+     * day and the pairs of the new contents added to theirs. Runs after commit, so rolled-back writes never
+     * reach the index.
+     *
+     * @param event The order change to apply.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderState before = event.getBefore();
+        OrderState after = event.getAfter();
+        if (before != null && after != null && dayOf(before) != null && dayOf(before).equals(dayOf(after))
+                && before.getItems().keySet().equals(after.getItems().keySet())) {
+            // Only quantities, price or status changed: the pairs are the same
+            return;
+        }
+        indexLock.readLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(before, -1);
+            apply(after, 1);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds every pair of items of one order state, with the given sign, to the live buckets.
+     *
+     * @param state The order state, or {@code null} if there is none.
+     * @param sign  {@code 1} to add the state, {@code -1} to remove it.
+     */
+    private void apply(OrderState state, int sign) {
+        LocalDate day = addPairs(buckets, state, sign);
+        if (day != null) {
+            dirtyDays.add(day);
+        }
+    }
+
+    /**
+     * Adds every pair of items of one order state, with the given sign, to the bucket of its day.
+     *
+     * @param target The day buckets to update.
+     * @param state  The order state, or {@code null} if there is none.
+     * @param sign   {@code 1} to add the state, {@code -1} to remove it.
+     * @return The day of the bucket updated, or {@code null} if the state has no pairs.
+     */
+    private static LocalDate addPairs(Map<LocalDate, PairCountMap> target, OrderState state, int sign) {
+        LocalDate day = dayOf(state);
+        if (day == null || state.getItems().size() < 2) {
+            return null;
+        }
+        int[] itemIds = state.getItems().keySet().stream().mapToInt(Integer::intValue).toArray();
+        PairCountMap bucket = target.computeIfAbsent(day, d -> new PairCountMap());
+        synchronized (bucket) {
+            for (int i = 0; i < itemIds.length; i++) {
+                for (int j = i + 1; j < itemIds.length; j++) {
+                    bucket.add(PairCountMap.key(itemIds[i], itemIds[j]), sign);
+                }
+            }
+        }
+        return day;
+    }
+
+    private static LocalDate dayOf(OrderState state) {
+        return state == null || state.getTime() == null ? null : state.getTime().toLocalDate();
+    }
+
+    /**
+     * Loads the persisted index once the application is up. When nothing has been persisted yet, the index is
+     * rebuilt from the order history instead. Changes applied before loading finishes are kept, since the
+     * persisted counts never include them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            Map<LocalDate, PairCountMap> persisted = new HashMap<>();
+            jdbcTemplate.query(LOAD, rs -> {
+                persisted.computeIfAbsent(rs.getDate(1).toLocalDate(), d -> new PairCountMap())
+                        .add(PairCountMap.key(rs.getInt(2), rs.getInt(3)), rs.getInt(4));
+            });
+            if (persisted.isEmpty()) {
+                int written = rebuild();
+                log.info("Co-occurrence index built from order history, {} day pair counts", written);
+                return;
+            }
+            indexLock.writeLock().lock();
+            try {
+                persisted.forEach((day, counts) -> buckets.merge(day, counts, (current, loadedCounts) -> {
+                    current.addAll(loadedCounts);
+                    return current;
+                }));
+                loaded = true;
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            log.info("Co-occurrence index loaded, {} days", persisted.size());
+        } catch (DataAccessException e) {
+            log.warn("Co-occurrence index unavailable, /orderedTogether will query orders directly", e);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the order history and replaces the persisted copy. The history is read in one
+     * repeatable-read snapshot without blocking order writes, whose changes are recorded meanwhile. Only the
+     * swap of the buckets takes the write lock: the orders changed during the rebuild are then counted with
+     * their latest contents instead of the contents the snapshot saw, so a change is neither lost nor counted
+     * twice whether it committed before or after the snapshot. The persisted copy is rewritten afterwards.
+     *
+     * @return The number of (day, pair) counts written.
+     */
+    public int rebuild() {
+        persistLock.lock();
+        try {
+            Queue<OrderChangedEvent> changes = new ConcurrentLinkedQueue<>();
+            indexLock.writeLock().lock();
+            try {
+                pendingChanges = changes;
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+
+            Map<LocalDate, PairCountMap> rebuilt = new HashMap<>();
+            List<Object[]> rows = new ArrayList<>();
+            TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshot.setReadOnly(true);
+            try {
+                snapshot.executeWithoutResult(status -> {
+                    jdbcTemplate.query(BACKFILL, rs -> {
+                        LocalDate day = rs.getDate(1).toLocalDate();
+                        rebuilt.computeIfAbsent(day, d -> new PairCountMap())
+                                .add(PairCountMap.key(rs.getInt(2), rs.getInt(3)), rs.getInt(4));
+                        rows.add(new Object[] {rs.getDate(1), rs.getInt(2), rs.getInt(3), rs.getInt(4)});
+                    });
+
+                    // Order ID -> contents in the snapshot, looked up for the changes received so far
+                    Map<Integer, OrderState> seen = new HashMap<>();
+                    List<OrderChangedEvent> received = new ArrayList<>();
+                    drainChanges(changes, received, seen);
+                    indexLock.writeLock().lock();
+                    try {
+                        drainChanges(changes, received, seen);
+                        Set<LocalDate> corrected = correct(rebuilt, received, seen);
+                        buckets.clear();
+                        buckets.putAll(rebuilt);
+                        dirtyDays.clear();
+                        dirtyDays.addAll(corrected);
+                        pendingChanges = null;
+                        loaded = true;
+                    } finally {
+                        indexLock.writeLock().unlock();
+                    }
+                });
+            } catch (RuntimeException e) {
+                indexLock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM item_pair_daily");
+                    jdbcTemplate.batchUpdate(INSERT, rows);
+                });
+            } catch (DataAccessException e) {
+                // The index is current; let the periodic flush persist it day by day
+                dirtyDays.addAll(rebuilt.keySet());
+                throw e;
+            }
+            return rows.size();
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the recorded order changes to {@code received} and looks up, in the rebuild's snapshot, the
+     * contents of the orders not looked up yet.
+     *
+     * @param changes  The changes recorded since the rebuild started.
+     * @param received The changes taken so far, in the order they were received.
+     * @param seen     The contents of each order in the snapshot, {@code null} for orders it does not contain.
+     */
+    private void drainChanges(Queue<OrderChangedEvent> changes, List<OrderChangedEvent> received, Map<Integer, OrderState> seen) {
+        List<Integer> orderIds = new ArrayList<>();
+        for (OrderChangedEvent change = changes.poll(); change != null; change = changes.poll()) {
+            received.add(change);
+            if (!seen.containsKey(change.getOrderId())) {
+                seen.put(change.getOrderId(), null);
+                orderIds.add(change.getOrderId());
+            }
+        }
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<Integer, LocalDateTime> times = new HashMap<>();
+        Map<Integer, Map<Integer, Integer>> items = new HashMap<>();
+        jdbcTemplate.query(CONTENTS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", orderIds.toArray())),
+                rs -> {
+                    int orderId = rs.getInt(1);
+                    times.put(orderId, rs.getTimestamp(2).toLocalDateTime());
+                    items.computeIfAbsent(orderId, id -> new HashMap<>()).put(rs.getInt(3), 1);
+                });
+        items.forEach((orderId, contents) ->
+                seen.put(orderId, new OrderState(orderId, 0, times.get(orderId), 0, null, contents)));
+    }
+
+    /**
+     * Replaces, in the rebuilt buckets, the pairs of every changed order as the snapshot saw it with the pairs
+     * of its latest contents.
+     *
+     * @param rebuilt  The buckets read from the snapshot.
+     * @param received The changes received during the rebuild, in the order they were received.
+     * @param seen     The contents of each changed order in the snapshot.
+     * @return The days whose buckets were corrected.
+     */
+    private static Set<LocalDate> correct(Map<LocalDate, PairCountMap> rebuilt, List<OrderChangedEvent> received,
+                                          Map<Integer, OrderState> seen) {
+        Map<Integer, OrderState> latest = new HashMap<>();
+        for (OrderChangedEvent change : received) {
+            latest.put(change.getOrderId(), change.getAfter());
+        }
+        Set<LocalDate> corrected = new HashSet<>();
+        latest.forEach((orderId, contents) -> {
+            LocalDate removed = addPairs(rebuilt, seen.get(orderId), -1);
+            LocalDate added = addPairs(rebuilt, contents, 1);
+            if (removed != null) {
+                corrected.add(removed);
+            }
+            if (added != null) {
+                corrected.add(added);
+            }
+        });
+        return corrected;
+    }
+
+    /**
+     * Writes every day changed since the last flush to {@code item_pair_daily}, replacing the rows of that day.
+     * A day that fails to be written stays dirty and is retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${reports.co-occurrence.flush-interval-ms:60000}")
+    @PreDestroy
+    public void flush() {
+        if (!loaded) {
+            // Writing partial buckets would overwrite the persisted history
+            return;
+        }
+        persistLock.lock();
+        try {
+            flushDirtyDays();
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the dirty days to {@code item_pair_daily}, one transaction per day.
+     */
+    private void flushDirtyDays() {
+        for (LocalDate day : new ArrayList<>(dirtyDays)) {
+            dirtyDays.remove(day);
+            List<Object[]> rows = new ArrayList<>();
+            indexLock.readLock().lock();
+            try {
+                PairCountMap bucket = buckets.get(day);
+                if (bucket != null) {
+                    Date sqlDay = Date.valueOf(day);
+                    synchronized (bucket) {
+                        bucket.forEach((key, count) -> rows.add(
+                                new Object[] {sqlDay, PairCountMap.first(key), PairCountMap.second(key), count}));
+                    }
+                }
+            } finally {
+                indexLock.readLock().unlock();
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM item_pair_daily WHERE day = ?", Date.valueOf(day));
+                    if (!rows.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT, rows);
+                    }
+                });
+            } catch (DataAccessException e) {
+                dirtyDays.add(day);
+                log.warn("Could not persist co-occurrence counts for {}", day, e);
+            }
+        }
+    }
+
+    /**
+     * Generates the ordered-together report for a time range. Whole days inside the range are merged from the
+     * index, and only the partial days at the start and end of the range are counted from the orders themselves.
+     * Items sharing a name are reported as one item, and pairs are ranked with a bounded top-K selection.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @param limit     The maximum number of pairs to return, or {@code null} for all of them.
+     * @return List of OrderedTogetherReport objects ordered by descending pair count.
+     */
+    public List<OrderedTogetherReport> orderedTogether(LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        if (!loaded) {
+            List<OrderedTogetherReport> report = itemRepository.findItemsOrderedTogether(startDate, endDate);
+            return limit == null || limit >= report.size() ? report : report.subList(0, limit);
+        }
+
+        LocalDate firstDay = startDate.toLocalDate();
+        if (firstDay.atStartOfDay().isBefore(startDate)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDate lastDay = endDate.toLocalDate();
+
+        PairCountMap counts = new PairCountMap();
+        if (firstDay.isBefore(lastDay)) {
+            indexLock.readLock().lock();
+            try {
+                for (PairCountMap bucket : buckets.subMap(firstDay, true, lastDay, false).values()) {
+                    synchronized (bucket) {
+                        counts.addAll(bucket);
+                    }
+                }
+            } finally {
+                indexLock.readLock().unlock();
+            }
+            if (startDate.isBefore(firstDay.atStartOfDay())) {
+                addAll(counts, itemRepository.findItemPairCountsBefore(startDate, firstDay.atStartOfDay()));
+            }
+            addAll(counts, itemRepository.findItemPairCounts(lastDay.atStartOfDay(), endDate));
+        } else {
+            // Less than one whole day: count the range directly
+            addAll(counts, itemRepository.findItemPairCounts(startDate, endDate));
+        }
+        return toReport(counts, limit == null ? Integer.MAX_VALUE : limit);
+    }
+
+    private static void addAll(PairCountMap counts, List<ItemPairCount> rows) {
+        for (ItemPairCount row : rows) {
+            counts.add(PairCountMap.key(row.getItem1Id(), row.getItem2Id()), row.getPairCount());
+        }
+    }
+
+    /**
+     * Turns pair counts by item ID into report rows. Every item is first mapped to the lowest ID carrying its
+     * name, so variants of one item sharing a name are counted together and pairs of same-named items dropped.
+     *
+     * @param counts The pair counts by item ID.
+     * @param limit  The maximum number of rows to return.
+     * @return The report rows, highest pair count first.
+     */
+    private List<OrderedTogetherReport> toReport(PairCountMap counts, int limit) {
+        Map<String, Integer> idByName = new HashMap<>();
+        Map<Integer, String> nameById = new HashMap<>();
+        for (Item item : itemRepository.findAll()) {
+            nameById.put(item.getId(), item.getName());
+            idByName.merge(item.getName(), item.getId(), Math::min);
+        }
+
+        PairCountMap byName = new PairCountMap(counts.size());
+        counts.forEach((key, count) -> {
+            String name1 = nameById.get(PairCountMap.first(key));
+            String name2 = nameById.get(PairCountMap.second(key));
+            if (name1 != null && name2 != null && !name1.equals(name2)) {
+                byName.add(PairCountMap.key(idByName.get(name1), idByName.get(name2)), count);
+            }
+        });
+
+        List<OrderedTogetherReport> report = new ArrayList<>();
+        for (long key : byName.topKeys(limit)) {
+            String name1 = nameById.get(PairCountMap.first(key));
+            String name2 = nameById.get(PairCountMap.second(key));
+            if (name1.compareTo(name2) > 0) {
+                String swap = name1;
+                name1 = name2;
+                name2 = swap;
+            }
+            report.add(new OrderedTogetherReportEntry(name1, name2, byName.get(key)));
+        }
+        return report;
+    }
+}
@@ -0,0 +1,22 @@
+package com.project3.backend.service;
+
+import java.time.LocalDateTime;
+
+import com.project3.backend.dto.Dashboard;
+
+/**
+ * The {@code DashboardService} interface assembles the manager dashboard from the individual reports.
+ */
+public interface DashboardService {
+
+    /**
+     * Builds the dashboard for a period, running the reports concurrently. A report that fails or does not
+     * finish within the section timeout is left out and recorded in {@link Dashboard#getErrors()}.
+     *
+     * @param startDate The start date and time of the period.
+     * @param endDate   The end date and time of the period.
+     * @param limit     The maximum number of item pairs in the ordered-together section; all pairs when null.
+     * @return The dashboard, possibly with some sections missing.
+     */
+    Dashboard fetchDashboard(LocalDateTime startDate, LocalDateTime endDate, Integer limit);
+}
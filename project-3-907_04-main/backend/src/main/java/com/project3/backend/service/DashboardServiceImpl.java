@@ -0,0 +1,168 @@
+package com.project3.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.dto.Dashboard;
+import com.project3.backend.entity.Item;
+import com.project3.backend.reports.IngredientUsageReport;
+import com.project3.backend.reports.OrderedTogetherReport;
+import com.project3.backend.reports.RestockReport;
+import com.project3.backend.reports.SalesReport;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service implementation of the manager dashboard. The five reports run at the same time on a dedicated
+ * pool, so the dashboard takes as long as its slowest report rather than the sum of them, and a burst of
+ * dashboards cannot take more than the pool's threads (and database connections) away from orders.
+ * <p>
+ * Every section shares one deadline, counted from the start of the request, so a report still waiting
+ * for a thread when the pool is busy times out like one that is slow to run. Each report runs in its own
+ * transaction whose {@code statement_timeout} is the time left until the deadline, so Postgres cancels a
+ * query that overruns it instead of letting it hold its connection after the section was given up.
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor;
+
+    private final long sectionTimeoutMs;
+
+    /**
+     * Constructs a new {@code DashboardServiceImpl}.
+     *
+     * @param threads          The number of reports that may run at once, across all dashboard requests.
+     * @param sectionTimeoutMs The time after which a report still running is left out of the dashboard.
+     */
+    public DashboardServiceImpl(@Value("${dashboard.threads:10}") int threads,
+                                @Value("${dashboard.section-timeout-ms:3000}") long sectionTimeoutMs) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sectionTimeoutMs = sectionTimeoutMs;
+    }
+
+    @Override
+    public Dashboard fetchDashboard(LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        Future<List<SalesReport>> sales = submit(() -> itemService.salesReport(startDate, endDate), deadline);
+        Future<List<IngredientUsageReport>> usage = submit(() -> ingredientService.fetchIngredientUsageBetweenDates(startDate, endDate), deadline);
+        Future<List<RestockReport>> restock = submit(() -> ingredientService.fetchStockLessThanRestock(), deadline);
+        Future<List<Item>> excess = submit(() -> itemService.excessItems(startDate, endDate), deadline);
+        Future<List<OrderedTogetherReport>> together = submit(() -> itemService.fetchItemsOrderedTogether(startDate, endDate, limit), deadline);
+
+        Dashboard dashboard = new Dashboard();
+        dashboard.setSalesReport(await(dashboard, "salesReport", sales, deadline));
+        dashboard.setIngredientUsageReport(await(dashboard, "ingredientUsageReport", usage, deadline));
+        dashboard.setRestockReport(await(dashboard, "restockReport", restock, deadline));
+        dashboard.setExcessItems(await(dashboard, "excessItems", excess, deadline));
+        dashboard.setOrderedTogether(await(dashboard, "orderedTogether", together, deadline));
+        return dashboard;
+    }
+
+    /**
+     * Starts one report on the pool, in a transaction whose statements are cancelled by the database once
+     * the deadline has passed. A report failing after the deadline fails with a {@link TimeoutException},
+     * since it was most likely cancelled by its statement timeout.
+     *
+     * @param <T>      The type of the report.
+     * @param report   The report to run.
+     * @param deadline The {@link System#nanoTime()} by which the report must be done.
+     * @return The running report.
+     */
+    private <T> Future<T> submit(Supplier<T> report, long deadline) {
+        return executor.submit(() -> {
+            try {
+                return transactionTemplate.execute(status -> {
+                    long remainingMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                    jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class,
+                            Long.toString(remainingMs));
+                    return report.get();
+                });
+            } catch (RuntimeException e) {
+                if (System.nanoTime() - deadline < 0) {
+                    throw e;
+                }
+                TimeoutException timeout = new TimeoutException("Report cancelled at its deadline");
+                timeout.initCause(e);
+                throw timeout;
+            }
+        });
+    }
+
+    /**
+     * Waits for one section until the deadline. A section that times out is cancelled, interrupting its
+     * thread, and one that fails is logged; either way it is recorded in the dashboard's errors.
+     *
+     * @param <T>       The type of the report.
+     * @param dashboard The dashboard being built.
+     * @param section   The name of the section.
+     * @param future    The running report.
+     * @param deadline  The {@link System#nanoTime()} by which the report must be done.
+     * @return The report, or null if it is missing.
+     */
+    private <T> T await(Dashboard dashboard, String section, Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard section {} timed out after {} ms", section, sectionTimeoutMs);
+            dashboard.getErrors().put(section, "timeout");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                log.warn("Dashboard section {} timed out after {} ms", section, sectionTimeoutMs);
+                dashboard.getErrors().put(section, "timeout");
+            } else {
+                log.warn("Dashboard section {} failed", section, e.getCause());
+                dashboard.getErrors().put(section, "failed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            dashboard.getErrors().put(section, "timeout");
+        }
+        return null;
+    }
+
+    /**
+     * Stops the report threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.project3.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.event.OrderChangedEvent;
+
+/**
+ * The {@code ExcessItemsService} interface keeps per-day item sales in memory and answers the excess
+ * items report from them.
+ */
+public interface ExcessItemsService {
+
+    /**
+     * Applies the difference between the previous and the new state of a committed order to the daily sales.
+     *
+     * @param event The order change to apply.
+     */
+    void onOrderChanged(OrderChangedEvent event);
+
+    /**
+     * Retrieves the items whose sales within a time range used less than the threshold share of their
+     * ingredients' restock levels.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return List of excess items ordered by ascending restock ratio, then by ID.
+     */
+    List<Item> excessItems(LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,155 @@
+package com.project3.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.index.DailySalesIndex;
+import com.project3.backend.inventory.ExcessInventory;
+import com.project3.backend.reports.ItemQuantity;
+import com.project3.backend.repository.IngredientRepository;
+import com.project3.backend.repository.ItemRepository;
+import com.project3.backend.repository.ItemToIngredientRepository;
+
+/**
+ * Service implementation of the excess items report. The quantity sold of every item per day is kept in a
+ * {@link DailySalesIndex}, loaded from the order history at startup and updated as orders commit. A report sums
+ * the whole days of its range in memory, counts only the partial boundary days from the orders, and selects the
+ * excess items in Java against the small item, recipe and ingredient tables.
+ */
+@Service
+public class ExcessItemsServiceImpl implements ExcessItemsService, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ExcessItemsServiceImpl.class);
+
+    /**
+     * Sums the quantity sold of each item per day over the full order history.
+     */
+    private static final String LOAD =
+            "SELECT CAST(io.order_time AS date), io.item_id, SUM(io.quantity) " +
+            "FROM item_to_order io " +
+            "GROUP BY CAST(io.order_time AS date), io.item_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemToIngredientRepository itemToIngredientRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    private final DailySalesIndex sales = new DailySalesIndex();
+
+    // Whether the daily sales hold the full history; until then reports count the whole range from the orders
+    private volatile boolean loaded;
+
+    private final double threshold;
+
+    /**
+     * Constructs a new {@code ExcessItemsServiceImpl}.
+     *
+     * @param threshold The restock ratio below which an item is in excess.
+     */
+    public ExcessItemsServiceImpl(@Value("${reports.excess.threshold:0.10}") double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Loads the daily sales once every bean exists but before the web server accepts orders, so no order
+     * can be both loaded and applied as an event.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.query(LOAD, rs -> {
+                sales.add(rs.getDate(1).toLocalDate(), rs.getInt(2), rs.getLong(3));
+            });
+            loaded = true;
+        } catch (DataAccessException e) {
+            sales.clear();
+            log.warn("Could not load daily sales, /excessItems will count orders directly", e);
+        }
+    }
+
+    /**
+     * Applies a committed order change to the daily sales: the previous contents are removed from their day
+     * and the new contents added to theirs.
+     *
+     * @param event The order change to apply.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        apply(event.getBefore(), -1);
+        apply(event.getAfter(), 1);
+    }
+
+    private void apply(OrderState state, int sign) {
+        if (state == null || state.getTime() == null) {
+            return;
+        }
+        LocalDate day = state.getTime().toLocalDate();
+        state.getItems().forEach((itemId, quantity) -> sales.add(day, itemId, (long) sign * quantity));
+    }
+
+    /**
+     * Retrieves the excess items for a time range.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return List of excess items ordered by ascending restock ratio, then by ID.
+     */
+    public List<Item> excessItems(LocalDateTime startDate, LocalDateTime endDate) {
+        return ExcessInventory.select(itemRepository.findAll(), itemToIngredientRepository.findAll(),
+                ingredientRepository.findAll(), soldBetween(startDate, endDate), threshold);
+    }
+
+    /**
+     * Sums the quantity sold of each item within a time range, inclusive of both ends.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return The quantities sold keyed by item ID.
+     */
+    private Map<Integer, Long> soldBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate firstDay = startDate.toLocalDate();
+        if (firstDay.atStartOfDay().isBefore(startDate)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDate lastDay = endDate.toLocalDate();
+        if (!loaded || !firstDay.isBefore(lastDay)) {
+            return merge(new HashMap<>(), itemRepository.findItemQuantities(startDate, endDate));
+        }
+
+        Map<Integer, Long> sold = sales.sum(firstDay, lastDay);
+        if (startDate.isBefore(firstDay.atStartOfDay())) {
+            merge(sold, itemRepository.findItemQuantitiesBefore(startDate, firstDay.atStartOfDay()));
+        }
+        return merge(sold, itemRepository.findItemQuantities(lastDay.atStartOfDay(), endDate));
+    }
+
+    private static Map<Integer, Long> merge(Map<Integer, Long> sold, List<ItemQuantity> rows) {
+        for (ItemQuantity row : rows) {
+            sold.merge(row.getItemId(), row.getQuantity(), Long::sum);
+        }
+        return sold;
+    }
+}
@@ -0,0 +1,37 @@
+package com.project3.backend.service;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.reports.IngredientUsageReport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The {@code IngredientLedgerService} interface maintains the daily per-ingredient consumption ledger and
+ * answers the ingredient usage report from it.
+ */
+public interface IngredientLedgerService {
+
+    /**
+     * Applies the difference between the previous and the new state of an order to the ledger.
+     *
+     * @param event The order change to apply.
+     */
+    void onOrderChanged(OrderChangedEvent event);
+
+    /**
+     * Brings the whole ledger back in line with the order history while orders keep being written.
+     *
+     * @return The number of ledger rows corrected.
+     */
+    int rebuild();
+
+    /**
+     * Generates the ingredient usage report for a time range from the ledger plus the partial days at its edges.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return List of IngredientUsageReport objects ordered by ingredient name.
+     */
+    List<IngredientUsageReport> ingredientUsage(LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,195 @@
+package com.project3.backend.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.reports.IngredientUsageReport;
+import com.project3.backend.reports.IngredientUsageReportEntry;
+import com.project3.backend.repository.IngredientRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service implementation that keeps the {@code ingredient_usage_daily} ledger, holding the amount of every
+ * ingredient used per day, up to date with the order write path. Like the usage query it replaces, each line
+ * item uses its item's recipe quantity of every ingredient. The ledger is updated inside the transaction that
+ * writes the order, so the usage report only has to explode the orders of its partial boundary days. The
+ * orders written before the ledger existed are backfilled by the V8 migration.
+ * <p>
+ * Amounts are taken from the recipe at the time the order is written. When a recipe changes afterwards, the
+ * ledger keeps the old consumption while the live query would use the new recipe; a rebuild re-derives the
+ * ledger from the current recipes.
+ */
+@Service
+public class IngredientLedgerServiceImpl implements IngredientLedgerService {
+
+    /**
+     * Adds the recipes of a set of items, each multiplied by its line item count delta, to the ledger rows of
+     * one day. The rows are written in ingredient order, so concurrent orders lock them in the same order and
+     * cannot deadlock.
+     */
+    private static final String UPSERT =
+            "INSERT INTO ingredient_usage_daily (ingredient_id, day, amount_used) " +
+            "SELECT iti.ingredient_id, ?, SUM(iti.quantity * d.delta) " +
+            "FROM unnest(?, ?) AS d(item_id, delta) " +
+            "JOIN item_to_ingredient iti ON iti.item_id = d.item_id " +
+            "GROUP BY iti.ingredient_id " +
+            "ORDER BY iti.ingredient_id " +
+            "ON CONFLICT (ingredient_id, day) DO UPDATE SET " +
+            "amount_used = ingredient_usage_daily.amount_used + EXCLUDED.amount_used";
+
+    /**
+     * Adds to every drifted row of the ledger the difference between the order history, exploded with the
+     * current recipes, and the ledger, both read from the statement's snapshot. Orders committed after the
+     * snapshot have already added their own deltas to the rows, or add them after the correction, so they are
+     * neither lost nor counted twice. Only the drifted rows are locked, in (day, ingredient) order like the
+     * write path, so writers cannot deadlock with the rebuild and wait only for the rows it corrects.
+     */
+    private static final String CORRECT =
+            "INSERT INTO ingredient_usage_daily (ingredient_id, day, amount_used) " +
+            "SELECT COALESCE(h.ingredient_id, l.ingredient_id), COALESCE(h.day, l.day), " +
+            "COALESCE(h.amount_used, 0) - COALESCE(l.amount_used, 0) " +
+            "FROM (SELECT iti.ingredient_id, CAST(ito.order_time AS date) AS day, SUM(iti.quantity) AS amount_used " +
+            "FROM item_to_order ito " +
+            "JOIN item_to_ingredient iti ON iti.item_id = ito.item_id " +
+            "GROUP BY iti.ingredient_id, CAST(ito.order_time AS date)) h " +
+            "FULL JOIN ingredient_usage_daily l ON l.ingredient_id = h.ingredient_id AND l.day = h.day " +
+            "WHERE h.amount_used IS DISTINCT FROM l.amount_used " +
+            "ORDER BY 2, 1 " +
+            "ON CONFLICT (ingredient_id, day) DO UPDATE SET " +
+            "amount_used = ingredient_usage_daily.amount_used + EXCLUDED.amount_used";
+
+    /**
+     * Removes the rows every order was removed from, skipping those a writer is changing.
+     */
+    private static final String REMOVE_EMPTY =
+            "DELETE FROM ingredient_usage_daily WHERE (ingredient_id, day) IN (" +
+            "SELECT ingredient_id, day FROM ingredient_usage_daily WHERE amount_used = 0 " +
+            "ORDER BY day, ingredient_id FOR UPDATE SKIP LOCKED)";
+
+    /**
+     * Transaction-scoped advisory lock key serializing rebuilds, which would otherwise apply the same
+     * correction twice.
+     */
+    private static final long REBUILD_LOCK = 0x6c6564676572L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    /**
+     * Applies an order change to the ledger. The line items of the previous contents are subtracted from their
+     * day and those of the new contents added to theirs; items whose count cancels out are not written.
+     * Days are written in order, one statement each.
+     *
+     * @param event The order change to apply.
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        // day -> item id -> line item count delta
+        Map<LocalDate, Map<Integer, Integer>> deltas = new TreeMap<>();
+        accumulate(deltas, event.getBefore(), -1);
+        accumulate(deltas, event.getAfter(), 1);
+
+        deltas.forEach((day, items) -> {
+            items.values().removeIf(delta -> delta == 0);
+            if (items.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.update(UPSERT, ps -> {
+                ps.setDate(1, Date.valueOf(day));
+                ps.setArray(2, ps.getConnection().createArrayOf("integer", items.keySet().toArray()));
+                ps.setArray(3, ps.getConnection().createArrayOf("integer", items.values().toArray()));
+            });
+        });
+    }
+
+    /**
+     * Adds the line items of one order state, with the given sign, to the per-day deltas.
+     *
+     * @param deltas The deltas being accumulated.
+     * @param state  The order state, or {@code null} if there is none.
+     * @param sign   {@code 1} to add the state, {@code -1} to remove it.
+     */
+    private static void accumulate(Map<LocalDate, Map<Integer, Integer>> deltas, OrderState state, int sign) {
+        if (state == null || state.getTime() == null) {
+            return;
+        }
+        Map<Integer, Integer> day = deltas.computeIfAbsent(state.getTime().toLocalDate(), d -> new HashMap<>());
+        state.getItems().keySet().forEach(itemId -> day.merge(itemId, sign, Integer::sum));
+    }
+
+    /**
+     * Rebuilds the ledger from the order history without blocking the write path: rather than replacing the
+     * table, it corrects the rows that drifted from the history, such as those written before a recipe
+     * changed. Orders keep being written during the rebuild; one touching a row being corrected waits until
+     * the rebuild commits. Rebuilds run one at a time.
+     *
+     * @return The number of ledger rows corrected.
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", REBUILD_LOCK);
+        int corrected = jdbcTemplate.update(CORRECT);
+        jdbcTemplate.update(REMOVE_EMPTY);
+        return corrected;
+    }
+
+    /**
+     * Generates the ingredient usage report for a time range. Whole days inside the range are read from the
+     * ledger, and only the partial days at the start and end of the range are computed from the orders themselves.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return List of IngredientUsageReport objects ordered by ingredient name.
+     */
+    public List<IngredientUsageReport> ingredientUsage(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate firstDay = startDate.toLocalDate();
+        if (firstDay.atStartOfDay().isBefore(startDate)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDate lastDay = endDate.toLocalDate();
+        if (!firstDay.isBefore(lastDay)) {
+            // Less than one whole day: the live query is already cheap
+            return ingredientRepository.findIngredientUsageBetweenDates(startDate, endDate);
+        }
+
+        Map<String, Integer> merged = new TreeMap<>();
+        merge(merged, ingredientRepository.findIngredientUsageFromLedger(firstDay, lastDay));
+        if (startDate.isBefore(firstDay.atStartOfDay())) {
+            merge(merged, ingredientRepository.findIngredientUsageBefore(startDate, firstDay.atStartOfDay()));
+        }
+        merge(merged, ingredientRepository.findIngredientUsageBetweenDates(lastDay.atStartOfDay(), endDate));
+
+        List<IngredientUsageReport> report = new ArrayList<>();
+        merged.forEach((name, amount) -> report.add(new IngredientUsageReportEntry(name, amount)));
+        return report;
+    }
+
+    /**
+     * Adds partial report rows into the merged report, summing the amounts per ingredient name.
+     *
+     * @param merged The merged amounts keyed by ingredient name.
+     * @param rows   The partial report rows.
+     */
+    private static void merge(Map<String, Integer> merged, List<IngredientUsageReport> rows) {
+        for (IngredientUsageReport row : rows) {
+            merged.merge(row.getIngredientName(), row.getAmountUsed(), Integer::sum);
+        }
+    }
+}
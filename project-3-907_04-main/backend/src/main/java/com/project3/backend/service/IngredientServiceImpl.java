@@ -23,6 +23,12 @@ public class IngredientServiceImpl implements IngredientService {
     @Autowired
     private IngredientRepository ingredientRepository;
 
+    @Autowired
+    private IngredientLedgerService ingredientLedgerService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
     /**
      * Retrieves all ingredients.
      *
@@ -45,11 +51,15 @@ public class IngredientServiceImpl implements IngredientService {
     /**
      * Saves a new ingredient or updates an existing one.
      *
+     * The inventory engine re-reads stock right away, so low-stock alerts follow manual edits immediately.
+     *
      * @param ingredient The ingredient to be saved.
      * @return The saved ingredient.
      */
     public Ingredient saveIngredient(Ingredient ingredient) {
-        return ingredientRepository.save(ingredient);
+        Ingredient saved = ingredientRepository.save(ingredient);
+        inventoryService.flush();
+        return saved;
     }
 
     /**
@@ -59,6 +69,7 @@ public class IngredientServiceImpl implements IngredientService {
      */
     public void deleteIngredient(int id) {
         ingredientRepository.deleteById(id);
+        inventoryService.flush();
     }
 
     /**
@@ -72,14 +83,14 @@ public class IngredientServiceImpl implements IngredientService {
     }
 
     /**
-     * Retrieves a list of ingredient usage reports between specified dates.
+     * Retrieves a list of ingredient usage reports between specified dates, read from the daily ingredient ledger.
      *
      * @param startDate The start date for the report.
      * @param endDate   The end date for the report.
      * @return List of ingredient usage reports between the specified dates.
      */
     public List<IngredientUsageReport> fetchIngredientUsageBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return ingredientRepository.findIngredientUsageBetweenDates(startDate, endDate);
+        return ingredientLedgerService.ingredientUsage(startDate, endDate);
     }
 
     /**
@@ -0,0 +1,39 @@
+package com.project3.backend.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.project3.backend.event.OrderChangedEvent;
+
+/**
+ * The {@code InventoryService} interface decrements ingredient stock as orders are placed, and writes the
+ * coalesced decrements to the {@code ingredient} table in the background.
+ */
+public interface InventoryService {
+
+    /**
+     * Consumes the ingredients of the new state of an order and returns those of its previous state.
+     *
+     * @param event The order change to apply.
+     */
+    void onOrderChanged(OrderChangedEvent event);
+
+    /**
+     * Forgets the cached recipes of the given items, so the next order containing them reloads them.
+     *
+     * @param itemIds The IDs of the items whose recipe changed.
+     */
+    void invalidateRecipes(Collection<Integer> itemIds);
+
+    /**
+     * Writes all pending stock decrements to the database and re-reads the stored stock.
+     */
+    void flush();
+
+    /**
+     * Returns the oversell statistics of the inventory engine.
+     *
+     * @return A map holding the oversell count and the currently oversold ingredients.
+     */
+    Map<String, Object> getStatus();
+}
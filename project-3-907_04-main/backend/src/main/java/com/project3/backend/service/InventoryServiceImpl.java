@@ -0,0 +1,232 @@
+package com.project3.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.entity.Ingredient;
+import com.project3.backend.entity.ItemToIngredient;
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.inventory.StockCounters;
+import com.project3.backend.repository.IngredientRepository;
+import com.project3.backend.repository.ItemToIngredientRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service implementation of the real-time inventory engine. Every committed order consumes, per line item,
+ * the ordered quantity times the recipe quantity of each ingredient; edits and deletions return the stock of
+ * the previous contents. Consumption is recorded in {@link StockCounters} without touching the database, and
+ * the coalesced deltas are written as relative {@code UPDATE}s every few seconds and on shutdown, so manual
+ * stock edits made in between are preserved. Every stock change is also handed to the low-stock alerts.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    private static final String DECREMENT = "UPDATE ingredient SET stock = stock - ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemToIngredientRepository itemToIngredientRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    private final StockCounters counters = new StockCounters();
+
+    // Item ID -> recipe rows, loaded on first use
+    private final ConcurrentHashMap<Integer, List<ItemToIngredient>> recipes = new ConcurrentHashMap<>();
+
+    // Serializes flushes and the initial load; a lock rather than a monitor, so a virtual thread holding it
+    // through the database round trips does not pin its carrier thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Applies a committed order change to the stock counters. Runs after commit, so rolled-back orders
+     * never consume stock.
+     *
+     * @param event The order change to apply.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        Map<Integer, Long> consumption = new HashMap<>();
+        accumulate(consumption, event.getBefore(), -1);
+        accumulate(consumption, event.getAfter(), 1);
+        consumption.forEach((ingredientId, amount) -> {
+            if (counters.consume(ingredientId, amount)) {
+                log.warn("Ingredient {} oversold by order {}, estimated stock {}", ingredientId,
+                        event.getOrderId(), counters.estimate(ingredientId).orElse(0));
+            }
+            counters.estimate(ingredientId).ifPresent(stock -> lowStockAlertService.stockChanged(ingredientId, stock));
+        });
+    }
+
+    /**
+     * Adds the ingredient consumption of one order state, with the given sign, to the per-ingredient totals.
+     *
+     * @param consumption The totals being accumulated.
+     * @param state       The order state, or {@code null} if there is none.
+     * @param sign        {@code 1} to consume the state, {@code -1} to return it.
+     */
+    private void accumulate(Map<Integer, Long> consumption, OrderState state, int sign) {
+        if (state == null || state.getItems().isEmpty()) {
+            return;
+        }
+        Map<Integer, List<ItemToIngredient>> recipesByItem = recipesOf(state.getItems().keySet());
+        state.getItems().forEach((itemId, quantity) -> {
+            for (ItemToIngredient row : recipesByItem.getOrDefault(itemId, List.of())) {
+                consumption.merge(row.getIngredientId(), (long) sign * quantity * row.getQuantity(), Long::sum);
+            }
+        });
+    }
+
+    /**
+     * Returns the recipes of the given items, loading the uncached ones with one query.
+     *
+     * @param itemIds The IDs of the items.
+     * @return The recipe rows keyed by item ID.
+     */
+    private Map<Integer, List<ItemToIngredient>> recipesOf(Set<Integer> itemIds) {
+        Map<Integer, List<ItemToIngredient>> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer itemId : itemIds) {
+            List<ItemToIngredient> recipe = recipes.get(itemId);
+            if (recipe == null) {
+                missing.add(itemId);
+            } else {
+                result.put(itemId, recipe);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Integer, List<ItemToIngredient>> loaded = new HashMap<>();
+            missing.forEach(itemId -> loaded.put(itemId, new ArrayList<>()));
+            for (ItemToIngredient row : itemToIngredientRepository.findByItemIdIn(missing)) {
+                loaded.get(row.getItemId()).add(row);
+            }
+            loaded.forEach((itemId, recipe) -> {
+                recipes.put(itemId, List.copyOf(recipe));
+                result.put(itemId, recipe);
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Forgets the cached recipes of the given items once the current transaction commits.
+     *
+     * @param itemIds The IDs of the items whose recipe changed.
+     */
+    public void invalidateRecipes(Collection<Integer> itemIds) {
+        List<Integer> ids = List.copyOf(itemIds);
+        recipes.keySet().removeAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Also drop recipes reloaded from the old rows before the change became visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recipes.keySet().removeAll(ids);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the stored stock once the application is up, enabling oversell detection.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        flushLock.lock();
+        try {
+            rebase();
+        } catch (DataAccessException e) {
+            log.warn("Could not read ingredient stock, oversell detection starts after the first flush", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending decrements of every ingredient in one transaction, then re-reads the stored stock so
+     * the estimates also reflect manual edits. If the write fails the decrements stay pending and are retried
+     * on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        StockCounters.Drain drain = counters.drain();
+        try {
+            if (drain.size() > 0) {
+                List<Object[]> rows = new ArrayList<>(drain.size());
+                for (int i = 0; i < drain.size(); i++) {
+                    rows.add(new Object[] {drain.getDelta(i), drain.getIngredientId(i)});
+                }
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DECREMENT, rows));
+                counters.commit(drain);
+            }
+            rebase();
+        } catch (DataAccessException e) {
+            log.warn("Could not write stock decrements of {} ingredients, retrying on next flush", drain.size(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads the stored stock of every ingredient and hands the resulting estimates to the low-stock alerts.
+     */
+    private void rebase() {
+        List<Ingredient> ingredients = (List<Ingredient>) ingredientRepository.findAll();
+        Map<Integer, Integer> stock = new HashMap<>();
+        for (Ingredient ingredient : ingredients) {
+            stock.put(ingredient.getId(), ingredient.getStock());
+        }
+        counters.rebase(stock);
+        for (Ingredient ingredient : ingredients) {
+            // Detached copies: report the estimate including consumption not written yet
+            ingredient.setStock((int) counters.estimate(ingredient.getId()).orElse(ingredient.getStock()));
+        }
+        lowStockAlertService.refresh(ingredients);
+    }
+
+    /**
+     * Returns the oversell statistics of the inventory engine.
+     *
+     * @return A map holding the oversell count and the currently oversold ingredients.
+     */
+    public Map<String, Object> getStatus() {
+        return Map.of(
+                "oversellCount", counters.getOversellCount(),
+                "oversold", counters.getOversold());
+    }
+}
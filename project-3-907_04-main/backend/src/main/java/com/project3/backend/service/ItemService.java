@@ -28,6 +28,14 @@ public interface ItemService {
      */
     Item saveItem(Item item);
 
+    /**
+     * Saves many new or existing menu items, and their recipes, in a single transaction.
+     *
+     * @param items The Item objects to be saved or updated.
+     * @return The saved or updated Item objects, in the same order as given.
+     */
+    List<Item> saveItems(List<Item> items);
+
     /**
      * Deletes a menu item by its ID.
      *
@@ -66,7 +74,8 @@ public interface ItemService {
      *
      * @param startDate The start date of the period to analyze item ordering patterns.
      * @param endDate   The end date of the period to analyze item ordering patterns.
+     * @param limit     The maximum number of pairs to return, or {@code null} for all of them.
      * @return List of OrderedTogetherReport objects representing items ordered together frequently.
      */
-    List<OrderedTogetherReport> fetchItemsOrderedTogether(LocalDateTime startDate, LocalDateTime endDate);
+    List<OrderedTogetherReport> fetchItemsOrderedTogether(LocalDateTime startDate, LocalDateTime endDate, Integer limit);
 }
\ No newline at end of file
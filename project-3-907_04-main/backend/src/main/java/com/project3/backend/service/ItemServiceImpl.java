@@ -13,8 +13,13 @@ import com.project3.backend.repository.ItemToIngredientRepository;
 
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 import java.time.LocalDateTime;
 
 
@@ -31,6 +36,21 @@ public class ItemServiceImpl implements ItemService {
     @Autowired
     private ItemToIngredientRepository itemToIngredientRepository;
 
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private CoOccurrenceService coOccurrenceService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ExcessItemsService excessItemsService;
+
     /**
      * Retrieves a list of all menu items in the system.
      *
@@ -41,40 +61,87 @@ public class ItemServiceImpl implements ItemService {
     }
 
     /**
-     * Saves a new item to the system or updates an existing one.
+     * Saves a new item to the system or updates an existing one, together with its recipe.
      *
      * @param item The Item object to be saved or updated.
      * @return The saved or updated Item object.
      */
+    @Transactional
     public Item saveItem(Item item) {
-        Item savedItem = itemRepository.save(item);
-
-        // Process and save item ingredients
-        if (item.getIngredients() != null) {
-            List<ItemToIngredient> itemsToIngredient = item.getIngredients().entrySet().stream()
-                .map(entry -> {
-                    ItemToIngredient itemToIngredient = itemToIngredientRepository.findByItemIdAndIngredientId(savedItem.getId(), entry.getKey());
-                    if (itemToIngredient == null) {
-                        itemToIngredient = new ItemToIngredient();
-                    }
-                    itemToIngredient.setItemId(savedItem.getId());
+        return saveItems(List.of(item)).get(0);
+    }
+
+    /**
+     * Saves many items and their recipes in one transaction. The stored recipe rows of all existing
+     * items are loaded with one query and diffed against the submitted ingredients: changed quantities
+     * are updated, new ingredients inserted and removed ingredients deleted, each as a single statement
+     * or JDBC batch. Items whose ingredient map is {@code null} keep their current recipe, and an item
+     * submitted more than once in the batch gets the last recipe submitted for it.
+     *
+     * @param items The Item objects to be saved or updated.
+     * @return The saved or updated Item objects.
+     */
+    @Transactional
+    public List<Item> saveItems(List<Item> items) {
+        Set<Integer> existingItemIds = new HashSet<>();
+        for (Item item : items) {
+            if (item.getId() != 0 && item.getIngredients() != null) {
+                existingItemIds.add(item.getId());
+            }
+        }
+        List<Item> savedItems = (List<Item>) itemRepository.saveAll(items);
+
+        // item id -> (ingredient id -> stored row)
+        Map<Integer, Map<Integer, ItemToIngredient>> storedRecipes = new HashMap<>();
+        if (!existingItemIds.isEmpty()) {
+            for (ItemToIngredient row : itemToIngredientRepository.findByItemIdIn(existingItemIds)) {
+                storedRecipes.computeIfAbsent(row.getItemId(), id -> new HashMap<>()).put(row.getIngredientId(), row);
+            }
+        }
+
+        // item id -> submitted recipe; an item submitted more than once is diffed once, with its last recipe
+        Map<Integer, Map<Integer, Integer>> recipes = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Map<Integer, Integer> ingredients = items.get(i).getIngredients();
+            if (ingredients != null) {
+                recipes.put(savedItems.get(i).getId(), ingredients);
+            }
+        }
+
+        List<Integer> staleIds = new ArrayList<>();
+        List<ItemToIngredient> inserts = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> recipe : recipes.entrySet()) {
+            int itemId = recipe.getKey();
+            Map<Integer, Integer> ingredients = recipe.getValue();
+            Map<Integer, ItemToIngredient> stored = storedRecipes.getOrDefault(itemId, Map.of());
+            for (ItemToIngredient row : stored.values()) {
+                Integer quantity = ingredients.get(row.getIngredientId());
+                if (quantity == null) {
+                    staleIds.add(row.getId());
+                } else if (quantity != row.getQuantity()) {
+                    // Managed entity: the change is flushed as part of one UPDATE batch
+                    row.setQuantity(quantity);
+                }
+            }
+            for (Map.Entry<Integer, Integer> entry : ingredients.entrySet()) {
+                if (!stored.containsKey(entry.getKey())) {
+                    ItemToIngredient itemToIngredient = new ItemToIngredient();
+                    itemToIngredient.setItemId(itemId);
                     itemToIngredient.setIngredientId(entry.getKey());
                     itemToIngredient.setQuantity(entry.getValue());
-                    return itemToIngredient;
-                })
-                .collect(Collectors.toList());
-
-            // Delete ingredients not present in the updated item
-            List<ItemToIngredient> existingItemToIngredients = itemToIngredientRepository.findByItemId(savedItem.getId()).stream()
-                .filter(itemToIngredient -> !item.getIngredients().containsKey(itemToIngredient.getIngredientId()))
-                .collect(Collectors.toList());
-            itemToIngredientRepository.deleteAll(existingItemToIngredients);
-
-            // Save the updated item ingredients
-            itemToIngredientRepository.saveAll(itemsToIngredient);
+                    inserts.add(itemToIngredient);
+                }
+            }
+        }
+        if (!staleIds.isEmpty()) {
+            itemToIngredientRepository.deleteAllByIdIn(staleIds);
         }
+        itemToIngredientRepository.saveAll(inserts);
 
-        return savedItem;
+        List<Integer> savedItemIds = savedItems.stream().map(Item::getId).distinct().toList();
+        menuSnapshotService.invalidate(savedItemIds);
+        inventoryService.invalidateRecipes(savedItemIds);
+        return savedItems;
     }
 
     /**
@@ -86,6 +153,8 @@ public class ItemServiceImpl implements ItemService {
     public void deleteItem(int id) {
         itemToIngredientRepository.deleteByItemId(id);
         itemRepository.deleteById(id);
+        menuSnapshotService.invalidate(List.of(id));
+        inventoryService.invalidateRecipes(List.of(id));
     }
 
     /**
@@ -100,13 +169,14 @@ public class ItemServiceImpl implements ItemService {
 
     /**
      * Generates a sales report for items within a specified date range.
+     * The report is answered from the hourly sales rollup plus the partial hours at the edges of the range.
      *
      * @param startDate The start date of the report.
      * @param endDate   The end date of the report.
      * @return List of SalesReport objects representing sales data.
      */
     public List<SalesReport> salesReport(LocalDateTime startDate, LocalDateTime endDate) {
-        return itemRepository.findItemsWithOrderCount(startDate, endDate);
+        return salesRollupService.salesReport(startDate, endDate);
     }
 
     /**
@@ -117,7 +187,7 @@ public class ItemServiceImpl implements ItemService {
      * @return List of Item objects with excess quantities.
      */
     public List<Item> excessItems(LocalDateTime startDate, LocalDateTime endDate) {
-        return itemRepository.findExcessItems(startDate, endDate);
+        return excessItemsService.excessItems(startDate, endDate);
     }
 
     /**
@@ -125,9 +195,10 @@ public class ItemServiceImpl implements ItemService {
      *
      * @param startDate The start date of the range.
      * @param endDate   The end date of the range.
+     * @param limit     The maximum number of pairs to return, or {@code null} for all of them.
      * @return List of OrderedTogetherReport objects representing items ordered together.
      */
-    public List<OrderedTogetherReport> fetchItemsOrderedTogether(LocalDateTime startDate, LocalDateTime endDate) {
-        return itemRepository.findItemsOrderedTogether(startDate, endDate);
+    public List<OrderedTogetherReport> fetchItemsOrderedTogether(LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        return coOccurrenceService.orderedTogether(startDate, endDate, limit);
     }
 }
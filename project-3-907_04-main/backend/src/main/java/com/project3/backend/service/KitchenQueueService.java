@@ -0,0 +1,41 @@
+package com.project3.backend.service;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+
+/**
+ * The {@code KitchenQueueService} interface keeps the open orders, the ones not in a terminal status yet,
+ * in memory with their line items, and pushes their changes to kitchen and server screens.
+ */
+public interface KitchenQueueService {
+
+    /**
+     * Applies a committed order change to the open orders, pushing it to the subscribed screens.
+     *
+     * @param event The order change to apply.
+     */
+    void onOrderChanged(OrderChangedEvent event);
+
+    /**
+     * Returns the open orders, oldest first.
+     *
+     * @param statuses The statuses to include, or {@code null} for every open status.
+     * @return The open orders with their line items.
+     */
+    List<OrderState> fetchOpenOrders(Set<String> statuses);
+
+    /**
+     * Opens a stream of the open orders. The matching open orders are sent first as a {@code snapshot} event,
+     * followed by an {@code upsert} event each time a matching order is created or changed and a
+     * {@code remove} event each time an order is closed, deleted or leaves the requested statuses.
+     *
+     * @param statuses The statuses to follow, or {@code null} for every open status.
+     * @return The emitter of the stream.
+     */
+    SseEmitter subscribe(Set<String> statuses);
+}
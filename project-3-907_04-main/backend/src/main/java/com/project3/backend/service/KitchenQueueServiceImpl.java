@@ -0,0 +1,305 @@
+package com.project3.backend.service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service implementation of the kitchen queue. The open orders of the last {@code kitchen.max-age-hours}, those
+ * whose status is set and not one of {@code kitchen.terminal-statuses}, are indexed in memory by status with
+ * their line items. The index is loaded from the database at startup and then follows the committed order
+ * changes of the write path, so a kitchen screen costs the number of open orders rather than the order history.
+ * <p>
+ * Screens subscribe to a stream that starts with a snapshot of the open orders and then receives one event per
+ * change. Events are sent from a single background thread, in the order the changes were applied, so slow
+ * clients never hold up orders.
+ */
+@Service
+public class KitchenQueueServiceImpl implements KitchenQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenQueueServiceImpl.class);
+
+    /**
+     * Oldest first, the order the kitchen works in.
+     */
+    private static final Comparator<OrderState> QUEUE_ORDER = Comparator
+            .comparing(OrderState::getTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(OrderState::getId);
+
+    /**
+     * An open stream and the statuses it follows, or {@code null} for all of them.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> statuses;
+
+        private Subscriber(SseEmitter emitter, Set<String> statuses) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+        }
+
+        private boolean follows(OrderState order) {
+            return order != null && (statuses == null || statuses.contains(order.getStatus()));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The open orders by ID, and by status in queue order; guarded by this
+    private final Map<Integer, OrderState> open = new HashMap<>();
+    private final Map<String, TreeSet<OrderState>> byStatus = new HashMap<>();
+
+    // While the index is loading, the orders changed meanwhile, whose loaded state may be stale; guarded by this
+    private boolean loading = true;
+    private final Set<Integer> changedWhileLoading = new HashSet<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kitchen-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<String> terminalStatuses;
+
+    private final long maxAgeHours;
+
+    private final long streamTimeoutMs;
+
+    /**
+     * Constructs a new {@code KitchenQueueServiceImpl}.
+     *
+     * @param terminalStatuses The statuses of closed orders, compared ignoring case.
+     * @param maxAgeHours      The age after which an order is no longer considered open, whatever its status.
+     * @param streamTimeoutMs  The time after which a stream is closed, letting the client reconnect.
+     */
+    public KitchenQueueServiceImpl(@Value("${kitchen.terminal-statuses:completed,cancelled}") String[] terminalStatuses,
+                                   @Value("${kitchen.max-age-hours:24}") long maxAgeHours,
+                                   @Value("${kitchen.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+        this.terminalStatuses = Arrays.stream(terminalStatuses).map(String::trim).map(String::toLowerCase).collect(Collectors.toSet());
+        this.maxAgeHours = maxAgeHours;
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    /**
+     * Loads the open orders and their line items from the database. Orders changed while the query runs keep
+     * the state their change left them in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Integer, OrderState> loaded = new LinkedHashMap<>();
+        try {
+            Map<Integer, Map<Integer, Integer>> items = new HashMap<>();
+            jdbcTemplate.query("SELECT o.id, o.price, o.time, o.user_id, o.status, ito.item_id, ito.quantity "
+                            + "FROM \"order\" o LEFT JOIN item_to_order ito ON ito.order_id = o.id AND ito.order_time = o.time "
+                            + "WHERE o.time >= ? AND o.status IS NOT NULL AND NOT (lower(o.status) = ANY(?))",
+                    ps -> {
+                        ps.setTimestamp(1, Timestamp.valueOf(cutoff()));
+                        ps.setArray(2, ps.getConnection().createArrayOf("varchar", terminalStatuses.toArray()));
+                    },
+                    rs -> {
+                        int id = rs.getInt("id");
+                        if (!loaded.containsKey(id)) {
+                            loaded.put(id, new OrderState(id, rs.getDouble("price"), rs.getTimestamp("time").toLocalDateTime(),
+                                    rs.getInt("user_id"), rs.getString("status"), null));
+                        }
+                        int itemId = rs.getInt("item_id");
+                        if (!rs.wasNull()) {
+                            items.computeIfAbsent(id, key -> new HashMap<>()).merge(itemId, rs.getInt("quantity"), Integer::sum);
+                        }
+                    });
+            // Line items are only known once every row is read, and the state is immutable
+            loaded.replaceAll((id, order) -> new OrderState(id, order.getPrice(), order.getTime(), order.getUserId(),
+                    order.getStatus(), items.get(id)));
+        } catch (DataAccessException e) {
+            log.warn("Could not load the open orders; the kitchen queue only shows orders changed from now on", e);
+        }
+
+        synchronized (this) {
+            loaded.forEach((id, order) -> {
+                if (!changedWhileLoading.contains(id)) {
+                    index(order);
+                }
+            });
+            loading = false;
+            changedWhileLoading.clear();
+            List<OrderState> snapshot = new ArrayList<>(open.values());
+            sender.execute(() -> {
+                for (OrderState order : snapshot) {
+                    for (Subscriber subscriber : subscribers) {
+                        if (subscriber.follows(order)) {
+                            send(subscriber, SseEmitter.event().name("upsert").data(order, MediaType.APPLICATION_JSON));
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderChanged(OrderChangedEvent event) {
+        OrderState after = event.getAfter();
+        int id = after != null ? after.getId() : event.getBefore().getId();
+        if (loading) {
+            changedWhileLoading.add(id);
+        }
+        OrderState previous = unindex(id);
+        OrderState current = after != null && isOpen(after) ? after : null;
+        if (current != null) {
+            index(current);
+        }
+        if (previous != null || current != null) {
+            publish(id, previous, current);
+        }
+    }
+
+    @Override
+    public synchronized List<OrderState> fetchOpenOrders(Set<String> statuses) {
+        List<OrderState> orders = new ArrayList<>();
+        if (statuses == null) {
+            byStatus.values().forEach(orders::addAll);
+        } else {
+            for (String status : statuses) {
+                orders.addAll(byStatus.getOrDefault(status, new TreeSet<>()));
+            }
+        }
+        orders.sort(QUEUE_ORDER);
+        return orders;
+    }
+
+    @Override
+    public SseEmitter subscribe(Set<String> statuses) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, statuses);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (this) {
+            // Queued before any later change, so the client never sees a change older than its snapshot
+            List<OrderState> snapshot = fetchOpenOrders(statuses);
+            subscribers.add(subscriber);
+            sender.execute(() -> send(subscriber, SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON)));
+        }
+        return emitter;
+    }
+
+    /**
+     * Drops the orders that grew older than the maximum age without being closed.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.prune-interval-ms:600000}")
+    public synchronized void prune() {
+        LocalDateTime cutoff = cutoff();
+        List<OrderState> stale = open.values().stream()
+                .filter(order -> order.getTime() == null || order.getTime().isBefore(cutoff))
+                .toList();
+        for (OrderState order : stale) {
+            unindex(order.getId());
+            publish(order.getId(), order, null);
+        }
+    }
+
+    private boolean isOpen(OrderState order) {
+        return order.getStatus() != null
+                && !terminalStatuses.contains(order.getStatus().toLowerCase())
+                && order.getTime() != null
+                && !order.getTime().isBefore(cutoff());
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusHours(maxAgeHours);
+    }
+
+    private void index(OrderState order) {
+        open.put(order.getId(), order);
+        byStatus.computeIfAbsent(order.getStatus(), status -> new TreeSet<>(QUEUE_ORDER)).add(order);
+    }
+
+    private OrderState unindex(int id) {
+        OrderState previous = open.remove(id);
+        if (previous != null) {
+            TreeSet<OrderState> orders = byStatus.get(previous.getStatus());
+            orders.remove(previous);
+            if (orders.isEmpty()) {
+                byStatus.remove(previous.getStatus());
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Queues the events of one change: an upsert for the streams following the order's new status, and a
+     * remove for those that followed its previous status but not the new one.
+     *
+     * @param id       The ID of the order.
+     * @param previous The order as it was open before the change, or null if it was not open.
+     * @param current  The order as it is open after the change, or null if it is not open anymore.
+     */
+    private void publish(int id, OrderState previous, OrderState current) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.follows(current)) {
+                    send(subscriber, SseEmitter.event().name("upsert").data(current, MediaType.APPLICATION_JSON));
+                } else if (subscriber.follows(previous)) {
+                    send(subscriber, SseEmitter.event().name("remove").data(Map.of("id", id), MediaType.APPLICATION_JSON));
+                }
+            }
+        });
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * Closes every open stream and stops the sender thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,45 @@
+package com.project3.backend.service;
+
+import java.util.List;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project3.backend.dto.StockAlert;
+import com.project3.backend.entity.Ingredient;
+
+/**
+ * The {@code LowStockAlertService} interface maintains the set of ingredients below their restock level
+ * and pushes threshold crossings to subscribed dashboards.
+ */
+public interface LowStockAlertService {
+
+    /**
+     * Opens an alert stream. The current low-stock ingredients are sent first as a {@code snapshot} event,
+     * followed by one {@code alert} event per threshold crossing.
+     *
+     * @return The emitter of the stream.
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Replaces the known ingredients, restock levels and stock, emitting an alert for every crossing.
+     *
+     * @param ingredients Every ingredient, with its estimated current stock.
+     */
+    void refresh(List<Ingredient> ingredients);
+
+    /**
+     * Records a new estimated stock for one ingredient, emitting an alert if it crosses the restock level.
+     *
+     * @param ingredientId The ID of the ingredient.
+     * @param stock        The estimated current stock.
+     */
+    void stockChanged(int ingredientId, long stock);
+
+    /**
+     * Returns the ingredients currently below their restock level.
+     *
+     * @return The low-stock ingredients.
+     */
+    List<StockAlert> fetchLowStock();
+}
@@ -0,0 +1,186 @@
+package com.project3.backend.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project3.backend.dto.StockAlert;
+import com.project3.backend.entity.Ingredient;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service implementation of the low-stock alert stream. The stock level of every ingredient is kept in memory
+ * and updated by the inventory engine, and an event is pushed only when an ingredient crosses its restock
+ * level, so open dashboards cost nothing while stock stays on the same side of it. Updates that cross nothing
+ * are lock-free; events are sent from a single background thread so slow clients never hold up orders.
+ */
+@Service
+public class LowStockAlertServiceImpl implements LowStockAlertService {
+
+    /**
+     * The stock level of one ingredient.
+     */
+    private static final class Level {
+        private final String name;
+        private final int restock;
+        private volatile long stock;
+        private volatile boolean low;
+
+        private Level(String name, int restock, long stock) {
+            this.name = name;
+            this.restock = restock;
+            this.stock = stock;
+            this.low = stock < restock;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Level> levels = new ConcurrentHashMap<>();
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long streamTimeoutMs;
+
+    /**
+     * Constructs a new {@code LowStockAlertServiceImpl}.
+     *
+     * @param streamTimeoutMs The time after which an alert stream is closed, letting the client reconnect.
+     */
+    public LowStockAlertServiceImpl(@Value("${alerts.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    /**
+     * Opens an alert stream, sending the current low-stock ingredients first.
+     *
+     * @return The emitter of the stream.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        synchronized (this) {
+            // Queued before any later alert, so the client never sees an alert older than its snapshot
+            List<StockAlert> snapshot = fetchLowStock();
+            emitters.add(emitter);
+            sender.execute(() -> send(emitter, SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON)));
+        }
+        return emitter;
+    }
+
+    /**
+     * Replaces the known ingredients with the given ones, emitting an alert for every crossing and dropping
+     * ingredients that no longer exist.
+     *
+     * @param ingredients Every ingredient, with its estimated current stock.
+     */
+    public synchronized void refresh(List<Ingredient> ingredients) {
+        Set<Integer> ids = new HashSet<>();
+        for (Ingredient ingredient : ingredients) {
+            ids.add(ingredient.getId());
+            Level previous = levels.get(ingredient.getId());
+            Level level = new Level(ingredient.getName(), ingredient.getRestock(), ingredient.getStock());
+            levels.put(ingredient.getId(), level);
+            if (previous == null ? level.low : previous.low != level.low) {
+                publish(ingredient.getId(), level);
+            }
+        }
+        levels.keySet().retainAll(ids);
+    }
+
+    /**
+     * Records a new estimated stock for one ingredient. Only a crossing takes the lock.
+     *
+     * @param ingredientId The ID of the ingredient.
+     * @param stock        The estimated current stock.
+     */
+    public void stockChanged(int ingredientId, long stock) {
+        Level level = levels.get(ingredientId);
+        if (level == null) {
+            return;
+        }
+        level.stock = stock;
+        if ((stock < level.restock) == level.low) {
+            return;
+        }
+        synchronized (this) {
+            if (levels.get(ingredientId) != level) {
+                return;
+            }
+            // Re-read after each flip: a writer that saw the old flag and skipped the lock is caught here
+            boolean low;
+            while ((low = level.stock < level.restock) != level.low) {
+                level.low = low;
+                publish(ingredientId, level);
+            }
+        }
+    }
+
+    /**
+     * Returns the ingredients currently below their restock level, ordered by name.
+     *
+     * @return The low-stock ingredients.
+     */
+    public List<StockAlert> fetchLowStock() {
+        List<StockAlert> low = new ArrayList<>();
+        levels.forEach((id, level) -> {
+            if (level.low) {
+                low.add(alert(id, level));
+            }
+        });
+        low.sort(Comparator.comparing(StockAlert::getName));
+        return low;
+    }
+
+    private void publish(int ingredientId, Level level) {
+        StockAlert alert = alert(ingredientId, level);
+        if (!emitters.isEmpty()) {
+            sender.execute(() -> {
+                for (SseEmitter emitter : emitters) {
+                    send(emitter, SseEmitter.event().name("alert").data(alert, MediaType.APPLICATION_JSON));
+                }
+            });
+        }
+    }
+
+    private static StockAlert alert(int ingredientId, Level level) {
+        return new StockAlert(level.low ? "low" : "restocked", ingredientId, level.name, level.stock, level.restock);
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter
+            emitters.remove(emitter);
+        }
+    }
+
+    /**
+     * Closes every open stream and stops the sender thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        emitters.forEach(SseEmitter::complete);
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,37 @@
+package com.project3.backend.service;
+
+import java.util.Collection;
+
+import com.project3.backend.dto.MenuChanges;
+import com.project3.backend.dto.MenuSnapshot;
+
+/**
+ * The {@code MenuSnapshotService} interface provides the versioned, pre-serialized copy of the public menu
+ * that is served to kiosks and customer screens.
+ */
+public interface MenuSnapshotService {
+
+    /**
+     * Retrieves the current menu snapshot, building it first if the menu changed since the last build.
+     *
+     * @return The current {@code MenuSnapshot}.
+     */
+    MenuSnapshot fetchSnapshot();
+
+    /**
+     * Marks the menu as changed so the next call to {@link #fetchSnapshot()} rebuilds the snapshot, and
+     * records the changed items for {@link #fetchChanges(long)}. When called inside a transaction the change
+     * takes effect once the transaction commits.
+     *
+     * @param itemIds The IDs of the items saved or deleted.
+     */
+    void invalidate(Collection<Integer> itemIds);
+
+    /**
+     * Retrieves the menu changes since a version the client holds, such as the version of the menu bundle.
+     *
+     * @param since The menu version the client holds.
+     * @return The items changed and deleted since then, or a reset if the client must download the whole menu.
+     */
+    MenuChanges fetchChanges(long since);
+}
@@ -0,0 +1,248 @@
+package com.project3.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project3.backend.dto.MenuBundle;
+import com.project3.backend.dto.MenuChanges;
+import com.project3.backend.dto.MenuSnapshot;
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.ItemCategory;
+import com.project3.backend.repository.ItemCategoryRepository;
+import com.project3.backend.repository.ItemRepository;
+
+/**
+ * Service implementation that keeps an immutable, versioned snapshot of the menu in memory.
+ * The snapshot is only rebuilt after the menu has been invalidated by a write, so repeated polls
+ * neither query the database nor run Jackson.
+ * <p>
+ * Every change also records the IDs of the items it touched in a change log, so a kiosk holding the menu at
+ * some version can fetch only what changed since. The log is compacted: it keeps the latest version at which
+ * each item changed, and when it holds more than {@code menu.changes.max-entries} items it drops the oldest
+ * versions, after which clients behind them are told to download the whole menu. Versions start from the
+ * startup time, so versions handed out before a restart are always behind the log.
+ */
+@Service
+public class MenuSnapshotServiceImpl implements MenuSnapshotService {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemCategoryRepository itemCategoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Value("${menu.changes.max-entries:10000}")
+    private int maxChanges;
+
+    /**
+     * The version of the menu data, incremented every time the menu changes.
+     */
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    // The version of the last change of each item, and the items whose last change is at each version;
+    // guarded by changeLock, which also makes a version bump and its entries one step
+    private final ReentrantLock changeLock = new ReentrantLock();
+    private final Map<Integer, Long> changedAt = new HashMap<>();
+    private final TreeMap<Long, Set<Integer>> changes = new TreeMap<>();
+
+    // The oldest version the change log can answer from; guarded by changeLock
+    private long floor = version.get();
+
+    /**
+     * The most recently built snapshot, or {@code null} before the first request.
+     */
+    private volatile MenuSnapshot snapshot;
+
+    /**
+     * Serializes rebuilds. A lock rather than a monitor, so a virtual thread waiting for the rebuild, or
+     * running its database reads, does not pin its carrier thread.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Retrieves the current menu snapshot. A snapshot whose version is behind the menu version is rebuilt;
+     * if the menu changes again while a rebuild is running, the result keeps the old version and is
+     * rebuilt again on the following call.
+     *
+     * @return The current menu snapshot.
+     */
+    public MenuSnapshot fetchSnapshot() {
+        MenuSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version.get()) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            long targetVersion = version.get();
+            if (current == null || current.getVersion() != targetVersion) {
+                current = build(targetVersion);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the menu as changed. Inside a transaction the version is bumped after commit, so a
+     * concurrent rebuild can never cache data that has not been committed yet.
+     *
+     * @param itemIds The IDs of the items saved or deleted.
+     */
+    public void invalidate(Collection<Integer> itemIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(itemIds);
+                }
+            });
+        } else {
+            record(itemIds);
+        }
+    }
+
+    /**
+     * Retrieves the items changed and deleted after the given version, up to the version of the current
+     * snapshot. The items are taken from the snapshot, so a change is sent as the item's current state, or
+     * as a deletion if it is gone.
+     *
+     * @param since The menu version the client holds.
+     * @return The changes, or a reset if the log no longer goes back to the client's version.
+     */
+    public MenuChanges fetchChanges(long since) {
+        MenuSnapshot current = fetchSnapshot();
+        long to = current.getVersion();
+        Set<Integer> ids = new TreeSet<>();
+        changeLock.lock();
+        try {
+            if (since < floor || since > to) {
+                return new MenuChanges(to, true, List.of(), List.of());
+            }
+            changes.subMap(since, false, to, true).values().forEach(ids::addAll);
+        } finally {
+            changeLock.unlock();
+        }
+        List<Item> items = new ArrayList<>();
+        List<Integer> deletedItemIds = new ArrayList<>();
+        for (int id : ids) {
+            Item item = current.getItemsById().get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                deletedItemIds.add(id);
+            }
+        }
+        return new MenuChanges(to, false, items, deletedItemIds);
+    }
+
+    /**
+     * Bumps the version and records the changed items at it, then compacts the log.
+     *
+     * @param itemIds The IDs of the items saved or deleted.
+     */
+    private void record(Collection<Integer> itemIds) {
+        changeLock.lock();
+        try {
+            long changeVersion = version.incrementAndGet();
+            Set<Integer> ids = Set.copyOf(itemIds);
+            for (int id : ids) {
+                Long previous = changedAt.put(id, changeVersion);
+                if (previous != null) {
+                    Set<Integer> superseded = changes.get(previous);
+                    superseded.remove(id);
+                    if (superseded.isEmpty()) {
+                        changes.remove(previous);
+                    }
+                }
+            }
+            if (!ids.isEmpty()) {
+                changes.put(changeVersion, new HashSet<>(ids));
+            }
+            while (changedAt.size() > maxChanges) {
+                Map.Entry<Long, Set<Integer>> oldest = changes.pollFirstEntry();
+                oldest.getValue().forEach(changedAt::remove);
+                floor = oldest.getKey();
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the menu from the database and serializes every document of the snapshot.
+     *
+     * @param snapshotVersion The version to stamp on the snapshot.
+     * @return The newly built snapshot.
+     */
+    private MenuSnapshot build(long snapshotVersion) {
+        List<Item> items = (List<Item>) itemRepository.findAll();
+        List<ItemCategory> categories = (List<ItemCategory>) itemCategoryRepository.findAll();
+        return new MenuSnapshot(snapshotVersion,
+                serialize(items),
+                serialize(categories),
+                serialize(new MenuBundle(snapshotVersion, categories, items)),
+                items.stream().collect(Collectors.toUnmodifiableMap(Item::getId, Function.identity())));
+    }
+
+    /**
+     * Serializes a value to JSON and CBOR, compresses the JSON and derives its strong ETag from the JSON content.
+     *
+     * @param value The value to serialize.
+     * @return The serialized document.
+     */
+    private MenuSnapshot.Body serialize(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            byte[] cbor = cborConverter.getObjectMapper().writeValueAsBytes(value);
+            return new MenuSnapshot.Body(etag, json, compressed.toByteArray(), cbor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize menu snapshot", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.project3.backend.service;
+
+import com.project3.backend.entity.Order;
+
+/**
+ * The {@code OrderIdempotencyService} interface saves orders submitted with an {@code Idempotency-Key},
+ * so that a client retrying a submission gets the order it already created instead of a duplicate.
+ */
+public interface OrderIdempotencyService {
+
+    /**
+     * Saves the order unless an order was already submitted with the same key within the dedup window,
+     * in which case that order is returned and nothing is written.
+     *
+     * @param key   The idempotency key chosen by the client for this submission.
+     * @param order The {@code Order} object to be saved.
+     * @return The saved order, or the order created by the first submission with the key.
+     */
+    Order saveOrder(String key, Order order);
+
+    /**
+     * Returns the number of submissions answered with an earlier order instead of being written.
+     *
+     * @param source {@code "memory"} for replays answered from the in-memory table, {@code "database"} for
+     *               the ones found only in the durable table.
+     * @return The number of deduplicated submissions.
+     */
+    long getDeduplicatedCount(String source);
+}
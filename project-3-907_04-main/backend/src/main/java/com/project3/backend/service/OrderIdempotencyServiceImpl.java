@@ -0,0 +1,282 @@
+package com.project3.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.project3.backend.entity.Order;
+import com.project3.backend.repository.OrderRepository;
+
+/**
+ * Service implementation of idempotent order submission. Every key seen within the dedup window is kept in a
+ * bounded in-memory table holding the order it created, so a retry is answered without touching the
+ * database. A retry that arrives while the first submission is still running waits for its outcome instead
+ * of writing a second order.
+ * <p>
+ * The key is also inserted into {@code order_idempotency_key} in the same transaction as the order. That
+ * durable record answers the retries the memory no longer holds, after a restart or an eviction, and its
+ * primary key stops two submissions with the same key from both committing, even on different instances.
+ * <p>
+ * A key reused for a different order (price, user, status or items) is rejected with 422, since replaying
+ * the first order would silently drop the second.
+ */
+@Service
+public class OrderIdempotencyServiceImpl implements OrderIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotencyServiceImpl.class);
+
+    /**
+     * The longest idempotency key accepted, the width of the key column.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * A submission seen under some key: its request hash, the order it created once done, and the
+     * {@link System#nanoTime()} at which it leaves the dedup window.
+     */
+    private static final class Entry {
+        private final String requestHash;
+        private final CompletableFuture<Order> order = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder memoryReplays = new LongAdder();
+
+    private final LongAdder databaseReplays = new LongAdder();
+
+    private final long windowSeconds;
+
+    private final int maxSize;
+
+    private final long waitMs;
+
+    /**
+     * Constructs a new {@code OrderIdempotencyServiceImpl}.
+     *
+     * @param windowSeconds The number of seconds a key is remembered after its order was created.
+     * @param maxSize       The maximum number of keys held in memory.
+     * @param waitMs        The time a retry waits for a submission with the same key that is still running.
+     */
+    public OrderIdempotencyServiceImpl(@Value("${orders.idempotency.window-seconds:86400}") long windowSeconds,
+                                       @Value("${orders.idempotency.max-size:100000}") int maxSize,
+                                       @Value("${orders.idempotency.wait-ms:10000}") long waitMs) {
+        this.windowSeconds = windowSeconds;
+        this.maxSize = maxSize;
+        this.waitMs = waitMs;
+    }
+
+    /**
+     * Saves the order, or returns the one already created with the key.
+     *
+     * @param key   The idempotency key chosen by the client for this submission.
+     * @param order The {@code Order} object to be saved.
+     * @return The saved order, or the order created by the first submission with the key.
+     * @throws ResponseStatusException with status 400 if the key is blank or too long, 422 if the key was
+     *                                 used for a different order, or 409 if the first submission with the
+     *                                 key is still running after the wait or its order was deleted.
+     */
+    @Override
+    public Order saveOrder(String key, Order order) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = requestHash(order);
+        while (true) {
+            Entry entry = new Entry(requestHash);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                return submit(key, entry, order);
+            }
+            if (existing.order.isDone() && System.nanoTime() - existing.expiresAt >= 0) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.requestHash.equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different order");
+            }
+            try {
+                Order replayed = existing.order.get(waitMs, TimeUnit.MILLISECONDS);
+                memoryReplays.increment();
+                return replayed;
+            } catch (ExecutionException e) {
+                // The first submission failed and was forgotten, so this one is written instead
+            } catch (TimeoutException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "An order with this Idempotency-Key is still being processed");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+    }
+
+    /**
+     * Writes the key and the order in one transaction, or replays the order of a key found in the durable
+     * table, then completes the entry so retries waiting on it get the same order.
+     *
+     * @param key   The idempotency key.
+     * @param entry The entry this submission added to the in-memory table.
+     * @param order The order to be saved.
+     * @return The saved or replayed order.
+     */
+    private Order submit(String key, Entry entry, Order order) {
+        Order result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                // Waits for a concurrent transaction holding the same key and skips the insert if it commits
+                int inserted = jdbcTemplate.update("INSERT INTO order_idempotency_key (idempotency_key, request_hash) "
+                        + "VALUES (?, ?) ON CONFLICT DO NOTHING", key, entry.requestHash);
+                if (inserted == 0) {
+                    return null;
+                }
+                Order saved = orderService.saveOrder(order);
+                jdbcTemplate.update("UPDATE order_idempotency_key SET order_id = ? WHERE idempotency_key = ?",
+                        saved.getId(), key);
+                return saved;
+            });
+            if (result == null) {
+                result = replayFromDatabase(key, entry.requestHash);
+                databaseReplays.increment();
+            }
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.order.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(windowSeconds);
+        entry.order.complete(result);
+        if (entries.size() > maxSize) {
+            evict();
+        }
+        return result;
+    }
+
+    /**
+     * Loads the order recorded for a key in the durable table.
+     *
+     * @param key         The idempotency key.
+     * @param requestHash The request hash of the retry.
+     * @return The order created by the first submission with the key.
+     * @throws ResponseStatusException with status 422 if the key was used for a different order, or 409 if
+     *                                 that order no longer exists.
+     */
+    private Order replayFromDatabase(String key, String requestHash) {
+        List<Order> orders = jdbcTemplate.query("SELECT request_hash, order_id FROM order_idempotency_key "
+                        + "WHERE idempotency_key = ?",
+                (rs, rowNum) -> {
+                    if (!rs.getString("request_hash").equals(requestHash)) {
+                        throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                                "Idempotency-Key was already used for a different order");
+                    }
+                    return orderRepository.findById(rs.getInt("order_id")).orElse(null);
+                }, key);
+        if (orders.isEmpty() || orders.get(0) == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "The order created with this Idempotency-Key no longer exists");
+        }
+        return orders.get(0);
+    }
+
+    /**
+     * Removes the keys past the dedup window and, if the table is still full, every completed key. Those
+     * are still answered from the durable table.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.order.isDone() && now - entry.expiresAt >= 0);
+        if (entries.size() > maxSize) {
+            entries.values().removeIf(entry -> entry.order.isDone());
+        }
+    }
+
+    /**
+     * Deletes the durable keys past the dedup window, and the in-memory ones with them.
+     */
+    @Scheduled(fixedDelayString = "${orders.idempotency.cleanup-interval-ms:3600000}")
+    public void expire() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.order.isDone() && now - entry.expiresAt >= 0);
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM order_idempotency_key "
+                    + "WHERE created_at < now() - make_interval(secs => ?)", windowSeconds);
+            if (deleted > 0) {
+                log.debug("Expired {} order idempotency keys", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not expire order idempotency keys", e);
+        }
+    }
+
+    /**
+     * Hashes the parts of an order that a retry must repeat: ID, price, user, status and items. The time is
+     * left out because it defaults to the time the request is read.
+     *
+     * @param order The submitted order.
+     * @return The hex SHA-256 of the order.
+     */
+    private static String requestHash(Order order) {
+        String request = order.getId() + "|" + order.getPrice() + "|" + order.getUserId() + "|" + order.getStatus()
+                + "|" + (order.getItems() == null ? "" : new TreeMap<>(order.getItems()).toString());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long getDeduplicatedCount(String source) {
+        return "database".equals(source) ? databaseReplays.sum() : memoryReplays.sum();
+    }
+
+    /**
+     * Returns the number of keys held in memory.
+     *
+     * @return The in-memory table size.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.project3.backend.service;
+
+import com.project3.backend.entity.Order;
+
+/**
+ * The {@code OrderJournalService} interface accepts new orders into the local order journal, acknowledging
+ * them before they are written to the database, and drains the journal to the database in the background.
+ */
+public interface OrderJournalService {
+
+    /**
+     * Returns whether orders are accepted through the journal.
+     *
+     * @return True if the journal is enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Assigns the new order its ID and appends it to the journal. The order is written to the database
+     * shortly after; if the journal is full, it is written before returning instead.
+     *
+     * @param order The new {@code Order} object to be accepted.
+     * @return The accepted order, with its ID.
+     * @throws org.springframework.web.server.ResponseStatusException with status 400 if the database would
+     *         reject the order.
+     */
+    Order accept(Order order);
+
+    /**
+     * Returns the number of accepted orders not written to the database yet.
+     *
+     * @return The number of pending orders.
+     */
+    long getPendingCount();
+
+    /**
+     * Returns the number of accepted orders the database rejected, which were moved to the dead letter file
+     * instead.
+     *
+     * @return The number of rejected orders since the service started.
+     */
+    long getRejectedCount();
+}
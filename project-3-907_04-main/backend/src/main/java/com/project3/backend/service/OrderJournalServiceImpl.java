@@ -0,0 +1,380 @@
+package com.project3.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project3.backend.entity.Order;
+import com.project3.backend.journal.OrderJournal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service implementation of the order journal. When enabled, a new order is given an ID from a block reserved
+ * ahead of time, appended to the {@link OrderJournal} and acknowledged, so accepting an order costs a local
+ * disk write rather than a database commit. A writer thread takes the journaled orders in batches and inserts
+ * them through {@link OrderService#insertJournaled}, which publishes the usual order events; while the database
+ * is unavailable it retries and the journal absorbs the orders.
+ * <p>
+ * Orders left in the journal by a crash are recovered when the service starts and written first. A journaled
+ * order shows up in order listings and reports once the writer has inserted it, normally within milliseconds.
+ * <p>
+ * Since an order is acknowledged before the database sees it, {@link #accept} checks it against the constraints
+ * of the order tables first. An order the database still rejects is appended to the dead letter file, one JSON
+ * object per line, so it can be corrected and entered again.
+ */
+@Service
+public class OrderJournalServiceImpl implements OrderJournalService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournalServiceImpl.class);
+
+    /**
+     * The number of IDs one value of the order sequence stands for, its increment (see
+     * {@code db/migration/V4__sequence_allocation.sql}). IDs are handed out pooled-lo, like Hibernate does.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    /**
+     * The length of the {@code status} column of {@code "order"}.
+     */
+    private static final int MAX_STATUS_LENGTH = 255;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orders.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.journal.path:data/orders.journal}")
+    private String path;
+
+    @Value("${orders.journal.dead-letter-path:data/orders.dead-letter}")
+    private String deadLetterPath;
+
+    @Value("${orders.journal.size-mb:64}")
+    private int sizeMb;
+
+    @Value("${orders.journal.sync:true}")
+    private boolean sync;
+
+    @Value("${orders.journal.batch-size:200}")
+    private int batchSize;
+
+    @Value("${orders.journal.retry-ms:1000}")
+    private long retryMs;
+
+    @Value("${orders.journal.id-blocks:20}")
+    private int idBlocks;
+
+    private OrderJournal journal;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Reserved blocks of order IDs, as the first ID of each, and the block being handed out
+    private final ReentrantLock idLock = new ReentrantLock();
+    private final ArrayDeque<Integer> reservedBlocks = new ArrayDeque<>();
+    private int nextId;
+    private int idLimit;
+
+    private final AtomicBoolean reserving = new AtomicBoolean();
+
+    private final ExecutorService idReserver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-journal-ids");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Opens the journal and queues the orders a previous run left in it.
+     *
+     * @throws IOException if the journal file cannot be opened
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new OrderJournal(Path.of(path), sizeMb * 1024 * 1024, sync);
+        Path deadLetter = Path.of(deadLetterPath).toAbsolutePath();
+        Files.createDirectories(deadLetter.getParent());
+        int recovered = journal.recover();
+        if (recovered > 0) {
+            log.warn("Recovered {} orders from the order journal that may not be in the database yet", recovered);
+        }
+    }
+
+    /**
+     * Starts the writer once the database schema is up to date, and reserves the first order IDs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "order-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        reserveIdsInBackground();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Order accept(Order order) {
+        if (order.getTime() == null) {
+            order.setTime(LocalDateTime.now());
+        }
+        if (order.getItems() == null) {
+            order.setItems(new HashMap<>());
+        }
+        validate(order);
+        order.setId(nextOrderId());
+        if (journal.append(order) == null) {
+            log.warn("Order journal is full, writing the order to the database directly");
+            order.setId(0);
+            return orderService.saveOrder(order);
+        }
+        return order;
+    }
+
+    @Override
+    public long getPendingCount() {
+        return enabled ? journal.getPendingCount() : 0;
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Checks a new order against the constraints of {@code "order"} and {@code item_to_order}, since once it is
+     * acknowledged a rejection can no longer be reported to the client.
+     *
+     * @param order The new order, with its time and items set.
+     * @throws ResponseStatusException with status 400 if the database would reject the order.
+     */
+    private static void validate(Order order) {
+        if (!(order.getPrice() >= 0) || Double.isInfinite(order.getPrice())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order price must be a non-negative number");
+        }
+        if (order.getStatus() != null && order.getStatus().length() > MAX_STATUS_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Order status must be at most " + MAX_STATUS_LENGTH + " characters");
+        }
+        for (Map.Entry<Integer, Integer> entry : order.getItems().entrySet()) {
+            if (entry.getKey() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order item IDs must not be null");
+            }
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Quantity of item " + entry.getKey() + " must be positive");
+            }
+        }
+    }
+
+    /**
+     * Hands out the next reserved order ID, reserving more in the background when running low. Only when the
+     * reserve is used up does an order wait for the database.
+     *
+     * @return The ID for a new order.
+     */
+    private int nextOrderId() {
+        idLock.lock();
+        try {
+            if (nextId == idLimit) {
+                if (reservedBlocks.isEmpty()) {
+                    reservedBlocks.addAll(reserveIdBlocks());
+                }
+                nextId = reservedBlocks.poll();
+                idLimit = nextId + ID_BLOCK_SIZE;
+            }
+            if (reservedBlocks.size() < idBlocks / 2) {
+                reserveIdsInBackground();
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private List<Integer> reserveIdBlocks() {
+        return jdbcTemplate.queryForList("SELECT nextval('order_id_seq') FROM generate_series(1, ?)", Integer.class, idBlocks);
+    }
+
+    private void reserveIdsInBackground() {
+        if (!reserving.compareAndSet(false, true)) {
+            return;
+        }
+        idReserver.execute(() -> {
+            try {
+                List<Integer> blocks = reserveIdBlocks();
+                idLock.lock();
+                try {
+                    reservedBlocks.addAll(blocks);
+                } finally {
+                    idLock.unlock();
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not reserve order IDs", e);
+            } finally {
+                reserving.set(false);
+            }
+        });
+    }
+
+    /**
+     * Writes the journaled orders to the database in batches until stopped, then writes what is left. A batch
+     * that fails is retried until it succeeds; the journal is only checkpointed past committed batches.
+     */
+    private void drain() {
+        List<OrderJournal.Entry> batch = List.of();
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    batch = journal.take(batchSize, running ? 1 : 0, TimeUnit.SECONDS);
+                    if (batch.isEmpty()) {
+                        if (!running) {
+                            return;
+                        }
+                        continue;
+                    }
+                }
+                write(batch);
+                journal.checkpoint(batch.get(batch.size() - 1));
+                batch = List.of();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.warn("Could not write {} journaled orders before shutdown; they are written at the next start", batch.size(), e);
+                    return;
+                }
+                log.warn("Could not write {} journaled orders, retrying in {} ms", batch.size(), retryMs, e);
+                try {
+                    Thread.sleep(retryMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts a batch of journaled orders. When the database rejects the batch, the orders are written one at
+     * a time and the ones it still rejects are moved to the dead letter file, since retrying them cannot succeed
+     * and would hold up every order behind them.
+     *
+     * @param batch The journaled orders.
+     */
+    private void write(List<OrderJournal.Entry> batch) {
+        try {
+            orderService.insertJournaled(batch.stream().map(OrderJournal.Entry::getOrder).toList());
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() > 1) {
+                batch.forEach(entry -> write(List.of(entry)));
+                return;
+            }
+            deadLetter(batch.get(0).getOrder(), e);
+        }
+    }
+
+    /**
+     * Appends an order the database rejected to the dead letter file, with the reason. If the file cannot be
+     * written the batch fails and is retried, so the order stays in the journal rather than being lost.
+     *
+     * @param order  The rejected order.
+     * @param reason The rejection.
+     * @throws UncheckedIOException if the dead letter file cannot be written
+     */
+    private void deadLetter(Order order, DataIntegrityViolationException reason) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("rejectedAt", LocalDateTime.now().toString());
+        record.put("reason", reason.getMostSpecificCause().getMessage());
+        record.put("id", order.getId());
+        record.put("price", order.getPrice());
+        record.put("time", order.getTime().toString());
+        record.put("userId", order.getUserId());
+        record.put("status", order.getStatus());
+        record.put("items", order.getItems());
+        OpenOption[] options = sync
+                ? new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC}
+                : new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.APPEND};
+        try {
+            String line = objectMapper.writeValueAsString(record) + "\n";
+            Files.writeString(Path.of(deadLetterPath), line, StandardCharsets.UTF_8, options);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode journaled order " + order.getId(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write journaled order " + order.getId() + " to " + deadLetterPath, e);
+        }
+        rejected.incrementAndGet();
+        log.error("Journaled order {} rejected by the database, moved to {}: {}", order.getId(), deadLetterPath,
+                reason.getMostSpecificCause().getMessage());
+    }
+
+    /**
+     * Lets the writer finish the journaled orders, then closes the journal.
+     *
+     * @throws IOException if the journal cannot be closed
+     * @throws InterruptedException if interrupted while waiting for the writer
+     */
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        idReserver.shutdownNow();
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        journal.close();
+    }
+}
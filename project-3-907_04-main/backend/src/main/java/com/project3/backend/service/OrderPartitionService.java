@@ -0,0 +1,16 @@
+package com.project3.backend.service;
+
+/**
+ * The {@code OrderPartitionService} interface keeps the monthly partitions of the {@code "order"} and
+ * {@code item_to_order} tables created ahead of the orders that will be written to them.
+ */
+public interface OrderPartitionService {
+
+    /**
+     * Creates the partitions for the current month and the configured number of months after it,
+     * skipping the months that already exist.
+     *
+     * @return The number of months created.
+     */
+    int createUpcomingPartitions();
+}
@@ -0,0 +1,62 @@
+package com.project3.backend.service;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service implementation that calls the {@code create_order_partitions} database function (see
+ * {@code db/migration/V2__partition_orders_by_month.sql}) at startup and once a day. Orders written
+ * past the last monthly partition land in the default partition, and a month cannot be created
+ * while the default partition holds rows for it, so partitions are kept a few months ahead.
+ */
+@Service
+public class OrderPartitionServiceImpl implements OrderPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionServiceImpl.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * Creates the partitions for the current month and the configured number of months after it,
+     * skipping the months that already exist.
+     *
+     * @return The number of months created.
+     */
+    public int createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        Integer created = jdbcTemplate.queryForObject("SELECT create_order_partitions(?, ?)", Integer.class,
+                today, today.plusMonths(monthsAhead));
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Creates the missing partitions at startup and every night. Failures are logged and retried on the
+     * next run; until then new orders still land in the default partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${orders.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            int created = createUpcomingPartitions();
+            if (created > 0) {
+                log.info("Created {} monthly order partitions", created);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not create upcoming order partitions", e);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 
 package com.project3.backend.service;
 
+import com.project3.backend.dto.OrderPage;
 import com.project3.backend.entity.Order;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -11,11 +14,17 @@ import java.util.List;
 public interface OrderService {
 
     /**
-     * Retrieves a list of all orders from the backend.
+     * Retrieves one page of orders, newest first, matching the given optional filters.
      *
-     * @return A {@code List} of {@code Order} objects representing all orders.
+     * @param startDate The inclusive lower bound on the order time, or {@code null} for no bound.
+     * @param endDate   The inclusive upper bound on the order time, or {@code null} for no bound.
+     * @param status    The order status to match, or {@code null} for any status.
+     * @param userId    The user ID to match, or {@code null} for any user.
+     * @param cursor    The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit     The requested page size; it is clamped to the supported range.
+     * @return An {@code OrderPage} holding the orders and the cursor for the next page.
      */
-    List<Order> fetchAllOrders();
+    OrderPage fetchOrders(LocalDateTime startDate, LocalDateTime endDate, String status, Integer userId, String cursor, int limit);
 
     /**
      * Saves an order in the backend.
@@ -25,6 +34,22 @@ public interface OrderService {
      */
     Order saveOrder(Order order);
 
+    /**
+     * Saves a batch of new orders together with all of their line items in a single transaction.
+     *
+     * @param orders The {@code Order} objects to be inserted.
+     * @return The saved {@code Order} objects, in the same order as given.
+     */
+    List<Order> saveOrders(List<Order> orders);
+
+    /**
+     * Inserts new orders whose IDs were assigned before they were written, skipping the ones that already exist.
+     *
+     * @param orders The {@code Order} objects to be inserted, with their IDs set.
+     * @return The number of orders inserted.
+     */
+    int insertJournaled(List<Order> orders);
+
     /**
      * Deletes an order from the backend based on the provided ID.
      *
@@ -1,17 +1,34 @@
 package com.project3.backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.project3.backend.dto.OrderPage;
 import com.project3.backend.entity.ItemToOrder;
 import com.project3.backend.entity.Order;
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
 import com.project3.backend.repository.ItemToOrderRepository;
 import com.project3.backend.repository.OrderRepository;
 
+import jakarta.transaction.Transactional;
+
 /**
  * Implementation of the {@link OrderService} interface that provides
  * methods to interact with orders and their associated items.
@@ -19,63 +36,293 @@ import com.project3.backend.repository.OrderRepository;
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    /**
+     * The page size used when the caller does not ask for a specific one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * The largest page size a caller may request.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * The largest number of orders accepted by a single batch insert.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
     private ItemToOrderRepository itemToOrderRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Retrieves one page of orders, newest first, using keyset pagination on {@code (time, id)}.
+     * One extra row is fetched to find out whether a following page exists.
+     *
+     * @param startDate The inclusive lower bound on the order time, or {@code null}.
+     * @param endDate   The inclusive upper bound on the order time, or {@code null}.
+     * @param status    The order status to match, or {@code null}.
+     * @param userId    The user ID to match, or {@code null}.
+     * @param cursor    The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit     The requested page size, clamped to {@code [1, MAX_PAGE_SIZE]}.
+     * @return The requested page of orders.
+     */
+    public OrderPage fetchOrders(LocalDateTime startDate, LocalDateTime endDate, String status, Integer userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime cursorTime = null;
+        Integer cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorTime = LocalDateTime.parse(parts[0]);
+            cursorId = Integer.valueOf(parts[1]);
+        }
+
+        List<Order> orders = orderRepository.findPage(startDate, endDate, status, userId,
+                cursorTime, cursorId, PageRequest.of(0, pageSize + 1));
+        if (orders.size() <= pageSize) {
+            return new OrderPage(orders, null);
+        }
+        orders = orders.subList(0, pageSize);
+        Order last = orders.get(pageSize - 1);
+        return new OrderPage(orders, encodeCursor(last));
+    }
+
     /**
-     * Retrieves all orders from the repository.
+     * Encodes the keyset position of the given order as an opaque, URL-safe cursor.
      *
-     * @return A list of all orders in the repository.
+     * @param order The last order of a page.
+     * @return The cursor pointing just past the order.
      */
-    public List<Order> fetchAllOrders() {
-        return (List<Order>) orderRepository.findAll();
+    private static String encodeCursor(Order order) {
+        String raw = order.getTime() + "|" + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Saves an order and its associated items to the repository.
+     * Decodes a cursor produced by {@link #encodeCursor(Order)} into its time and ID parts.
+     *
+     * @param cursor The cursor sent by the client.
+     * @return A two-element array holding the ISO time and the order ID.
+     * @throws ResponseStatusException with status 400 if the cursor is malformed.
+     */
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(cursor);
+            }
+            LocalDateTime.parse(parts[0]);
+            Integer.parseInt(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Saves an order and its associated items to the repository in one transaction.
+     * The stored line items are loaded once and diffed against the basket: changed quantities are
+     * updated, new items inserted and removed items deleted, each as a single statement or JDBC batch.
+     * The number of statements therefore does not depend on the size of the basket.
+     * An {@link OrderChangedEvent} carrying the previous and the new state is published before returning.
+     * An order sent without a time is placed now, or keeps its time if it already exists.
      *
      * @param order The order to be saved.
      * @return The saved order.
      */
+    @Transactional
     public Order saveOrder(Order order) {
+        OrderState before = null;
+        List<ItemToOrder> existingRows = List.of();
+        Order existing = order.getId() != 0 ? orderRepository.findById(order.getId()).orElse(null) : null;
+        if (existing != null) {
+            existingRows = itemToOrderRepository.findByOrderIdAndOrderTime(existing.getId(), existing.getTime());
+            before = stateOf(existing, existingRows);
+        }
+        if (order.getTime() == null) {
+            // The time is the partition key and cannot be null
+            order.setTime(existing != null ? existing.getTime() : LocalDateTime.now());
+        }
         Order savedOrder = orderRepository.save(order);
-        System.out.println("items: " + order.getItems());
-
-        if (order.getItems() != null) {
-            System.out.println("modifying itemsToOrder");
-            List<ItemToOrder> itemsToOrder = order.getItems().entrySet().stream()
-                    .map(entry -> {
-                        ItemToOrder itemToOrder = itemToOrderRepository
-                                .findByItemIdAndOrderId(entry.getKey(), savedOrder.getId());
-                        if (itemToOrder == null) {
-                            itemToOrder = new ItemToOrder();
-                        }
-                        itemToOrder.setOrderId(savedOrder.getId());
-                        itemToOrder.setItemId(entry.getKey());
-                        itemToOrder.setQuantity(entry.getValue());
-                        return itemToOrder;
-                    })
-                    .collect(Collectors.toList());
-
-            List<ItemToOrder> existingItemToOrders = itemToOrderRepository.findByOrderId(savedOrder.getId()).stream()
-                    .filter(itemToOrder -> !order.getItems().containsKey(itemToOrder.getItemId()))
-                    .collect(Collectors.toList());
-            itemToOrderRepository.deleteAll(existingItemToOrders);
-            itemToOrderRepository.saveAll(itemsToOrder);
+        // The line items follow the order into another monthly partition if its time changed
+        existingRows.forEach(row -> row.setOrderTime(savedOrder.getTime()));
+        Map<Integer, Integer> items = order.getItems();
+        if (items == null) {
+            eventPublisher.publishEvent(new OrderChangedEvent(before,
+                    stateOf(savedOrder, before != null ? before.getItems() : Map.of())));
+            return savedOrder;
         }
+
+        Map<Integer, Integer> remaining = new HashMap<>(items);
+        List<Integer> staleIds = new ArrayList<>();
+        for (ItemToOrder row : existingRows) {
+            Integer quantity = remaining.remove(row.getItemId());
+            if (quantity == null) {
+                staleIds.add(row.getId());
+            } else if (quantity != row.getQuantity()) {
+                // Managed entity: the change is flushed as part of one UPDATE batch
+                row.setQuantity(quantity);
+            }
+        }
+        if (!staleIds.isEmpty()) {
+            itemToOrderRepository.deleteAllByIdIn(staleIds);
+        }
+
+        List<ItemToOrder> inserts = new ArrayList<>(remaining.size());
+        for (Map.Entry<Integer, Integer> entry : remaining.entrySet()) {
+            ItemToOrder itemToOrder = new ItemToOrder();
+            itemToOrder.setOrderId(savedOrder.getId());
+            itemToOrder.setOrderTime(savedOrder.getTime());
+            itemToOrder.setItemId(entry.getKey());
+            itemToOrder.setQuantity(entry.getValue());
+            inserts.add(itemToOrder);
+        }
+        itemToOrderRepository.saveAll(inserts);
+        eventPublisher.publishEvent(new OrderChangedEvent(before, stateOf(savedOrder, items)));
         return savedOrder;
     }
 
     /**
-     * Deletes an order and its associated items from the repository.
+     * Inserts a batch of new orders and all their line items in one transaction. Any ID sent by the
+     * client is ignored. IDs come from the pooled-lo sequence generators, so the orders and the line
+     * items are each written as JDBC insert batches, without a sequence round trip per row. Orders sent
+     * without a time are placed now.
+     *
+     * @param orders The orders to be inserted.
+     * @return The saved orders.
+     * @throws ResponseStatusException with status 400 if the batch is empty or too large.
+     */
+    @Transactional
+    public List<Order> saveOrders(List<Order> orders) {
+        if (orders == null || orders.isEmpty() || orders.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch must contain between 1 and " + MAX_BATCH_SIZE + " orders");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : orders) {
+            order.setId(0);
+            if (order.getTime() == null) {
+                order.setTime(now);
+            }
+        }
+        List<Order> savedOrders = (List<Order>) orderRepository.saveAll(orders);
+
+        List<ItemToOrder> itemsToOrder = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Map<Integer, Integer> items = orders.get(i).getItems();
+            if (items == null) {
+                continue;
+            }
+            int orderId = savedOrders.get(i).getId();
+            LocalDateTime orderTime = savedOrders.get(i).getTime();
+            for (Map.Entry<Integer, Integer> entry : items.entrySet()) {
+                ItemToOrder itemToOrder = new ItemToOrder();
+                itemToOrder.setOrderId(orderId);
+                itemToOrder.setOrderTime(orderTime);
+                itemToOrder.setItemId(entry.getKey());
+                itemToOrder.setQuantity(entry.getValue());
+                itemsToOrder.add(itemToOrder);
+            }
+        }
+        itemToOrderRepository.saveAll(itemsToOrder);
+        for (int i = 0; i < orders.size(); i++) {
+            eventPublisher.publishEvent(new OrderChangedEvent(null, stateOf(savedOrders.get(i), orders.get(i).getItems())));
+        }
+        return savedOrders;
+    }
+
+    /**
+     * Inserts a batch of new orders that already carry their IDs, as drained from the order journal, with all
+     * their line items in one transaction. Orders whose ID already exists were written before a crash and are
+     * skipped, so replaying the journal never duplicates an order. The orders are inserted with plain JDBC
+     * batches because JPA would replace the assigned IDs with generated ones.
+     *
+     * @param orders The orders to be inserted, with IDs reserved from the order sequence.
+     * @return The number of orders inserted.
+     */
+    @Transactional
+    public int insertJournaled(List<Order> orders) {
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.query("SELECT id FROM \"order\" WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", orders.stream().map(Order::getId).toArray())),
+                (rs, rowNum) -> rs.getInt(1)));
+        List<Order> inserts = orders.stream().filter(order -> !existing.contains(order.getId())).toList();
+        if (inserts.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO \"order\" (id, price, time, user_id, status) VALUES (?, ?, ?, ?, ?)",
+                inserts.stream()
+                        .map(order -> new Object[] {order.getId(), order.getPrice(), order.getTime(), order.getUserId(), order.getStatus()})
+                        .toList());
+
+        List<ItemToOrder> itemsToOrder = new ArrayList<>();
+        for (Order order : inserts) {
+            for (Map.Entry<Integer, Integer> entry : order.getItems().entrySet()) {
+                ItemToOrder itemToOrder = new ItemToOrder();
+                itemToOrder.setOrderId(order.getId());
+                itemToOrder.setOrderTime(order.getTime());
+                itemToOrder.setItemId(entry.getKey());
+                itemToOrder.setQuantity(entry.getValue());
+                itemsToOrder.add(itemToOrder);
+            }
+        }
+        itemToOrderRepository.saveAll(itemsToOrder);
+        for (Order order : inserts) {
+            eventPublisher.publishEvent(new OrderChangedEvent(null, stateOf(order, order.getItems())));
+        }
+        return inserts.size();
+    }
+
+    /**
+     * Deletes an order and its associated items from the repository in one transaction,
+     * and publishes an {@link OrderChangedEvent} carrying the deleted state.
      *
      * @param id The ID of the order to be deleted.
      */
+    @Transactional
     public void deleteOrder(int id) {
-        orderRepository.deleteById(id);
-        itemToOrderRepository.deleteByOrderId(id);
+        Order existing = orderRepository.findById(id).orElse(null);
+        if (existing == null) {
+            return;
+        }
+        List<ItemToOrder> existingRows = itemToOrderRepository.findByOrderIdAndOrderTime(id, existing.getTime());
+        if (!existingRows.isEmpty()) {
+            itemToOrderRepository.deleteAllByIdIn(existingRows.stream().map(ItemToOrder::getId).toList());
+        }
+        orderRepository.delete(existing);
+        eventPublisher.publishEvent(new OrderChangedEvent(stateOf(existing, existingRows), null));
+    }
+
+    /**
+     * Copies an order and its stored line items into an immutable {@link OrderState}.
+     *
+     * @param order The order.
+     * @param rows  The stored line items of the order.
+     * @return The state of the order.
+     */
+    private static OrderState stateOf(Order order, List<ItemToOrder> rows) {
+        Map<Integer, Integer> items = new HashMap<>();
+        for (ItemToOrder row : rows) {
+            items.merge(row.getItemId(), row.getQuantity(), Integer::sum);
+        }
+        return stateOf(order, items);
+    }
+
+    /**
+     * Copies an order and the given line items into an immutable {@link OrderState}.
+     *
+     * @param order The order.
+     * @param items The line items of the order, mapping item ID to quantity.
+     * @return The state of the order.
+     */
+    private static OrderState stateOf(Order order, Map<Integer, Integer> items) {
+        return new OrderState(order.getId(), order.getPrice(), order.getTime(), order.getUserId(), order.getStatus(), items);
     }
 }
\ No newline at end of file
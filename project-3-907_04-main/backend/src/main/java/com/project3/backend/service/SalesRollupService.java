@@ -0,0 +1,37 @@
+package com.project3.backend.service;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.reports.SalesReport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The {@code SalesRollupService} interface maintains the hourly per-item sales rollup and answers the
+ * sales report from it.
+ */
+public interface SalesRollupService {
+
+    /**
+     * Applies the difference between the previous and the new state of an order to the rollup.
+     *
+     * @param event The order change to apply.
+     */
+    void onOrderChanged(OrderChangedEvent event);
+
+    /**
+     * Brings the whole rollup back in line with the order history while orders keep being written.
+     *
+     * @return The number of rollup rows corrected.
+     */
+    int rebuild();
+
+    /**
+     * Generates the sales report for a time range from the rollup plus the partial hours at its edges.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return List of SalesReport objects ordered by descending order count.
+     */
+    List<SalesReport> salesReport(LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,202 @@
+package com.project3.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.reports.SalesReport;
+import com.project3.backend.reports.SalesReportEntry;
+import com.project3.backend.repository.ItemRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service implementation that keeps the {@code item_sales_hourly} rollup, holding the order count,
+ * quantity and revenue of every item per hour, up to date with the order write path.
+ * The rollup is updated inside the transaction that writes the order, using one JDBC batch per order,
+ * so the sales report never has to scan the whole order history. The orders written before the rollup
+ * existed are backfilled by the V7 migration.
+ */
+@Service
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    /**
+     * Adds a delta to one (item, hour) row of the rollup, creating the row if needed.
+     * Revenue is valued at the item's price when the order is written.
+     */
+    private static final String UPSERT =
+            "INSERT INTO item_sales_hourly (item_id, hour, order_count, quantity, revenue) " +
+            "VALUES (?, ?, ?, ?, ? * COALESCE((SELECT price FROM item WHERE id = ?), 0)) " +
+            "ON CONFLICT (item_id, hour) DO UPDATE SET " +
+            "order_count = item_sales_hourly.order_count + EXCLUDED.order_count, " +
+            "quantity = item_sales_hourly.quantity + EXCLUDED.quantity, " +
+            "revenue = item_sales_hourly.revenue + EXCLUDED.revenue";
+
+    /**
+     * Adds to every drifted row of the rollup the difference between the order history and the rollup, both
+     * read from the statement's snapshot. Orders committed after the snapshot have already added their own
+     * deltas to the rows, or add them after the correction, so they are neither lost nor counted twice. Only
+     * the drifted rows are locked, in (hour, item) order like the write path, so writers cannot deadlock with
+     * the rebuild and wait only for the rows it corrects.
+     */
+    private static final String CORRECT =
+            "INSERT INTO item_sales_hourly (item_id, hour, order_count, quantity, revenue) " +
+            "SELECT COALESCE(h.item_id, r.item_id), COALESCE(h.hour, r.hour), " +
+            "COALESCE(h.order_count, 0) - COALESCE(r.order_count, 0), " +
+            "COALESCE(h.quantity, 0) - COALESCE(r.quantity, 0), " +
+            "COALESCE(h.revenue, 0) - COALESCE(r.revenue, 0) " +
+            "FROM (SELECT ito.item_id, date_trunc('hour', ito.order_time) AS hour, COUNT(*) AS order_count, " +
+            "SUM(ito.quantity) AS quantity, SUM(ito.quantity * i.price) AS revenue " +
+            "FROM item_to_order ito " +
+            "JOIN item i ON i.id = ito.item_id " +
+            "GROUP BY ito.item_id, date_trunc('hour', ito.order_time)) h " +
+            "FULL JOIN item_sales_hourly r ON r.item_id = h.item_id AND r.hour = h.hour " +
+            "WHERE h.order_count IS DISTINCT FROM r.order_count OR h.quantity IS DISTINCT FROM r.quantity " +
+            "OR h.revenue IS DISTINCT FROM r.revenue " +
+            "ORDER BY 2, 1 " +
+            "ON CONFLICT (item_id, hour) DO UPDATE SET " +
+            "order_count = item_sales_hourly.order_count + EXCLUDED.order_count, " +
+            "quantity = item_sales_hourly.quantity + EXCLUDED.quantity, " +
+            "revenue = item_sales_hourly.revenue + EXCLUDED.revenue";
+
+    /**
+     * Removes the rows every order was removed from, skipping those a writer is changing.
+     */
+    private static final String REMOVE_EMPTY =
+            "DELETE FROM item_sales_hourly WHERE (item_id, hour) IN (" +
+            "SELECT item_id, hour FROM item_sales_hourly WHERE order_count = 0 AND quantity = 0 " +
+            "ORDER BY hour, item_id FOR UPDATE SKIP LOCKED)";
+
+    /**
+     * Transaction-scoped advisory lock key serializing rebuilds, which would otherwise apply the same
+     * correction twice.
+     */
+    private static final long REBUILD_LOCK = 0x73616c6573L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    /**
+     * Applies an order change to the rollup. The previous contents of the order are subtracted from
+     * their hour and the new contents added to theirs; rows whose delta cancels out are not written.
+     * Rows are written in (hour, item) order, so concurrent orders lock them in the same order and cannot
+     * deadlock.
+     *
+     * @param event The order change to apply.
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        // hour -> item id -> {order count delta, quantity delta}
+        Map<LocalDateTime, Map<Integer, int[]>> deltas = new TreeMap<>();
+        accumulate(deltas, event.getBefore(), -1);
+        accumulate(deltas, event.getAfter(), 1);
+
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((hour, items) -> items.forEach((itemId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                rows.add(new Object[] {itemId, hour, delta[0], delta[1], delta[1], itemId});
+            }
+        }));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+    }
+
+    /**
+     * Adds the line items of one order state, with the given sign, to the per-hour deltas.
+     *
+     * @param deltas The deltas being accumulated.
+     * @param state  The order state, or {@code null} if there is none.
+     * @param sign   {@code 1} to add the state, {@code -1} to remove it.
+     */
+    private static void accumulate(Map<LocalDateTime, Map<Integer, int[]>> deltas, OrderState state, int sign) {
+        if (state == null || state.getTime() == null) {
+            return;
+        }
+        Map<Integer, int[]> hour = deltas.computeIfAbsent(state.getTime().truncatedTo(ChronoUnit.HOURS), h -> new TreeMap<>());
+        state.getItems().forEach((itemId, quantity) -> {
+            int[] delta = hour.computeIfAbsent(itemId, id -> new int[2]);
+            delta[0] += sign;
+            delta[1] += sign * quantity;
+        });
+    }
+
+    /**
+     * Rebuilds the rollup from the order history without blocking the write path: rather than replacing the
+     * table, it corrects the rows that drifted from the history, such as those valued at an old item price.
+     * Orders keep being written during the rebuild; one touching a row being corrected waits until the
+     * rebuild commits. Rebuilds run one at a time.
+     *
+     * @return The number of rollup rows corrected.
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", REBUILD_LOCK);
+        int corrected = jdbcTemplate.update(CORRECT);
+        jdbcTemplate.update(REMOVE_EMPTY);
+        return corrected;
+    }
+
+    /**
+     * Generates the sales report for a time range. Whole hours inside the range are read from the rollup,
+     * and only the partial hours at the start and end of the range are computed from the orders themselves.
+     *
+     * @param startDate The inclusive start of the range.
+     * @param endDate   The inclusive end of the range.
+     * @return List of SalesReport objects ordered by descending order count.
+     */
+    public List<SalesReport> salesReport(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime firstHour = startDate.truncatedTo(ChronoUnit.HOURS);
+        if (firstHour.isBefore(startDate)) {
+            firstHour = firstHour.plusHours(1);
+        }
+        LocalDateTime lastHour = endDate.truncatedTo(ChronoUnit.HOURS);
+        if (!firstHour.isBefore(lastHour)) {
+            // Less than one whole hour: the live query is already cheap
+            return itemRepository.findItemsWithOrderCount(startDate, endDate);
+        }
+
+        Map<Integer, SalesReportEntry> merged = new LinkedHashMap<>();
+        merge(merged, itemRepository.findItemsWithOrderCountFromRollup(firstHour, lastHour));
+        if (startDate.isBefore(firstHour)) {
+            merge(merged, itemRepository.findItemsWithOrderCountBefore(startDate, firstHour));
+        }
+        merge(merged, itemRepository.findItemsWithOrderCount(lastHour, endDate));
+
+        List<SalesReport> report = new ArrayList<>(merged.values());
+        report.sort(Comparator.comparingInt(SalesReport::getOrderCount).reversed());
+        return report;
+    }
+
+    /**
+     * Adds partial report rows into the merged report, summing the order counts per item.
+     *
+     * @param merged The merged report keyed by item ID.
+     * @param rows   The partial report rows.
+     */
+    private static void merge(Map<Integer, SalesReportEntry> merged, List<SalesReport> rows) {
+        for (SalesReport row : rows) {
+            SalesReportEntry entry = merged.get(row.getId());
+            if (entry == null) {
+                merged.put(row.getId(), new SalesReportEntry(row.getId(), row.getItemName(), row.getOrderCount()));
+            } else {
+                entry.setOrderCount(entry.getOrderCount() + row.getOrderCount());
+            }
+        }
+    }
+}
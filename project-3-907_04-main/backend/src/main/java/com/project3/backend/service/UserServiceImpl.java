@@ -3,6 +3,7 @@ package com.project3.backend.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.project3.backend.cache.RoleCache;
 import com.project3.backend.entity.User;
 import com.project3.backend.repository.UserRepository;
 
@@ -18,6 +19,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RoleCache roleCache;
+
     /**
      * Fetches all users from the repository.
      *
@@ -47,11 +51,22 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Fetches the role of a user by email. If the user does not exist, returns the default role "customer".
+     * Roles are served from the {@link RoleCache}, so the database is only queried on a miss.
      *
      * @param email The email of the user.
      * @return The role of the user or the default role if the user does not exist.
      */
     public String fetchRole(String email) {
+        return roleCache.get(email, this::loadRole);
+    }
+
+    /**
+     * Loads the role of a user by email from the repository.
+     *
+     * @param email The email of the user.
+     * @return The role of the user or the default role if the user does not exist.
+     */
+    private String loadRole(String email) {
         List<User> userList = userRepository.findByEmail(email);
         User user = userList.size() > 0 ? userList.get(0) : null;
         if (user == null) {
@@ -61,21 +76,28 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Saves a user to the repository.
+     * Saves a user to the repository and drops the cached roles of both its previous and its new email.
      *
      * @param user The user to be saved.
      * @return The saved user.
      */
     public User saveUser(User user) {
-        return userRepository.save(user);
+        if (user.getId() != 0) {
+            userRepository.findById(user.getId()).ifPresent(previous -> roleCache.invalidate(previous.getEmail()));
+        }
+        User savedUser = userRepository.save(user);
+        roleCache.invalidate(savedUser.getEmail());
+        return savedUser;
     }
 
     /**
-     * Deletes a user by their ID from the repository.
+     * Deletes a user by their ID from the repository and drops its cached role.
      *
      * @param id The ID of the user to be deleted.
      */
     public void deleteUser(int id) {
+        String email = userRepository.findById(id).map(User::getEmail).orElse(null);
         userRepository.deleteById(id);
+        roleCache.invalidate(email);
     }
 }
@@ -0,0 +1,63 @@
+-- The schema as it stood before migrations were introduced.
+-- Databases that already hold these tables are baselined at this version (see application.properties)
+-- and start from V2; an empty database is created from here.
+
+CREATE TABLE item_category (
+    id serial PRIMARY KEY,
+    name varchar(255)
+);
+-- Generator used by ItemCategory, which does not name its own sequence
+CREATE SEQUENCE item_category_seq INCREMENT BY 50;
+
+CREATE TABLE item (
+    id serial PRIMARY KEY,
+    category_id integer NOT NULL DEFAULT 0,
+    name varchar(255),
+    gluten_free boolean NOT NULL DEFAULT false,
+    vegan boolean NOT NULL DEFAULT false,
+    price double precision NOT NULL DEFAULT 0,
+    size varchar(255),
+    extra_sauce boolean NOT NULL DEFAULT false,
+    image_url varchar(255)
+);
+
+CREATE TABLE ingredient (
+    id serial PRIMARY KEY,
+    name varchar(255),
+    stock integer NOT NULL DEFAULT 0,
+    restock integer NOT NULL DEFAULT 0,
+    amount_ordered integer NOT NULL DEFAULT 0,
+    price double precision NOT NULL DEFAULT 0,
+    gluten_free boolean NOT NULL DEFAULT false,
+    vegan boolean NOT NULL DEFAULT false
+);
+
+CREATE TABLE item_to_ingredient (
+    id serial PRIMARY KEY,
+    item_id integer NOT NULL,
+    ingredient_id integer NOT NULL,
+    quantity integer NOT NULL DEFAULT 0
+);
+
+CREATE TABLE "user" (
+    id serial PRIMARY KEY,
+    username varchar(255),
+    password varchar(255),
+    email varchar(255),
+    role varchar(255)
+);
+
+CREATE TABLE "order" (
+    id serial PRIMARY KEY,
+    price double precision NOT NULL DEFAULT 0,
+    time timestamp,
+    user_id integer NOT NULL DEFAULT 0,
+    status varchar(255)
+);
+
+CREATE TABLE item_to_order (
+    id serial PRIMARY KEY,
+    item_id integer NOT NULL,
+    order_id integer NOT NULL,
+    quantity integer NOT NULL DEFAULT 0
+);
@@ -0,0 +1,96 @@
+-- Range-partitions "order" and item_to_order by calendar month of the order time.
+-- Every report filters on the order time, so a date-bounded query only reads the months it covers,
+-- and an old month can be detached or dropped without rewriting the rest of the table.
+--
+-- item_to_order carries a copy of its order's time in order_time, which is its partition key.
+-- Both primary keys include the partition key, as Postgres requires.
+--
+-- To retire a month, detach the line items first, then the orders:
+--   ALTER TABLE item_to_order DETACH PARTITION item_to_order_y2023m01;
+--   ALTER TABLE "order" DETACH PARTITION order_y2023m01;
+
+-- Creates the monthly partitions of both tables for every month from first_month to last_month,
+-- skipping months that already exist. Returns the number of months created.
+-- The application calls this regularly to keep a few months of partitions ahead of the clock.
+CREATE FUNCTION create_order_partitions(first_month date, last_month date) RETURNS integer AS $$
+DECLARE
+    m date := date_trunc('month', first_month);
+    next_m date;
+    suffix text;
+    created integer := 0;
+BEGIN
+    WHILE m <= last_month LOOP
+        next_m := (m + interval '1 month')::date;
+        suffix := to_char(m, '"y"YYYY"m"MM');
+        IF to_regclass('order_' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF "order" FOR VALUES FROM (%L) TO (%L)',
+                           'order_' || suffix, m, next_m);
+            created := created + 1;
+        END IF;
+        IF to_regclass('item_to_order_' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF item_to_order FOR VALUES FROM (%L) TO (%L)',
+                           'item_to_order_' || suffix, m, next_m);
+        END IF;
+        m := next_m;
+    END LOOP;
+    RETURN created;
+END
+$$ LANGUAGE plpgsql;
+
+-- Move the existing tables aside, together with their primary key names
+ALTER TABLE "order" RENAME TO order_unpartitioned;
+ALTER TABLE item_to_order RENAME TO item_to_order_unpartitioned;
+DO $$
+DECLARE
+    pk record;
+BEGIN
+    FOR pk IN SELECT conrelid::regclass AS tbl, conname FROM pg_constraint
+              WHERE contype = 'p' AND conrelid IN ('order_unpartitioned'::regclass, 'item_to_order_unpartitioned'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s RENAME CONSTRAINT %I TO %I', pk.tbl, pk.conname, pk.tbl || '_pkey');
+    END LOOP;
+END
+$$;
+
+CREATE TABLE "order" (
+    id integer NOT NULL DEFAULT nextval('order_id_seq'),
+    price double precision NOT NULL DEFAULT 0,
+    time timestamp NOT NULL,
+    user_id integer NOT NULL DEFAULT 0,
+    status varchar(255),
+    CONSTRAINT order_pkey PRIMARY KEY (id, time)
+) PARTITION BY RANGE (time);
+
+CREATE TABLE item_to_order (
+    id integer NOT NULL DEFAULT nextval('item_to_order_id_seq'),
+    item_id integer NOT NULL,
+    order_id integer NOT NULL,
+    quantity integer NOT NULL DEFAULT 0,
+    order_time timestamp NOT NULL,
+    CONSTRAINT item_to_order_pkey PRIMARY KEY (id, order_time)
+) PARTITION BY RANGE (order_time);
+
+-- Rows outside every monthly partition land here. It stays empty as long as partitions are created
+-- ahead of time, which matters because a month cannot be added while this holds rows for it.
+CREATE TABLE order_default PARTITION OF "order" DEFAULT;
+CREATE TABLE item_to_order_default PARTITION OF item_to_order DEFAULT;
+
+SELECT create_order_partitions(
+    COALESCE((SELECT min(time) FROM order_unpartitioned), now())::date,
+    (now() + interval '3 months')::date);
+
+-- Orders without a time could not be partitioned; they are kept in the default partition at the epoch
+INSERT INTO "order" (id, price, time, user_id, status)
+SELECT id, price, COALESCE(time, timestamp 'epoch'), user_id, status
+FROM order_unpartitioned;
+
+INSERT INTO item_to_order (id, item_id, order_id, quantity, order_time)
+SELECT ito.id, ito.item_id, ito.order_id, ito.quantity, COALESCE(o.time, timestamp 'epoch')
+FROM item_to_order_unpartitioned ito
+LEFT JOIN order_unpartitioned o ON o.id = ito.order_id;
+
+ALTER SEQUENCE order_id_seq OWNED BY "order".id;
+ALTER SEQUENCE item_to_order_id_seq OWNED BY item_to_order.id;
+
+DROP TABLE item_to_order_unpartitioned;
+DROP TABLE order_unpartitioned;
@@ -0,0 +1,19 @@
+-- Secondary indexes. On the partitioned tables each index is created on every partition.
+-- IF NOT EXISTS keeps this safe on databases where they were already added by hand.
+
+-- Indexes backing the keyset-paginated GET /orders listing.
+-- Every page is ordered by (time DESC, id DESC), optionally narrowed by status or user.
+CREATE INDEX IF NOT EXISTS order_time_id_idx ON "order" (time, id);
+CREATE INDEX IF NOT EXISTS order_status_time_id_idx ON "order" (status, time, id);
+CREATE INDEX IF NOT EXISTS order_user_id_time_id_idx ON "order" (user_id, time, id);
+
+-- Line item lookups by order, and the partial-day report queries that read a few hours of a month.
+CREATE INDEX IF NOT EXISTS item_to_order_order_id_idx ON item_to_order (order_id);
+CREATE INDEX IF NOT EXISTS item_to_order_item_id_order_id_idx ON item_to_order (item_id, order_id);
+CREATE INDEX IF NOT EXISTS item_to_order_order_time_idx ON item_to_order (order_time);
+
+-- Recipe lookups by item, used by the reports and the stock decrement.
+CREATE INDEX IF NOT EXISTS item_to_ingredient_item_id_idx ON item_to_ingredient (item_id);
+
+-- Index backing the email to role lookup on the authentication path.
+CREATE INDEX IF NOT EXISTS user_email_idx ON "user" (email);
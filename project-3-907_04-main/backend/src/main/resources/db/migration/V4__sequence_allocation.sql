@@ -0,0 +1,7 @@
+-- Sequence increments matching the allocationSize of the pooled-lo ID generators.
+-- Each nextval reserves a block of 50 IDs, so Hibernate only calls the sequence once per 50 inserts
+-- and can batch the INSERT statements themselves.
+ALTER SEQUENCE order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_to_order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_to_ingredient_id_seq INCREMENT BY 50;
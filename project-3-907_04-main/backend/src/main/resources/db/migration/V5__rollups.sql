@@ -0,0 +1,34 @@
+-- Derived reporting tables maintained by the order write path.
+-- Each one can be rebuilt from the order history through its rebuild endpoint.
+
+-- Hourly per-item sales behind GET /salesReport (POST /salesReport/rebuild to backfill).
+CREATE TABLE IF NOT EXISTS item_sales_hourly (
+    item_id integer NOT NULL,
+    hour timestamp NOT NULL,
+    order_count integer NOT NULL DEFAULT 0,
+    quantity integer NOT NULL DEFAULT 0,
+    revenue double precision NOT NULL DEFAULT 0,
+    PRIMARY KEY (item_id, hour)
+);
+CREATE INDEX IF NOT EXISTS item_sales_hourly_hour_idx ON item_sales_hourly (hour);
+
+-- Daily item-pair co-occurrence counts behind GET /orderedTogether. The in-process index
+-- writes its dirty days here periodically and reloads them at startup
+-- (POST /orderedTogether/rebuild to backfill).
+CREATE TABLE IF NOT EXISTS item_pair_daily (
+    day date NOT NULL,
+    item_a integer NOT NULL,
+    item_b integer NOT NULL,
+    pair_count integer NOT NULL,
+    PRIMARY KEY (day, item_a, item_b)
+);
+
+-- Daily per-ingredient consumption behind GET /ingredientUsageReport
+-- (POST /ingredientUsageReport/rebuild to backfill).
+CREATE TABLE IF NOT EXISTS ingredient_usage_daily (
+    ingredient_id integer NOT NULL,
+    day date NOT NULL,
+    amount_used bigint NOT NULL DEFAULT 0,
+    PRIMARY KEY (ingredient_id, day)
+);
+CREATE INDEX IF NOT EXISTS ingredient_usage_daily_day_idx ON ingredient_usage_daily (day);
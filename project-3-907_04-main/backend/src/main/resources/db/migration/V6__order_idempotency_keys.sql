@@ -0,0 +1,10 @@
+-- Idempotency-Key values of POST /orders, written in the same transaction as the order they created.
+-- The backend answers retries from memory; this table catches the ones it no longer remembers, after a
+-- restart or eviction. Keys older than orders.idempotency.window-seconds are deleted periodically.
+CREATE TABLE IF NOT EXISTS order_idempotency_key (
+    idempotency_key varchar(255) PRIMARY KEY,
+    request_hash varchar(64) NOT NULL,
+    order_id integer,
+    created_at timestamp NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS order_idempotency_key_created_at_idx ON order_idempotency_key (created_at);
@@ -0,0 +1,11 @@
+-- Backfills the item_sales_hourly rollup from the order history. V5 created it empty, and the write path
+-- only applies the orders written since, so the whole hours of /salesReport missed all older orders.
+-- Migrations run before the application accepts orders, so no delta can race with the rebuild.
+-- This is the same query as POST /salesReport/rebuild; revenue is valued at the current item prices.
+DELETE FROM item_sales_hourly;
+
+INSERT INTO item_sales_hourly (item_id, hour, order_count, quantity, revenue)
+SELECT ito.item_id, date_trunc('hour', ito.order_time), COUNT(*), SUM(ito.quantity), SUM(ito.quantity * i.price)
+FROM item_to_order ito
+JOIN item i ON i.id = ito.item_id
+GROUP BY ito.item_id, date_trunc('hour', ito.order_time);
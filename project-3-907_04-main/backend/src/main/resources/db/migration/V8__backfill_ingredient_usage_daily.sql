@@ -0,0 +1,11 @@
+-- Backfills the ingredient_usage_daily ledger from the order history. V5 created it empty, and the write
+-- path only applies the orders written since, so the whole days of /ingredientUsageReport missed all older
+-- orders. Migrations run before the application accepts orders, so no delta can race with the rebuild.
+-- This is the same query as POST /ingredientUsageReport/rebuild, using the current recipes.
+DELETE FROM ingredient_usage_daily;
+
+INSERT INTO ingredient_usage_daily (ingredient_id, day, amount_used)
+SELECT iti.ingredient_id, CAST(ito.order_time AS date), SUM(iti.quantity)
+FROM item_to_order ito
+JOIN item_to_ingredient iti ON iti.item_id = ito.item_id
+GROUP BY iti.ingredient_id, CAST(ito.order_time AS date);
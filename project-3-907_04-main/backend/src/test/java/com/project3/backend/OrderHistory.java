@@ -0,0 +1,87 @@
+package com.project3.backend;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * An order history written straight into a migrated database, bypassing the write path, for the tests of the
+ * reports derived from it: eight ingredients, six items with their own prices and two or three ingredients
+ * each, and 400 orders of one to three items spread over {@link #DAYS} days from {@link #START}.
+ */
+public final class OrderHistory {
+
+    /**
+     * The start of the first day holding orders.
+     */
+    public static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    /**
+     * The number of days holding orders.
+     */
+    public static final int DAYS = 4;
+
+    /**
+     * The number of orders, with IDs from 1.
+     */
+    public static final int ORDERS = 400;
+
+    /**
+     * The number of items, with IDs from 1.
+     */
+    public static final int ITEMS = 6;
+
+    private OrderHistory() {
+    }
+
+    /**
+     * Writes the ingredients, items, recipes and orders. The same history is written on every call.
+     *
+     * @param dataSource The database, migrated at least to the order tables.
+     */
+    public static void seed(DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Random random = new Random(315);
+
+        List<Object[]> ingredients = new ArrayList<>();
+        for (int id = 1; id <= 8; id++) {
+            ingredients.add(new Object[] {id, "ingredient" + id});
+        }
+        jdbc.batchUpdate("INSERT INTO ingredient (id, name, stock, restock, amount_ordered, price, gluten_free, vegan) " +
+                "VALUES (?, ?, 1000, 100, 0, 1.0, false, false)", ingredients);
+
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> recipes = new ArrayList<>();
+        for (int id = 1; id <= ITEMS; id++) {
+            items.add(new Object[] {id, "item" + id, 3.0 + id});
+            for (int i = 0; i < 2 + id % 2; i++) {
+                recipes.add(new Object[] {recipes.size() + 1, id, 1 + (id + i * 3) % 8, 1 + random.nextInt(4)});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO item (id, category_id, name, gluten_free, vegan, price, size, extra_sauce, image_url) " +
+                "VALUES (?, 1, ?, false, false, ?, 'M', false, '')", items);
+        jdbc.batchUpdate("INSERT INTO item_to_ingredient (id, item_id, ingredient_id, quantity) VALUES (?, ?, ?, ?)", recipes);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> lines = new ArrayList<>();
+        for (int id = 1; id <= ORDERS; id++) {
+            Timestamp time = Timestamp.valueOf(START.plusSeconds(random.nextInt(DAYS * 24 * 3600)));
+            orders.add(new Object[] {id, time});
+            int first = 1 + random.nextInt(ITEMS);
+            int count = 1 + random.nextInt(3);
+            for (int i = 0; i < count; i++) {
+                lines.add(new Object[] {lines.size() + 1, 1 + (first + i) % ITEMS, id, 1 + random.nextInt(3), time});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO \"order\" (id, price, time, user_id, status) VALUES (?, 10, ?, 0, 'completed')", orders);
+        jdbc.batchUpdate("INSERT INTO item_to_order (id, item_id, order_id, quantity, order_time) VALUES (?, ?, ?, ?, ?)", lines);
+        // The sequences continue after the seeded IDs, so orders placed through the write path do not collide
+        jdbc.execute("SELECT setval('order_id_seq', 10000), setval('item_to_order_id_seq', 10000)");
+    }
+}
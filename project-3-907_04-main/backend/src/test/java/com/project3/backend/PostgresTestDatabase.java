@@ -0,0 +1,74 @@
+package com.project3.backend;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * An embedded Postgres database for tests that need the real schema, such as the partitioned order tables,
+ * the {@code ON CONFLICT} upserts of the rollups or the migrations themselves, none of which H2 can host.
+ * Each instance is a separate server, so tests using their own instance do not see each other's data.
+ */
+public class PostgresTestDatabase {
+
+    private final EmbeddedPostgres embedded;
+
+    /**
+     * Starts a new embedded Postgres server with an empty {@code postgres} database.
+     */
+    public PostgresTestDatabase() {
+        this(Map.of());
+    }
+
+    /**
+     * Starts a new embedded Postgres server with an empty {@code postgres} database and the given server
+     * settings, such as {@code shared_preload_libraries}.
+     *
+     * @param serverConfig The settings passed to the server at startup.
+     */
+    public PostgresTestDatabase(Map<String, String> serverConfig) {
+        try {
+            EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+            serverConfig.forEach(builder::setServerConfig);
+            embedded = builder.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a data source for setup work outside the application.
+     *
+     * @return The data source.
+     */
+    public DataSource getDataSource() {
+        return embedded.getPostgresDatabase();
+    }
+
+    /**
+     * Applies the migrations up to and including the given version.
+     *
+     * @param version The target version, such as {@code "6"}.
+     */
+    public void migrateTo(String version) {
+        Flyway.configure().dataSource(getDataSource()).target(version).load().migrate();
+    }
+
+    /**
+     * Points the application under test at this database.
+     *
+     * @param registry The registry of the test's {@code @DynamicPropertySource} method.
+     */
+    public void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> embedded.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+}
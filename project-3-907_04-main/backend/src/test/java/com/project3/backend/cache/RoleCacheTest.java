@@ -0,0 +1,79 @@
+package com.project3.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link RoleCache} serves roles until their TTL runs out, reloads them on invalidation and
+ * never caches a role loaded across an invalidation.
+ */
+class RoleCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final RoleCache cache = new RoleCache(300, 100, now::get);
+
+    private final Function<String, String> loader = email -> {
+        loads.incrementAndGet();
+        return "server";
+    };
+
+    @Test
+    void servesTheCachedRoleUntilTheTtlRunsOut() {
+        cache.get("a@example.com", loader);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(300) - 1);
+        cache.get("a@example.com", loader);
+        assertEquals(1, loads.get());
+
+        now.incrementAndGet();
+        cache.get("a@example.com", loader);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void reloadsAfterInvalidation() {
+        cache.get("a@example.com", loader);
+        cache.get("b@example.com", loader);
+
+        cache.invalidate("a@example.com");
+        cache.get("a@example.com", loader);
+        cache.get("b@example.com", loader);
+        assertEquals(3, loads.get());
+
+        cache.invalidateAll();
+        cache.get("b@example.com", loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void doesNotCacheARoleLoadedAcrossAnInvalidation() {
+        String role = cache.get("a@example.com", email -> {
+            cache.invalidate(email);
+            return "manager";
+        });
+
+        assertEquals("manager", role);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void dropsExpiredEntriesWhenFull() {
+        RoleCache small = new RoleCache(300, 2, now::get);
+        small.get("a@example.com", loader);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(300));
+        small.get("b@example.com", loader);
+        small.get("c@example.com", loader);
+
+        assertEquals(2, small.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.project3.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Tests for {@link CachingJwtDecoder} against the offline {@link LocalJwks}.
+ */
+class CachingJwtDecoderTest {
+
+    private final LocalJwks jwks = new LocalJwks();
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    /**
+     * Wraps the local decoder so that every full verification is counted.
+     *
+     * @return The counting decoder.
+     */
+    private JwtDecoder countingDecoder() {
+        JwtDecoder decoder = jwks.decoder();
+        return token -> {
+            verifications.incrementAndGet();
+            return decoder.decode(token);
+        };
+    }
+
+    @Test
+    void verifiesEachTokenOncePerLifetime() {
+        CachingJwtDecoder cachingDecoder = new CachingJwtDecoder(countingDecoder(), 100);
+        String token = jwks.mint("server@example.com", Instant.now().plus(Duration.ofHours(1)));
+
+        Jwt first = cachingDecoder.decode(token);
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, cachingDecoder.decode(token));
+        }
+        assertEquals(1, verifications.get());
+        assertEquals(10, cachingDecoder.getHitCount());
+    }
+
+    @Test
+    void reverifiesOnceTheTokenExpires() {
+        Instant expiry = Instant.now().plus(Duration.ofMinutes(5));
+        String token = jwks.mint("server@example.com", expiry);
+        CachingJwtDecoder beforeExpiry = new CachingJwtDecoder(countingDecoder(), 100, Clock.systemUTC());
+        beforeExpiry.decode(token);
+        beforeExpiry.decode(token);
+        assertEquals(1, verifications.get());
+
+        CachingJwtDecoder afterExpiry = new CachingJwtDecoder(countingDecoder(), 100,
+                Clock.fixed(expiry.plusSeconds(1), ZoneOffset.UTC));
+        afterExpiry.decode(token);
+        afterExpiry.decode(token);
+        assertEquals(3, verifications.get());
+        assertEquals(0, afterExpiry.size());
+    }
+
+    @Test
+    void doesNotCacheRejectedTokens() {
+        CachingJwtDecoder cachingDecoder = new CachingJwtDecoder(countingDecoder(), 100);
+        String token = jwks.mint("server@example.com", Instant.now().plus(Duration.ofHours(1)));
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThrows(JwtException.class, () -> cachingDecoder.decode(tampered));
+        assertThrows(JwtException.class, () -> cachingDecoder.decode(tampered));
+        assertEquals(2, verifications.get());
+        assertEquals(0, cachingDecoder.size());
+    }
+
+    @Test
+    void cachesEachTokenUnderItsOwnEntry() {
+        CachingJwtDecoder cachingDecoder = new CachingJwtDecoder(countingDecoder(), 100);
+        Instant expiry = Instant.now().plus(Duration.ofHours(1));
+        String server = jwks.mint("server@example.com", expiry);
+        String manager = jwks.mint("manager@example.com", expiry);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("server@example.com", cachingDecoder.decode(server).getClaimAsString("email"));
+            assertEquals("manager@example.com", cachingDecoder.decode(manager).getClaimAsString("email"));
+        }
+        assertEquals(2, verifications.get());
+        assertEquals(2, cachingDecoder.getMissCount());
+        assertEquals(4, cachingDecoder.getHitCount());
+        assertEquals(2, cachingDecoder.size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.project3.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.project3.backend.entity.Order;
+
+/**
+ * Checks that the object mapper prepared by {@link JacksonConfig} writes every property by default and only
+ * the requested properties of the projectable records when {@link FieldsProjectionAdvice} sets a filter.
+ */
+class FieldsProjectionAdviceTest {
+
+    private ObjectMapper mapper;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().fieldsProjectionCustomizer().customize(builder);
+        mapper = builder.build();
+        order = new Order(7, 12.5f, LocalDateTime.of(2024, 3, 1, 12, 0), 3);
+        order.setStatus("pending");
+    }
+
+    @Test
+    void writesEveryPropertyWithoutProjection() throws Exception {
+        JsonNode json = mapper.valueToTree(order);
+
+        assertEquals(7, json.get("id").asInt());
+        assertEquals("pending", json.get("status").asText());
+        assertEquals(12.5, json.get("price").asDouble());
+    }
+
+    @Test
+    void writesOnlyTheRequestedPropertiesOfRecords() throws Exception {
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .addFilter(FieldsProjectionAdvice.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept("id", "status"));
+        String json = mapper.writer(filters).writeValueAsString(Map.of("orders", List.of(order), "nextCursor", "abc"));
+
+        JsonNode page = mapper.readTree(json);
+        assertEquals("abc", page.get("nextCursor").asText());
+        List<String> names = new ArrayList<>();
+        page.get("orders").get(0).fieldNames().forEachRemaining(names::add);
+        assertEquals(List.of("id", "status"), names);
+    }
+}
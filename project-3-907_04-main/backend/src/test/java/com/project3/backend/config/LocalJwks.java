@@ -0,0 +1,110 @@
+package com.project3.backend.config;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * LocalJwks is an offline stand-in for Google's JWKS endpoint. It owns an RSA key pair, mints ID tokens
+ * signed with it and builds a decoder that verifies them the same way the production decoder does:
+ * the signature and issuer first, then a second full signature verification in place of the
+ * GoogleIdTokenVerifier check.
+ */
+public class LocalJwks {
+
+    // Issuer placed in every minted token
+    public static final String ISSUER = "https://accounts.google.com";
+
+    // Signing key; its public half is published through getJwkSetJson()
+    private final RSAKey key;
+
+    /**
+     * Generates a new RSA-2048 signing key.
+     */
+    public LocalJwks() {
+        try {
+            this.key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the public JWK set, as Google publishes it at its certs endpoint.
+     *
+     * @return The JWK set JSON.
+     */
+    public String getJwkSetJson() {
+        return new JWKSet(key.toPublicJWK()).toString();
+    }
+
+    /**
+     * Mints a signed ID token for the given email.
+     *
+     * @param email     The email claim of the token.
+     * @param expiresAt The expiry of the token.
+     * @return The encoded token.
+     */
+    public String mint(String email, Instant expiresAt) {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(email)
+                .claim("email", email)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * Builds a decoder equivalent to the production one, but verifying against the local key.
+     *
+     * @return The uncached decoder.
+     */
+    public JwtDecoder decoder() {
+        try {
+            NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+            RSASSAVerifier verifier = new RSASSAVerifier(key.toRSAPublicKey());
+            OAuth2TokenValidator<Jwt> idTokenValidator = token -> {
+                try {
+                    boolean valid = SignedJWT.parse(token.getTokenValue()).verify(verifier);
+                    return valid ? OAuth2TokenValidatorResult.success()
+                                 : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token"));
+                } catch (Exception e) {
+                    return OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token"));
+                }
+            };
+            decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                    JwtValidators.createDefaultWithIssuer(ISSUER), idTokenValidator));
+            return decoder;
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
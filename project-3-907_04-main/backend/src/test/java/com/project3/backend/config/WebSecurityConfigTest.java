@@ -0,0 +1,67 @@
+package com.project3.backend.config;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.project3.backend.PostgresTestDatabase;
+
+/**
+ * Checks the authorization rules of {@link WebSecurityConfig} for the endpoints that are not open to every caller.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class WebSecurityConfigTest {
+
+    private static final PostgresTestDatabase DATABASE = new PostgresTestDatabase();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static RequestPostProcessor role(String role) {
+        return jwt().authorities(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Test
+    void metricsAreOnlyServedToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(role("manager"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(role("admin"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void orderBatchesAreOnlyAcceptedFromStaff() throws Exception {
+        String batch = "[{\"price\":5,\"time\":\"2024-03-01T12:00:00\",\"items\":{}}]";
+        mockMvc.perform(post("/orders/batch").contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/orders/batch").with(role("customer")).contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/orders/batch").with(role("server")).contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,60 @@
+package com.project3.backend.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link DailySalesIndex} sums day ranges correctly while sales are added concurrently.
+ */
+class DailySalesIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void sumsHalfOpenDayRanges() {
+        DailySalesIndex index = new DailySalesIndex();
+        index.add(DAY, 7, 3);
+        index.add(DAY.plusDays(1), 7, 2);
+        index.add(DAY.plusDays(1), 900, 5);
+        index.add(DAY.plusDays(2), 900, 1);
+        index.add(DAY.plusDays(1), 900, -5);
+
+        assertEquals(Map.of(7, 5L), index.sum(DAY, DAY.plusDays(2)));
+        assertEquals(Map.of(900, 1L), index.sum(DAY.plusDays(2), DAY.plusDays(3)));
+        assertTrue(index.sum(DAY.plusDays(3), DAY.plusDays(10)).isEmpty());
+    }
+
+    @Test
+    void concurrentAddsAreAllCounted() throws Exception {
+        DailySalesIndex index = new DailySalesIndex();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    // New items keep appearing, so slots are assigned while other threads add
+                    index.add(DAY.plusDays(i % 30), (i * 31 + thread) % 500, 1);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 20_000; i++) {
+                expected.merge((i * 31 + t) % 500, 1L, Long::sum);
+            }
+        }
+        assertEquals(expected, index.sum(DAY, DAY.plusDays(30)));
+    }
+}
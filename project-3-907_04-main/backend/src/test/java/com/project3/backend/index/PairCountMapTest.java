@@ -0,0 +1,69 @@
+package com.project3.backend.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link PairCountMap} against a boxed {@link HashMap} under random additions and removals,
+ * which exercise resizing and the backward-shift deletion of linear probing.
+ */
+class PairCountMapTest {
+
+    @Test
+    void matchesHashMapUnderRandomUpdates() {
+        Random random = new Random(42);
+        PairCountMap map = new PairCountMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = PairCountMap.key(random.nextInt(60), random.nextInt(60));
+            int delta = random.nextBoolean() ? 1 : -1;
+            map.add(key, delta);
+            expected.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, count) -> assertEquals(count, map.get(key)));
+        Map<Long, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void keyIsIndependentOfOrder() {
+        long key = PairCountMap.key(7, 3);
+        assertEquals(key, PairCountMap.key(3, 7));
+        assertEquals(3, PairCountMap.first(key));
+        assertEquals(7, PairCountMap.second(key));
+    }
+
+    @Test
+    void topKeysReturnsHighestCountsFirst() {
+        Random random = new Random(7);
+        PairCountMap map = new PairCountMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            long key = PairCountMap.key(i, i + 1);
+            int count = 1 + random.nextInt(1000);
+            map.add(key, count);
+            expected.put(key, count);
+        }
+        long[] top = map.topKeys(10);
+        long[] wanted = expected.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(10)
+                .mapToLong(e -> e.getKey())
+                .toArray();
+        assertEquals(10, top.length);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(expected.get(wanted[i]), map.get(top[i]));
+        }
+        assertArrayEquals(new long[0], new PairCountMap().topKeys(5));
+        assertEquals(500, map.topKeys(Integer.MAX_VALUE).length);
+    }
+}
@@ -0,0 +1,64 @@
+package com.project3.backend.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.project3.backend.entity.Ingredient;
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.ItemToIngredient;
+
+/**
+ * Checks the excess item selection of {@link ExcessInventory}.
+ */
+class ExcessInventoryTest {
+
+    private static Item item(int id) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("item" + id);
+        return item;
+    }
+
+    private static ItemToIngredient recipe(int itemId, int ingredientId, int quantity) {
+        ItemToIngredient row = new ItemToIngredient();
+        row.setItemId(itemId);
+        row.setIngredientId(ingredientId);
+        row.setQuantity(quantity);
+        return row;
+    }
+
+    @Test
+    void selectsItemsBelowThresholdByRatioThenId() {
+        List<Item> items = List.of(item(1), item(2), item(3), item(4), item(5));
+        List<Ingredient> ingredients = List.of(
+                new Ingredient(10, "bun", 0, 100, 0, 0.0, false, false),
+                new Ingredient(11, "patty", 0, 50, 0, 0.0, false, false));
+        List<ItemToIngredient> recipes = List.of(
+                recipe(1, 10, 1), recipe(1, 11, 1),
+                recipe(2, 10, 2),
+                recipe(3, 11, 1),
+                recipe(4, 10, 1));
+        // item 1: max(4/100, 4/50) = 0.08; item 2: 10/100 = 0.10; item 3: 1/50 = 0.02;
+        // item 4: unsold; item 5: no recipe
+        Map<Integer, Long> sold = Map.of(1, 4L, 2, 5L, 3, 1L);
+
+        List<Integer> excess = ExcessInventory.select(items, recipes, ingredients, sold, 0.10)
+                .stream().map(Item::getId).toList();
+        assertEquals(List.of(4, 5, 3, 1), excess);
+    }
+
+    @Test
+    void ingredientWithoutRestockLevelIsNeverInExcessOnceUsed() {
+        List<Item> items = List.of(item(1), item(2));
+        List<Ingredient> ingredients = List.of(new Ingredient(10, "ice", 0, 0, 0, 0.0, false, false));
+        List<ItemToIngredient> recipes = List.of(recipe(1, 10, 1), recipe(2, 10, 1));
+
+        List<Integer> excess = ExcessInventory.select(items, recipes, ingredients, Map.of(1, 1L), 0.10)
+                .stream().map(Item::getId).toList();
+        assertEquals(List.of(2), excess);
+    }
+}
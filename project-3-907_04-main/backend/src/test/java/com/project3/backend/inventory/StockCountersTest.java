@@ -0,0 +1,113 @@
+package com.project3.backend.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link StockCounters} neither loses nor duplicates consumption when order threads and the
+ * flusher run concurrently, and that oversells are detected against the stored stock.
+ */
+class StockCountersTest {
+
+    private static final int INGREDIENTS = 8;
+
+    @Test
+    void concurrentConsumptionIsFlushedExactlyOnce() throws Exception {
+        StockCounters counters = new StockCounters();
+        // The "ingredient table" the flusher writes to; starts at 0 so it ends at minus the total consumption
+        long[] stored = new long[INGREDIENTS];
+        AtomicLongArray expected = new AtomicLongArray(INGREDIENTS);
+
+        int threads = 16;
+        int ordersPerThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ordersPerThread; i++) {
+                    // Skewed towards ingredient 0 so most threads hit the same hot counter
+                    int ingredient = random.nextInt(4) == 0 ? random.nextInt(INGREDIENTS) : 0;
+                    long amount = random.nextInt(10) == 0 ? -1 : 1 + random.nextInt(3);
+                    counters.consume(ingredient, amount);
+                    expected.addAndGet(ingredient, amount);
+                }
+                return null;
+            });
+        }
+        Thread flusher = new Thread(() -> {
+            int flushes = 0;
+            while (!done.get()) {
+                StockCounters.Drain drain = counters.drain();
+                // Every third write "fails" and must be retried by a later drain
+                if (++flushes % 3 != 0) {
+                    for (int i = 0; i < drain.size(); i++) {
+                        stored[drain.getIngredientId(i)] -= drain.getDelta(i);
+                    }
+                    counters.commit(drain);
+                }
+            }
+        });
+        flusher.start();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        done.set(true);
+        flusher.join();
+
+        // Final flush on shutdown
+        StockCounters.Drain drain = counters.drain();
+        for (int i = 0; i < drain.size(); i++) {
+            stored[drain.getIngredientId(i)] -= drain.getDelta(i);
+        }
+        counters.commit(drain);
+
+        for (int i = 0; i < INGREDIENTS; i++) {
+            assertEquals(-expected.get(i), stored[i], "ingredient " + i);
+        }
+        assertEquals(0, counters.drain().size());
+    }
+
+    @Test
+    void detectsOversellAgainstStoredStock() {
+        StockCounters counters = new StockCounters();
+        Map<Integer, Integer> stock = new HashMap<>(Map.of(1, 5));
+        counters.rebase(stock);
+
+        assertFalse(counters.consume(1, 5));
+        assertEquals(0, counters.estimate(1).getAsLong());
+        assertTrue(counters.consume(1, 2));
+        assertEquals(-2, counters.estimate(1).getAsLong());
+        assertEquals(Set.of(1), counters.getOversold());
+        assertEquals(1, counters.getOversellCount());
+
+        // Flush the 7 consumed, then a manual restock to 20 is read back
+        StockCounters.Drain drain = counters.drain();
+        assertEquals(7, drain.getDelta(0));
+        counters.commit(drain);
+        stock.put(1, 20);
+        counters.rebase(stock);
+        assertEquals(20, counters.estimate(1).getAsLong());
+        assertTrue(counters.getOversold().isEmpty());
+
+        // Ingredients whose stock has not been read yet are never reported as oversold
+        assertFalse(counters.consume(2, 100));
+        assertTrue(counters.estimate(2).isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.project3.backend.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.project3.backend.entity.Order;
+
+/**
+ * Checks that {@link OrderJournal} hands back, after a restart, exactly the orders appended since the last
+ * checkpoint, and stops at a record torn by a crash.
+ */
+class OrderJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static Order order(int id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setPrice(id * 1.5);
+        order.setTime(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_000_000));
+        order.setStatus("pending");
+        order.setItems(Map.of(id, 2, id + 1, 1));
+        return order;
+    }
+
+    private static List<Integer> ids(List<OrderJournal.Entry> entries) {
+        return entries.stream().map(entry -> entry.getOrder().getId()).toList();
+    }
+
+    @Test
+    void recoversTheOrdersAfterTheCheckpoint() throws Exception {
+        Path path = dir.resolve("orders.journal");
+        try (OrderJournal journal = new OrderJournal(path, 1 << 16, true)) {
+            assertEquals(0, journal.recover());
+            for (int id = 1; id <= 5; id++) {
+                assertNotNull(journal.append(order(id)));
+            }
+            List<OrderJournal.Entry> taken = journal.take(2, 0, TimeUnit.SECONDS);
+            assertEquals(List.of(1, 2), ids(taken));
+            journal.checkpoint(taken.get(1));
+            assertEquals(3, journal.getPendingCount());
+        }
+
+        try (OrderJournal journal = new OrderJournal(path, 1 << 16, true)) {
+            assertEquals(3, journal.recover());
+            List<OrderJournal.Entry> recovered = journal.take(10, 0, TimeUnit.SECONDS);
+            assertEquals(List.of(3, 4, 5), ids(recovered));
+            assertEquals(order(3), recovered.get(0).getOrder());
+
+            // Caught up: appending starts over at the front, and the stale records behind are not replayed
+            journal.checkpoint(recovered.get(2));
+            assertEquals(0, journal.getPendingBytes());
+            journal.append(order(6));
+        }
+
+        try (OrderJournal journal = new OrderJournal(path, 1 << 16, true)) {
+            assertEquals(1, journal.recover());
+            assertEquals(List.of(6), ids(journal.take(10, 0, TimeUnit.SECONDS)));
+        }
+    }
+
+    @Test
+    void stopsAtATornRecord() throws Exception {
+        Path path = dir.resolve("orders.journal");
+        try (OrderJournal journal = new OrderJournal(path, 1 << 16, true)) {
+            journal.recover();
+            journal.append(order(1));
+            journal.append(order(2));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            // Corrupt the last byte of the second record's payload
+            int recordSize = OrderJournal.encode(order(1)).length + 16;
+            file.seek(20 + 2L * recordSize - 1);
+            file.write(0x7f);
+        }
+
+        try (OrderJournal journal = new OrderJournal(path, 1 << 16, true)) {
+            assertEquals(1, journal.recover());
+            assertEquals(List.of(1), ids(journal.take(10, 0, TimeUnit.SECONDS)));
+            // The torn record is overwritten by the next append
+            journal.append(order(3));
+        }
+        try (OrderJournal journal = new OrderJournal(path, 1 << 16, true)) {
+            assertEquals(2, journal.recover());
+            assertEquals(List.of(1, 3), ids(journal.take(10, 0, TimeUnit.SECONDS)));
+        }
+    }
+
+    @Test
+    void refusesOrdersWhenFull() throws Exception {
+        try (OrderJournal journal = new OrderJournal(dir.resolve("orders.journal"), 256, false)) {
+            journal.recover();
+            int appended = 0;
+            while (journal.append(order(appended + 1)) != null) {
+                appended++;
+            }
+            assertTrue(appended > 0);
+            assertNull(journal.append(order(99)));
+            List<OrderJournal.Entry> taken = journal.take(appended, 0, TimeUnit.SECONDS);
+            journal.checkpoint(taken.get(taken.size() - 1));
+            assertNotNull(journal.append(order(99)));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.project3.backend.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+
+/**
+ * Checks that {@link DroppingAsyncAppender} keeps accepting events while its output is stalled, dropping and
+ * counting the ones that do not fit in the queue, and that every event is either written or counted when many
+ * threads log at once.
+ */
+class DroppingAsyncAppenderTest {
+
+    private static DroppingAsyncAppender start(LoggerContext context, AppenderBase<ILoggingEvent> output) {
+        output.setContext(context);
+        output.start();
+        DroppingAsyncAppender appender = new DroppingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(16);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.addAppender(output);
+        appender.start();
+        context.getLogger(DroppingAsyncAppenderTest.class).addAppender(appender);
+        return appender;
+    }
+
+    @Test
+    void dropsInsteadOfBlockingWhenTheQueueIsFull() throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger written = new AtomicInteger();
+        // An output that hangs until released, like a stdout nobody is reading
+        AppenderBase<ILoggingEvent> stalled = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.incrementAndGet();
+            }
+        };
+        DroppingAsyncAppender appender = start(context, stalled);
+        Logger logger = context.getLogger(DroppingAsyncAppenderTest.class);
+
+        long droppedBefore = DroppingAsyncAppender.getDroppedCount();
+        int events = 1000;
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            logger.info("event {}", i);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "appending blocked");
+
+        release.countDown();
+        appender.stop();
+        long dropped = DroppingAsyncAppender.getDroppedCount() - droppedBefore;
+        assertTrue(dropped > 0);
+        assertEquals(events, written.get() + dropped);
+    }
+
+    @Test
+    void countsEveryEventItDropsUnderConcurrentLogging() throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        AtomicInteger written = new AtomicInteger();
+        // An output slower than the loggers, so the queue stays at the edge of full
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                for (long until = System.nanoTime() + 1000; System.nanoTime() < until; ) {
+                    Thread.onSpinWait();
+                }
+                written.incrementAndGet();
+            }
+        };
+        DroppingAsyncAppender appender = start(context, slow);
+        // Capturing caller data makes every append slow, so loggers are often preempted between seeing room in
+        // the queue and queuing their event
+        appender.setIncludeCallerData(true);
+        Logger logger = context.getLogger(DroppingAsyncAppenderTest.class);
+
+        long droppedBefore = DroppingAsyncAppender.getDroppedCount();
+        int threads = 8;
+        int eventsPerThread = 50_000;
+        ExecutorService loggers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> logging = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                logging.add(loggers.submit(() -> {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        logger.info("event {}", i);
+                    }
+                }));
+            }
+            for (Future<?> future : logging) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            loggers.shutdownNow();
+        }
+
+        appender.stop();
+        long dropped = DroppingAsyncAppender.getDroppedCount() - droppedBefore;
+        assertTrue(dropped > 0);
+        assertEquals(threads * eventsPerThread, written.get() + dropped);
+    }
+}
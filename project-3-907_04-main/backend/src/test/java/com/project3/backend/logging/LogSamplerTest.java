@@ -0,0 +1,26 @@
+package com.project3.backend.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link LogSampler} samples each endpoint on its own counter.
+ */
+class LogSamplerTest {
+
+    @Test
+    void samplesEveryNthRequestPerEndpoint() {
+        LogSampler sampler = new LogSampler(10);
+        int orders = 0;
+        int users = 0;
+        for (int i = 0; i < 100; i++) {
+            orders += sampler.sample("saveOrder") ? 1 : 0;
+        }
+        for (int i = 0; i < 5; i++) {
+            users += sampler.sample("saveUser") ? 1 : 0;
+        }
+        assertEquals(10, orders);
+        assertEquals(1, users);
+    }
+}
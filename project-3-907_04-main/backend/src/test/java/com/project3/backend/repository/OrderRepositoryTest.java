@@ -0,0 +1,96 @@
+package com.project3.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.project3.backend.PostgresTestDatabase;
+import com.project3.backend.entity.Order;
+
+/**
+ * Runs the keyset page query of {@link OrderRepository#findPage} against the migrated Postgres schema: it must
+ * accept every optional parameter as null, and a page deep into the history must cost about as much to read
+ * as the first one.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class OrderRepositoryTest {
+
+    private static final PostgresTestDatabase DATABASE =
+            new PostgresTestDatabase(Map.of("shared_preload_libraries", "pg_stat_statements"));
+
+    private static final int ORDERS = 50_000;
+
+    // One order per second, counting back from here; every tenth order shares its time with the one before
+    private static final LocalDateTime NEWEST = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    static {
+        DATABASE.migrateTo("latest");
+        JdbcTemplate jdbc = new JdbcTemplate(DATABASE.getDataSource());
+        jdbc.update("INSERT INTO \"order\" (id, price, time, user_id, status) " +
+                "SELECT i, 5, CAST(? AS timestamp) - make_interval(secs => i - i / 10), 1, 'completed' FROM generate_series(1, ?) AS i",
+                Timestamp.valueOf(NEWEST), ORDERS);
+        jdbc.execute("ANALYZE \"order\"");
+        jdbc.execute("CREATE EXTENSION pg_stat_statements");
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void readsTheFirstPageWithEveryParameterNull() {
+        List<Order> page = orderRepository.findPage(null, null, null, null, null, null, PageRequest.of(0, 11));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 10, 9, 11), page.stream().map(Order::getId).toList());
+        assertEquals(NEWEST.minusSeconds(9), page.get(8).getTime());
+    }
+
+    @Test
+    void readsADeepPageThroughTheIndexBound() {
+        Order cursor = orderRepository.findById(ORDERS - 1000).orElseThrow();
+        jdbcTemplate.execute("SELECT pg_stat_statements_reset()");
+
+        // Past the first executions, so the page is also read with the generic plan of the prepared statement
+        List<Order> page = List.of();
+        for (int i = 0; i < 10; i++) {
+            page = orderRepository.findPage(null, null, null, null, cursor.getTime(), cursor.getId(), PageRequest.of(0, 20));
+        }
+
+        assertEquals(20, page.size());
+        assertTrue(page.stream().allMatch(order -> order.getTime().isBefore(cursor.getTime())
+                || order.getTime().equals(cursor.getTime()) && order.getId() < cursor.getId()));
+        Map<String, Object> stats = jdbcTemplate.queryForMap("SELECT SUM(calls) AS calls, " +
+                "SUM(shared_blks_hit + shared_blks_read) AS blocks FROM pg_stat_statements " +
+                "WHERE query ILIKE 'select%from \"order\"%order by%'");
+        assertEquals(10L, ((Number) stats.get("calls")).longValue());
+        long blocksPerPage = ((Number) stats.get("blocks")).longValue() / 10;
+        assertTrue(blocksPerPage < 50, "a page deep into the history read " + blocksPerPage + " blocks");
+    }
+}
@@ -0,0 +1,192 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.PostgresTestDatabase;
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.reports.OrderedTogetherReport;
+import com.project3.backend.repository.ItemRepository;
+
+/**
+ * Checks that {@link CoOccurrenceServiceImpl} builds its index from the order history when nothing is persisted,
+ * and that a rebuild neither blocks nor double counts the order changes committed while it reads the history.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class CoOccurrenceServiceImplTest {
+
+    private static final PostgresTestDatabase DATABASE = new PostgresTestDatabase();
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private static final LocalDateTime END = START.plusDays(5);
+
+    // Writes orders the way another application instance would, committing each statement
+    private static final JdbcTemplate WRITER = new JdbcTemplate(DATABASE.getDataSource());
+
+    static {
+        DATABASE.migrateTo("latest");
+        seedHistory();
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    /**
+     * Writes six items and 200 orders spread over five days directly, bypassing the write path.
+     */
+    private static void seedHistory() {
+        List<Object[]> items = new ArrayList<>();
+        for (int id = 1; id <= 6; id++) {
+            items.add(new Object[] {id, "item" + id});
+        }
+        WRITER.batchUpdate("INSERT INTO item (id, category_id, name, gluten_free, vegan, price, size, extra_sauce, image_url) " +
+                "VALUES (?, 1, ?, false, false, 5.0, 'M', false, '')", items);
+        Random random = new Random(315);
+        for (int id = 1; id <= 200; id++) {
+            int first = 1 + random.nextInt(6);
+            int[] itemIds = new int[1 + random.nextInt(4)];
+            for (int i = 0; i < itemIds.length; i++) {
+                itemIds[i] = 1 + (first + i) % 6;
+            }
+            writeOrder(id, START.plusSeconds(random.nextInt(5 * 24 * 3600)), itemIds);
+        }
+    }
+
+    /**
+     * Replaces an order and its line items in one committed transaction.
+     *
+     * @param id      The order ID.
+     * @param time    The order time.
+     * @param itemIds The items of the order, one of each.
+     * @return The state of the order as written.
+     */
+    private static OrderState writeOrder(int id, LocalDateTime time, int... itemIds) {
+        Map<Integer, Integer> items = new HashMap<>();
+        List<Object[]> lines = new ArrayList<>();
+        for (int itemId : itemIds) {
+            items.put(itemId, 1);
+            lines.add(new Object[] {id * 10 + lines.size(), itemId, id, Timestamp.valueOf(time)});
+        }
+        WRITER.update("WITH lines AS (DELETE FROM item_to_order WHERE order_id = ?) DELETE FROM \"order\" WHERE id = ?", id, id);
+        WRITER.update("INSERT INTO \"order\" (id, price, time, user_id, status) VALUES (?, 10, ?, 0, 'completed')",
+                id, Timestamp.valueOf(time));
+        WRITER.batchUpdate("INSERT INTO item_to_order (id, item_id, order_id, quantity, order_time) VALUES (?, ?, ?, 1, ?)", lines);
+        return new OrderState(id, 10, time, 0, "completed", items);
+    }
+
+    private CoOccurrenceServiceImpl newService(JdbcTemplate jdbc) {
+        CoOccurrenceServiceImpl service = new CoOccurrenceServiceImpl();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "itemRepository", itemRepository);
+        return service;
+    }
+
+    private static Map<String, Integer> pairs(List<OrderedTogetherReport> report) {
+        Map<String, Integer> pairs = new TreeMap<>();
+        report.forEach(row -> pairs.put(row.getItem1Name() + "|" + row.getItem2Name(), row.getPairCount()));
+        return pairs;
+    }
+
+    private Map<String, Integer> livePairs() {
+        return pairs(itemRepository.findItemsOrderedTogether(START, END));
+    }
+
+    @Test
+    void loadBuildsTheIndexFromHistoryWhenNothingIsPersisted() {
+        jdbcTemplate.update("DELETE FROM item_pair_daily");
+
+        CoOccurrenceServiceImpl service = newService(jdbcTemplate);
+        service.load();
+
+        assertEquals(livePairs(), pairs(service.orderedTogether(START, END, null)));
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_pair_daily", Integer.class) > 0);
+
+        CoOccurrenceServiceImpl restarted = newService(jdbcTemplate);
+        restarted.load();
+        assertEquals(livePairs(), pairs(restarted.orderedTogether(START, END, null)));
+    }
+
+    @Test
+    void rebuildCountsChangesCommittedAroundItsSnapshotOnce() throws Exception {
+        OrderState edited = writeOrder(1001, START.plusDays(1).plusHours(9), 1, 2);
+        JdbcTemplate jdbc = spy(jdbcTemplate);
+        CoOccurrenceServiceImpl service = newService(jdbc);
+        service.rebuild();
+
+        doAnswer(invocation -> {
+            // Committed before the snapshot, listener delivered before and after it
+            OrderState early = writeOrder(1002, START.plusDays(2).plusHours(10), 3, 4, 5);
+            service.onOrderChanged(new OrderChangedEvent(null, early));
+            OrderState late = writeOrder(1003, START.plusDays(2).plusHours(11), 1, 3);
+
+            invocation.callRealMethod();
+
+            // Committed after the snapshot; the listeners must not wait for the rebuild
+            OrderState added = writeOrder(1004, START.plusDays(3).plusHours(12), 2, 4, 6);
+            OrderState moved = writeOrder(1001, START.plusDays(4).plusHours(8), 2, 5);
+            CompletableFuture.runAsync(() -> {
+                service.onOrderChanged(new OrderChangedEvent(null, late));
+                service.onOrderChanged(new OrderChangedEvent(null, added));
+                service.onOrderChanged(new OrderChangedEvent(edited, moved));
+            }).get(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbc).query(startsWith("SELECT CAST(io1.order_time AS date)"), any(RowCallbackHandler.class));
+
+        service.rebuild();
+        assertEquals(livePairs(), pairs(service.orderedTogether(START, END, null)));
+
+        service.flush();
+        CoOccurrenceServiceImpl restarted = newService(jdbcTemplate);
+        restarted.load();
+        assertEquals(livePairs(), pairs(restarted.orderedTogether(START, END, null)));
+    }
+}
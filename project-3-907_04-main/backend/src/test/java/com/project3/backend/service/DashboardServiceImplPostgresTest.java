@@ -0,0 +1,103 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.PostgresTestDatabase;
+import com.project3.backend.dto.Dashboard;
+
+/**
+ * Checks that a dashboard section timing out has its query cancelled by Postgres, rather than left running
+ * on its connection after the dashboard was returned.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class DashboardServiceImplPostgresTest {
+
+    private static final PostgresTestDatabase DATABASE = new PostgresTestDatabase();
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 8, 0, 0);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ItemService itemService = mock(ItemService.class);
+    private final IngredientService ingredientService = mock(IngredientService.class);
+    private DashboardServiceImpl dashboards;
+
+    @BeforeEach
+    void setUp() {
+        dashboards = new DashboardServiceImpl(5, 500);
+        ReflectionTestUtils.setField(dashboards, "itemService", itemService);
+        ReflectionTestUtils.setField(dashboards, "ingredientService", ingredientService);
+        ReflectionTestUtils.setField(dashboards, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(dashboards, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboards.shutdown();
+    }
+
+    private int runningSleeps() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_stat_activity " +
+                "WHERE state = 'active' AND query LIKE 'SELECT 1 FROM pg_sleep%'", Integer.class);
+    }
+
+    @Test
+    void cancelsTheQueryOfATimedOutSection() throws Exception {
+        when(itemService.salesReport(START, END)).thenAnswer(call -> {
+            jdbcTemplate.queryForObject("SELECT 1 FROM pg_sleep(10)", Integer.class);
+            return List.of();
+        });
+        when(ingredientService.fetchIngredientUsageBetweenDates(START, END)).thenReturn(List.of());
+        when(ingredientService.fetchStockLessThanRestock()).thenReturn(List.of());
+        when(itemService.excessItems(START, END)).thenReturn(List.of());
+        when(itemService.fetchItemsOrderedTogether(any(), any(), any())).thenReturn(List.of());
+
+        Dashboard dashboard = dashboards.fetchDashboard(START, END, null);
+
+        assertEquals(Map.of("salesReport", "timeout"), dashboard.getErrors());
+        long giveUp = System.currentTimeMillis() + 2000;
+        while (runningSleeps() > 0 && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, runningSleeps());
+        assertEquals("0", jdbcTemplate.queryForObject("SHOW statement_timeout", String.class));
+    }
+}
@@ -0,0 +1,95 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.dto.Dashboard;
+import com.project3.backend.reports.RestockReport;
+
+/**
+ * Checks that {@link DashboardServiceImpl} runs the reports concurrently and returns the sections that
+ * finished when others fail or time out.
+ */
+class DashboardServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 8, 0, 0);
+
+    private final ItemService itemService = mock(ItemService.class);
+    private final IngredientService ingredientService = mock(IngredientService.class);
+    private DashboardServiceImpl dashboards;
+
+    @BeforeEach
+    void setUp() {
+        dashboards = new DashboardServiceImpl(5, 1000);
+        ReflectionTestUtils.setField(dashboards, "itemService", itemService);
+        ReflectionTestUtils.setField(dashboards, "ingredientService", ingredientService);
+        ReflectionTestUtils.setField(dashboards, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(dashboards, "jdbcTemplate", mock(JdbcTemplate.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboards.shutdown();
+    }
+
+    private static <T> T after(long millis, T result) throws InterruptedException {
+        Thread.sleep(millis);
+        return result;
+    }
+
+    @Test
+    void takesAsLongAsTheSlowestReport() throws Exception {
+        when(itemService.salesReport(START, END)).thenAnswer(call -> after(300, List.of()));
+        when(ingredientService.fetchIngredientUsageBetweenDates(START, END)).thenAnswer(call -> after(300, List.of()));
+        when(ingredientService.fetchStockLessThanRestock()).thenAnswer(call -> after(300, List.of()));
+        when(itemService.excessItems(START, END)).thenAnswer(call -> after(300, List.of()));
+        when(itemService.fetchItemsOrderedTogether(START, END, 10)).thenAnswer(call -> after(300, List.of()));
+
+        long start = System.nanoTime();
+        Dashboard dashboard = dashboards.fetchDashboard(START, END, 10);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 900, "reports ran one after another: " + elapsedMs + " ms");
+        assertTrue(dashboard.getErrors().isEmpty());
+        assertEquals(List.of(), dashboard.getOrderedTogether());
+    }
+
+    @Test
+    void returnsPartialResults() throws Exception {
+        List<RestockReport> restock = List.of(mock(RestockReport.class));
+        when(itemService.salesReport(START, END)).thenAnswer(call -> after(5000, List.of()));
+        when(ingredientService.fetchIngredientUsageBetweenDates(START, END)).thenReturn(List.of());
+        when(ingredientService.fetchStockLessThanRestock()).thenReturn(restock);
+        when(itemService.excessItems(START, END)).thenThrow(new IllegalStateException("boom"));
+        when(itemService.fetchItemsOrderedTogether(any(), any(), any())).thenReturn(List.of());
+
+        long start = System.nanoTime();
+        Dashboard dashboard = dashboards.fetchDashboard(START, END, null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 3000, "waited past the section timeout: " + elapsedMs + " ms");
+        assertEquals(Map.of("salesReport", "timeout", "excessItems", "failed"), dashboard.getErrors());
+        assertNull(dashboard.getSalesReport());
+        assertNull(dashboard.getExcessItems());
+        assertEquals(restock, dashboard.getRestockReport());
+        assertEquals(List.of(), dashboard.getIngredientUsageReport());
+        assertEquals(List.of(), dashboard.getOrderedTogether());
+    }
+}
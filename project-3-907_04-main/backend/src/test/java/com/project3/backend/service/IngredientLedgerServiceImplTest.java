@@ -0,0 +1,278 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.OrderHistory;
+import com.project3.backend.PostgresTestDatabase;
+import com.project3.backend.entity.Order;
+import com.project3.backend.reports.IngredientUsageReport;
+import com.project3.backend.repository.IngredientRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Checks that the {@code ingredient_usage_daily} ledger holds the recipe amounts of the line items of every
+ * day: after the V8 migration backfilled it, as orders are placed, edited and deleted through the write path,
+ * including concurrently, and after a rebuild picks up a changed recipe without holding up the orders written
+ * meanwhile. {@link IngredientLedgerServiceImpl#ingredientUsage} must then agree with the live query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({IngredientLedgerServiceImpl.class, OrderServiceImpl.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class IngredientLedgerServiceImplTest {
+
+    private static final PostgresTestDatabase DATABASE = new PostgresTestDatabase();
+
+    private static final LocalDateTime START = OrderHistory.START;
+
+    /**
+     * The ledger as the order history and the current recipes define it, like the V8 backfill.
+     */
+    private static final String HISTORY =
+            "SELECT iti.ingredient_id, CAST(ito.order_time AS date) AS day, CAST(SUM(iti.quantity) AS bigint) AS amount_used " +
+            "FROM item_to_order ito JOIN item_to_ingredient iti ON iti.item_id = ito.item_id " +
+            "GROUP BY iti.ingredient_id, CAST(ito.order_time AS date) ORDER BY 1, 2";
+
+    /**
+     * The rows of the ledger, leaving out those every order was removed from.
+     */
+    private static final String LEDGER =
+            "SELECT ingredient_id, day, CAST(amount_used AS bigint) AS amount_used FROM ingredient_usage_daily " +
+            "WHERE amount_used <> 0 ORDER BY 1, 2";
+
+    static {
+        // A database holding order history from before the ledger; the application migrates the rest
+        DATABASE.migrateTo("6");
+        OrderHistory.seed(DATABASE.getDataSource());
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @Autowired
+    private IngredientLedgerServiceImpl ingredientLedgerService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private void assertLedgerMatchesHistory(String when) {
+        entityManager.flush();
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(LEDGER), when);
+    }
+
+    private void assertUsageMatchesLiveQuery(LocalDateTime startDate, LocalDateTime endDate) {
+        entityManager.flush();
+        Map<String, Integer> live = amounts(ingredientRepository.findIngredientUsageBetweenDates(startDate, endDate));
+        assertFalse(live.isEmpty(), startDate + " - " + endDate);
+        assertEquals(live, amounts(ingredientLedgerService.ingredientUsage(startDate, endDate)), startDate + " - " + endDate);
+    }
+
+    private static Map<String, Integer> amounts(List<IngredientUsageReport> report) {
+        Map<String, Integer> amounts = new TreeMap<>();
+        report.forEach(row -> amounts.put(row.getIngredientName(), row.getAmountUsed()));
+        return amounts;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Order order(int id, LocalDateTime time, Map<Integer, Integer> items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setPrice(10);
+        order.setTime(time);
+        order.setStatus("completed");
+        order.setItems(items);
+        return order;
+    }
+
+    @Test
+    void ledgerMatchesTheHistoryAfterTheMigration() {
+        assertLedgerMatchesHistory("after the migration");
+    }
+
+    @Test
+    void usageReportMatchesTheLiveQueryOverPartialDays() {
+        assertUsageMatchesLiveQuery(START, START.plusDays(OrderHistory.DAYS));
+        assertUsageMatchesLiveQuery(START.plusHours(7).plusMinutes(13), START.plusDays(3).plusHours(2));
+        assertUsageMatchesLiveQuery(START.plusDays(1), START.plusDays(2).plusSeconds(30));
+        assertUsageMatchesLiveQuery(START.plusDays(2).plusHours(3), START.plusDays(2).plusHours(20));
+    }
+
+    @Test
+    void placingEditingAndDeletingOrdersKeepsTheLedgerCurrent() {
+        LocalDateTime placed = START.plusDays(1).plusHours(12);
+        int id = orderService.saveOrder(order(0, placed, Map.of(1, 2, 2, 1, 3, 1))).getId();
+        assertLedgerMatchesHistory("after placing an order");
+
+        // A new quantity uses no more of the recipe, as in the live query
+        orderService.saveOrder(order(id, placed, Map.of(1, 5, 2, 1, 3, 1)));
+        assertLedgerMatchesHistory("after changing a quantity");
+
+        // Into another day, with item 1 kept, 2 and 3 dropped and 4 added
+        orderService.saveOrder(order(id, START.plusDays(3).plusHours(8), Map.of(1, 1, 4, 2)));
+        assertLedgerMatchesHistory("after moving the order to another day");
+        assertUsageMatchesLiveQuery(placed.minusHours(3), START.plusDays(3).plusHours(10));
+
+        orderService.deleteOrder(id);
+        orderService.deleteOrder(11);
+        assertLedgerMatchesHistory("after deleting orders");
+        assertUsageMatchesLiveQuery(START, START.plusDays(OrderHistory.DAYS));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentEditsNeitherDeadlockNorDrift() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> edits = new ArrayList<>();
+            for (int writer = 0; writer < 8; writer++) {
+                int firstId = 201 + writer * 5;
+                Random random = new Random(writer);
+                edits.add(writers.submit(() -> {
+                    // Every edit moves one of this writer's orders between two days whose ingredients all writers share
+                    for (int i = 0; i < 25; i++) {
+                        Map<Integer, Integer> items = new HashMap<>();
+                        for (int n = 0; n < 3; n++) {
+                            items.put(1 + random.nextInt(OrderHistory.ITEMS), 1);
+                        }
+                        LocalDateTime time = START.plusDays(1 + random.nextInt(2)).plusMinutes(random.nextInt(24 * 60));
+                        orderService.saveOrder(order(firstId + random.nextInt(5), time, items));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> edit : edits) {
+                edit.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(LEDGER));
+    }
+
+    @Test
+    void rebuildAppliesTheCurrentRecipes() {
+        jdbcTemplate.update("UPDATE item_to_ingredient SET quantity = quantity + 2 WHERE item_id = 3");
+        assertNotEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(LEDGER));
+
+        ingredientLedgerService.rebuild();
+
+        assertLedgerMatchesHistory("after the rebuild");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuildDoesNotHoldUpOrdersWrittenMeanwhile() throws Exception {
+        jdbcTemplate.update("UPDATE ingredient_usage_daily SET amount_used = amount_used + 4 WHERE ingredient_id = 3 AND day = ?",
+                START.toLocalDate());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch corrected = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // The rebuild keeps its transaction open after correcting the drifted row
+            Future<?> rebuild = threads.submit(() -> transaction.executeWithoutResult(status -> {
+                ingredientLedgerService.rebuild();
+                corrected.countDown();
+                await(commit);
+            }));
+            await(corrected);
+
+            // An order on another day is written without waiting for the rebuild to commit
+            threads.submit(() -> orderService.saveOrder(order(0, START.plusDays(2).plusHours(6), Map.of(2, 1, 3, 2))))
+                    .get(5, TimeUnit.SECONDS);
+
+            commit.countDown();
+            rebuild.get(30, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            threads.shutdownNow();
+        }
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(LEDGER));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuildCorrectsRowsAnOpenOrderIsWriting() throws Exception {
+        // Item 4 uses ingredients 5 and 8
+        jdbcTemplate.update("UPDATE ingredient_usage_daily SET amount_used = amount_used + 7 WHERE ingredient_id = 5");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // The order has updated a drifted row but not committed when the rebuild reads its snapshot
+            Future<?> writer = threads.submit(() -> transaction.executeWithoutResult(status -> {
+                orderService.saveOrder(order(0, START.plusDays(2).plusHours(10), Map.of(4, 1)));
+                written.countDown();
+                await(commit);
+            }));
+            await(written);
+            Future<Integer> rebuild = threads.submit(ingredientLedgerService::rebuild);
+            Thread.sleep(500);
+            assertFalse(rebuild.isDone(), "the rebuild corrects the row the order is writing once it commits");
+
+            commit.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            rebuild.get(30, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            threads.shutdownNow();
+        }
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(LEDGER));
+    }
+}
@@ -0,0 +1,107 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.project3.backend.entity.Item;
+import com.project3.backend.entity.ItemToIngredient;
+import com.project3.backend.repository.ItemToIngredientRepository;
+
+/**
+ * Checks that {@link ItemServiceImpl#saveItems} diffs recipes against the stored rows, including when the
+ * same item appears more than once in a batch.
+ */
+@DataJpaTest
+@Import(ItemServiceImpl.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:items;MODE=PostgreSQL",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+class ItemServiceImplTest {
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemToIngredientRepository itemToIngredientRepository;
+
+    @MockBean
+    private MenuSnapshotService menuSnapshotService;
+
+    @MockBean
+    private SalesRollupService salesRollupService;
+
+    @MockBean
+    private CoOccurrenceService coOccurrenceService;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    @MockBean
+    private ExcessItemsService excessItemsService;
+
+    private static Item item(int id, Map<Integer, Integer> ingredients) {
+        Item item = new Item(id, 1, "Bowl", "M", false, false, false, 8.5);
+        item.setIngredients(ingredients);
+        return item;
+    }
+
+    private Map<Integer, Integer> storedRecipe(int itemId) {
+        return itemToIngredientRepository.findByItemId(itemId).stream()
+                .collect(Collectors.toMap(ItemToIngredient::getIngredientId, ItemToIngredient::getQuantity));
+    }
+
+    @Test
+    void updatesInsertsAndDeletesRecipeRows() {
+        int id = itemService.saveItem(item(0, Map.of(1, 1, 2, 1))).getId();
+
+        itemService.saveItems(new ArrayList<>(List.of(item(id, Map.of(1, 3, 3, 1)))));
+
+        assertEquals(Map.of(1, 3, 3, 1), storedRecipe(id));
+    }
+
+    @Test
+    void keepsTheRecipeWhenNoIngredientsAreSubmitted() {
+        int id = itemService.saveItem(item(0, Map.of(1, 2))).getId();
+
+        itemService.saveItems(new ArrayList<>(List.of(item(id, null))));
+
+        assertEquals(Map.of(1, 2), storedRecipe(id));
+    }
+
+    @Test
+    void appliesTheLastRecipeOfAnItemSubmittedTwice() {
+        int id = itemService.saveItem(item(0, Map.of(1, 1))).getId();
+
+        itemService.saveItems(new ArrayList<>(List.of(
+                item(id, Map.of(1, 1, 2, 1)),
+                item(id, Map.of(2, 2, 3, 1)))));
+
+        assertEquals(1, itemToIngredientRepository.findByItemId(id).stream()
+                .filter(row -> row.getIngredientId() == 2).count());
+        assertEquals(Map.of(2, 2, 3, 1), storedRecipe(id));
+    }
+
+    @Test
+    void insertsTheRecipeOfANewItemSubmittedTwiceOnce() {
+        Item item = item(0, Map.of(1, 1, 2, 2));
+
+        List<Item> saved = itemService.saveItems(new ArrayList<>(List.of(item, item)));
+
+        assertEquals(saved.get(0).getId(), saved.get(1).getId());
+        assertEquals(2, itemToIngredientRepository.findByItemId(saved.get(0).getId()).size());
+        assertEquals(Map.of(1, 1, 2, 2), storedRecipe(saved.get(0).getId()));
+    }
+}
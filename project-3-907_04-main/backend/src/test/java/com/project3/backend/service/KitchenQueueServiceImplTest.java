@@ -0,0 +1,81 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+
+/**
+ * Checks that {@link KitchenQueueServiceImpl} keeps its index of open orders in step with the order changes.
+ */
+class KitchenQueueServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private KitchenQueueServiceImpl kitchenQueue;
+
+    @BeforeEach
+    void setUp() {
+        kitchenQueue = new KitchenQueueServiceImpl(new String[] {"completed", "cancelled"}, 24, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        kitchenQueue.shutdown();
+    }
+
+    private static OrderState order(int id, LocalDateTime time, String status) {
+        return new OrderState(id, 9.99, time, 1, status, Map.of(1, 2));
+    }
+
+    private List<Integer> openIds(Set<String> statuses) {
+        return kitchenQueue.fetchOpenOrders(statuses).stream().map(OrderState::getId).toList();
+    }
+
+    @Test
+    void listsOpenOrdersOldestFirstAndByStatus() {
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, order(2, NOW.minusMinutes(5), "preparing")));
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, order(1, NOW.minusMinutes(10), "pending")));
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, order(3, NOW, "pending")));
+
+        assertEquals(List.of(1, 2, 3), openIds(null));
+        assertEquals(List.of(1, 3), openIds(Set.of("pending")));
+        assertEquals(Map.of(1, 2), kitchenQueue.fetchOpenOrders(null).get(0).getItems());
+    }
+
+    @Test
+    void movesOrdersBetweenStatusesAndDropsClosedOnes() {
+        OrderState pending = order(1, NOW, "pending");
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, pending));
+        OrderState preparing = order(1, NOW, "preparing");
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(pending, preparing));
+
+        assertTrue(openIds(Set.of("pending")).isEmpty());
+        assertEquals(List.of(1), openIds(Set.of("preparing")));
+
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(preparing, order(1, NOW, "Completed")));
+        assertTrue(openIds(null).isEmpty());
+
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, order(2, NOW, "pending")));
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(order(2, NOW, "pending"), null));
+        assertTrue(openIds(null).isEmpty());
+    }
+
+    @Test
+    void ignoresOrdersWithoutStatusOrPastTheMaximumAge() {
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, order(1, NOW, null)));
+        kitchenQueue.onOrderChanged(new OrderChangedEvent(null, order(2, NOW.minusDays(2), "pending")));
+
+        assertTrue(openIds(null).isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.project3.backend.dto.StockAlert;
+import com.project3.backend.entity.Ingredient;
+
+/**
+ * Checks that {@link LowStockAlertServiceImpl} tracks which ingredients are below their restock level as
+ * stock changes, including under concurrent updates.
+ */
+class LowStockAlertServiceImplTest {
+
+    private static Ingredient ingredient(int id, String name, int stock, int restock) {
+        return new Ingredient(id, name, stock, restock, 0, 0.0, false, false);
+    }
+
+    @Test
+    void tracksThresholdCrossings() {
+        LowStockAlertServiceImpl alerts = new LowStockAlertServiceImpl(1000);
+        alerts.refresh(List.of(ingredient(1, "bun", 50, 20), ingredient(2, "patty", 5, 10)));
+        assertEquals(List.of(2), alerts.fetchLowStock().stream().map(StockAlert::getIngredientId).toList());
+
+        alerts.stockChanged(1, 19);
+        alerts.stockChanged(2, 12);
+        List<StockAlert> low = alerts.fetchLowStock();
+        assertEquals(1, low.size());
+        assertEquals("bun", low.get(0).getName());
+        assertEquals("low", low.get(0).getType());
+        assertEquals(19, low.get(0).getStock());
+
+        // A manual restock read back by the inventory engine clears the alert; deleted ingredients disappear
+        alerts.refresh(List.of(ingredient(1, "bun", 100, 20)));
+        assertTrue(alerts.fetchLowStock().isEmpty());
+        alerts.stockChanged(2, 0);
+        assertTrue(alerts.fetchLowStock().isEmpty());
+    }
+
+    @Test
+    void settlesOnLastStockUnderConcurrentUpdates() throws Exception {
+        LowStockAlertServiceImpl alerts = new LowStockAlertServiceImpl(1000);
+        alerts.refresh(List.of(ingredient(1, "bun", 50, 20)));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    alerts.stockChanged(1, i % 40);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        alerts.stockChanged(1, 25);
+        assertTrue(alerts.fetchLowStock().isEmpty());
+        alerts.stockChanged(1, 3);
+        assertEquals(1, alerts.fetchLowStock().size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project3.backend.dto.MenuChanges;
+import com.project3.backend.entity.Item;
+import com.project3.backend.repository.ItemCategoryRepository;
+import com.project3.backend.repository.ItemRepository;
+
+/**
+ * Checks that the menu change log of {@link MenuSnapshotServiceImpl} returns the changes since a version and
+ * asks clients to reset once it was compacted past their version.
+ */
+class MenuSnapshotServiceImplTest {
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemCategoryRepository itemCategoryRepository = mock(ItemCategoryRepository.class);
+    private final List<Item> items = new ArrayList<>();
+    private MenuSnapshotServiceImpl menu;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(items));
+        when(itemCategoryRepository.findAll()).thenReturn(List.of());
+        menu = new MenuSnapshotServiceImpl();
+        ReflectionTestUtils.setField(menu, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(menu, "itemCategoryRepository", itemCategoryRepository);
+        ReflectionTestUtils.setField(menu, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(menu, "cborConverter", new MappingJackson2CborHttpMessageConverter());
+        ReflectionTestUtils.setField(menu, "maxChanges", 3);
+    }
+
+    private Item item(int id, double price) {
+        items.removeIf(item -> item.getId() == id);
+        Item item = new Item(id, 1, "item" + id, "M", false, false, false, price);
+        items.add(item);
+        return item;
+    }
+
+    @Test
+    void returnsTheItemsChangedAndDeletedSinceAVersion() {
+        item(1, 5);
+        item(2, 6);
+        long start = menu.fetchSnapshot().getVersion();
+
+        item(1, 7);
+        menu.invalidate(List.of(1));
+        items.removeIf(item -> item.getId() == 2);
+        menu.invalidate(List.of(2));
+        item(3, 8);
+        menu.invalidate(List.of(3));
+
+        MenuChanges changes = menu.fetchChanges(start);
+        assertFalse(changes.isReset());
+        assertEquals(List.of(1, 3), changes.getItems().stream().map(Item::getId).toList());
+        assertEquals(7, changes.getItems().get(0).getPrice());
+        assertEquals(List.of(2), changes.getDeletedItemIds());
+
+        MenuChanges none = menu.fetchChanges(changes.getVersion());
+        assertEquals(changes.getVersion(), none.getVersion());
+        assertTrue(none.getItems().isEmpty());
+        assertTrue(none.getDeletedItemIds().isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTheLastChangeOfEachItem() {
+        item(1, 5);
+        long start = menu.fetchSnapshot().getVersion();
+        for (int price = 6; price < 10; price++) {
+            item(1, price);
+            menu.invalidate(List.of(1));
+        }
+
+        MenuChanges changes = menu.fetchChanges(start);
+        assertFalse(changes.isReset());
+        assertEquals(1, changes.getItems().size());
+        assertEquals(9, changes.getItems().get(0).getPrice());
+    }
+
+    @Test
+    void resetsClientsBehindTheCompactedLogOrFromAnotherRun() {
+        long start = menu.fetchSnapshot().getVersion();
+        for (int id = 1; id <= 4; id++) {
+            item(id, 5);
+            menu.invalidate(List.of(id));
+        }
+
+        assertTrue(menu.fetchChanges(start).isReset());
+        assertTrue(menu.fetchChanges(0).isReset());
+        assertTrue(menu.fetchChanges(Long.MAX_VALUE).isReset());
+        assertEquals(List.of(4), menu.fetchChanges(start + 3).getItems().stream().map(Item::getId).toList());
+    }
+}
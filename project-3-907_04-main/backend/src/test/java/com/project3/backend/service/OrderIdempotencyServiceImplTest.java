@@ -0,0 +1,105 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.project3.backend.entity.Order;
+
+/**
+ * Checks that {@link OrderIdempotencyServiceImpl} writes one order per key, answering retries, including
+ * concurrent ones, from memory.
+ */
+class OrderIdempotencyServiceImplTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private OrderIdempotencyServiceImpl idempotency;
+
+    @BeforeEach
+    void setUp() {
+        idempotency = new OrderIdempotencyServiceImpl(60, 1000, 5000);
+        ReflectionTestUtils.setField(idempotency, "orderService", orderService);
+        ReflectionTestUtils.setField(idempotency, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(idempotency, "transactionTemplate", transactionTemplate);
+        when(transactionTemplate.execute(any())).thenAnswer(call -> call.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        when(orderService.saveOrder(any())).thenAnswer(call -> {
+            Thread.sleep(100);
+            Order order = call.getArgument(0);
+            order.setId(nextId.getAndIncrement());
+            return order;
+        });
+    }
+
+    private static Order order(int itemId) {
+        Order order = new Order();
+        order.setPrice(8.0);
+        order.setStatus("pending");
+        order.setItems(Map.of(itemId, 1));
+        return order;
+    }
+
+    @Test
+    void writesOneOrderForConcurrentRetries() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Order>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> idempotency.saveOrder("kiosk-3:41", order(7))));
+        }
+        for (Future<Order> result : results) {
+            assertEquals(1, result.get().getId());
+        }
+        pool.shutdown();
+
+        verify(orderService, times(1)).saveOrder(any());
+        assertEquals(7, idempotency.getDeduplicatedCount("memory"));
+        assertSame(results.get(0).get(), idempotency.saveOrder("kiosk-3:41", order(7)));
+
+        assertEquals(2, idempotency.saveOrder("kiosk-3:42", order(7)).getId());
+    }
+
+    @Test
+    void rejectsAKeyReusedForAnotherOrder() {
+        idempotency.saveOrder("kiosk-3:43", order(7));
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> idempotency.saveOrder("kiosk-3:43", order(8)));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void retriesAfterAFailedSubmission() {
+        doThrow(new IllegalStateException("database down")).doAnswer(call -> call.getArgument(0))
+                .when(orderService).saveOrder(any());
+        assertThrows(IllegalStateException.class, () -> idempotency.saveOrder("kiosk-3:44", order(7)));
+        idempotency.saveOrder("kiosk-3:44", order(7));
+        verify(orderService, times(2)).saveOrder(any());
+        assertEquals(1, idempotency.size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project3.backend.entity.Order;
+
+/**
+ * Checks that {@link OrderJournalServiceImpl} refuses orders the database would reject before acknowledging
+ * them, and moves an acknowledged order the database still rejects to the dead letter file.
+ */
+class OrderJournalServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final OrderService orderService = mock(OrderService.class);
+    private final Set<Integer> inserted = ConcurrentHashMap.newKeySet();
+    private OrderJournalServiceImpl journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Rejects any batch holding an order priced 13, as a constraint violation would
+        when(orderService.insertJournaled(anyList())).thenAnswer(call -> {
+            List<Order> orders = call.getArgument(0);
+            if (orders.stream().anyMatch(order -> order.getPrice() == 13)) {
+                throw new DataIntegrityViolationException("rejected");
+            }
+            orders.forEach(order -> inserted.add(order.getId()));
+            return orders.size();
+        });
+        AtomicInteger sequence = new AtomicInteger();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), any()))
+                .thenAnswer(call -> List.of(1 + 50 * sequence.getAndIncrement(), 1 + 50 * sequence.getAndIncrement()));
+
+        journal = new OrderJournalServiceImpl();
+        ReflectionTestUtils.setField(journal, "orderService", orderService);
+        ReflectionTestUtils.setField(journal, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(journal, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "path", dir.resolve("orders.journal").toString());
+        ReflectionTestUtils.setField(journal, "deadLetterPath", dir.resolve("dead/orders.dead-letter").toString());
+        ReflectionTestUtils.setField(journal, "sizeMb", 1);
+        ReflectionTestUtils.setField(journal, "sync", false);
+        ReflectionTestUtils.setField(journal, "batchSize", 200);
+        ReflectionTestUtils.setField(journal, "retryMs", 10L);
+        ReflectionTestUtils.setField(journal, "idBlocks", 2);
+        journal.open();
+        journal.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    private static Order order(double price, Map<Integer, Integer> items) {
+        Order order = new Order();
+        order.setPrice(price);
+        order.setTime(LocalDateTime.of(2024, 3, 1, 12, 30));
+        order.setStatus("pending");
+        order.setItems(items);
+        return order;
+    }
+
+    private void awaitWritten() throws InterruptedException {
+        long giveUp = System.currentTimeMillis() + 5000;
+        while (journal.getPendingCount() > 0 && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, journal.getPendingCount());
+    }
+
+    @Test
+    void movesOrdersTheDatabaseRejectsToTheDeadLetterFile() throws Exception {
+        int first = journal.accept(order(5, Map.of(1, 2))).getId();
+        int rejected = journal.accept(order(13, Map.of(2, 1, 3, 4))).getId();
+        int last = journal.accept(order(7, Map.of(3, 1))).getId();
+        awaitWritten();
+
+        assertEquals(Set.of(first, last), inserted);
+        assertEquals(1, journal.getRejectedCount());
+        List<String> lines = Files.readAllLines(dir.resolve("dead/orders.dead-letter"));
+        assertEquals(1, lines.size());
+        JsonNode record = objectMapper.readTree(lines.get(0));
+        assertEquals(rejected, record.get("id").asInt());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 30), LocalDateTime.parse(record.get("time").asText()));
+        assertEquals(4, record.get("items").get("3").asInt());
+        assertEquals("rejected", record.get("reason").asText());
+    }
+
+    @Test
+    void refusesOrdersTheDatabaseWouldRejectBeforeJournalingThem() {
+        Map<Integer, Integer> nullItem = new HashMap<>();
+        nullItem.put(null, 1);
+        Map<Integer, Integer> nullQuantity = new HashMap<>();
+        nullQuantity.put(1, null);
+        Order longStatus = order(5, Map.of(1, 1));
+        longStatus.setStatus("x".repeat(256));
+
+        for (Order order : List.of(order(-1, Map.of(1, 1)), order(Double.NaN, Map.of(1, 1)), order(5, Map.of(1, 0)),
+                order(5, nullItem), order(5, nullQuantity), longStatus)) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> journal.accept(order));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+            assertEquals(0, order.getId());
+        }
+        assertEquals(0, journal.getPendingCount());
+        assertFalse(Files.exists(dir.resolve("dead/orders.dead-letter")));
+    }
+}
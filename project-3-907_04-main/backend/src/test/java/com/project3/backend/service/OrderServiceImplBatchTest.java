@@ -0,0 +1,93 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.project3.backend.entity.ItemToOrder;
+import com.project3.backend.entity.Order;
+import com.project3.backend.repository.ItemToOrderRepository;
+import com.project3.backend.repository.OrderRepository;
+
+/**
+ * Checks that {@link OrderServiceImpl#saveOrders} inserts every order of a batch with its line items, under
+ * new IDs, and rejects empty and oversized batches.
+ */
+@DataJpaTest
+@Import(OrderServiceImpl.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batch;MODE=PostgreSQL",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+class OrderServiceImplBatchTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemToOrderRepository itemToOrderRepository;
+
+    private static Order order(int id, int minute, Map<Integer, Integer> items) {
+        Order order = new Order(id, 10f, NOON.plusMinutes(minute), 1);
+        order.setStatus("pending");
+        order.setItems(items);
+        return order;
+    }
+
+    @Test
+    void insertsEveryOrderAndItsLineItemsUnderNewIds() {
+        Order existing = orderRepository.save(order(0, 0, null));
+        List<Order> batch = List.of(
+                order(existing.getId(), 1, Map.of(1, 2, 2, 1)),
+                order(0, 2, Map.of(3, 1)),
+                order(0, 3, null));
+
+        List<Order> saved = orderService.saveOrders(new ArrayList<>(batch));
+
+        assertEquals(3, saved.size());
+        Set<Integer> ids = saved.stream().map(Order::getId).collect(Collectors.toSet());
+        assertEquals(3, ids.size());
+        // A client ID never overwrites an existing order
+        assertNotEquals(existing.getId(), saved.get(0).getId());
+        assertEquals(4, orderRepository.count());
+
+        List<ItemToOrder> first = itemToOrderRepository.findByOrderId(saved.get(0).getId());
+        assertEquals(Map.of(1, 2, 2, 1), first.stream()
+                .collect(Collectors.toMap(ItemToOrder::getItemId, ItemToOrder::getQuantity)));
+        first.forEach(row -> assertEquals(saved.get(0).getTime(), row.getOrderTime()));
+        assertEquals(1, itemToOrderRepository.findByOrderId(saved.get(1).getId()).size());
+        assertEquals(0, itemToOrderRepository.findByOrderId(saved.get(2).getId()).size());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        List<Order> oversized = new ArrayList<>(Collections.nCopies(OrderServiceImpl.MAX_BATCH_SIZE + 1, (Order) null));
+        for (List<Order> batch : List.of(List.<Order>of(), oversized)) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> orderService.saveOrders(batch));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+        assertEquals(0, orderRepository.count());
+    }
+}
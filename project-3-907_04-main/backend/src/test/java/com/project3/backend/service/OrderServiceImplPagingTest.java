@@ -0,0 +1,110 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.project3.backend.dto.OrderPage;
+import com.project3.backend.entity.Order;
+import com.project3.backend.repository.OrderRepository;
+
+/**
+ * Checks the keyset pagination of {@link OrderServiceImpl#fetchOrders}: orders sharing a time are ordered
+ * by ID and are neither repeated nor skipped across page boundaries, and malformed cursors are rejected.
+ */
+@DataJpaTest
+@Import(OrderServiceImpl.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:paging;MODE=PostgreSQL",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+class OrderServiceImplPagingTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final List<Order> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Five orders at the same instant between two others, so every page boundary falls inside the tie
+        saved.add(orderRepository.save(new Order(0, 5f, NOON.plusMinutes(1), 1)));
+        for (int i = 0; i < 5; i++) {
+            saved.add(orderRepository.save(new Order(0, 5f, NOON, 1)));
+        }
+        saved.add(orderRepository.save(new Order(0, 5f, NOON.minusMinutes(1), 1)));
+    }
+
+    private List<Integer> expectedIds() {
+        return saved.stream()
+                .sorted(Comparator.comparing(Order::getTime).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+    }
+
+    @Test
+    void pagesThroughTiedTimesByIdWithoutGapsOrRepeats() {
+        for (int limit = 1; limit <= 4; limit++) {
+            List<Integer> ids = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                OrderPage page = orderService.fetchOrders(null, null, null, null, cursor, limit);
+                page.getOrders().forEach(order -> ids.add(order.getId()));
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(expectedIds(), ids, "limit " + limit);
+            assertEquals((saved.size() + limit - 1) / limit, pages, "limit " + limit);
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        OrderPage page = orderService.fetchOrders(null, null, null, null, null, saved.size());
+
+        assertEquals(saved.size(), page.getOrders().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void rejectsMalformedCursorsWithBadRequest() {
+        List<String> cursors = List.of(
+                "not base64!",
+                encode("2024-03-01T12:00"),
+                encode("yesterday|5"),
+                encode("2024-03-01T12:00|five"));
+        for (String cursor : cursors) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> orderService.fetchOrders(null, null, null, null, cursor, 10), cursor);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
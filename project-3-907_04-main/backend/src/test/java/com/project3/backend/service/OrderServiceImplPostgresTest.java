@@ -0,0 +1,115 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.project3.backend.PostgresTestDatabase;
+import com.project3.backend.entity.Order;
+import com.project3.backend.repository.OrderRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs the order write path against the migrated Postgres schema, where the order time is the partition key
+ * of {@code "order"} and {@code item_to_order} and cannot be null.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import(OrderServiceImpl.class)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class OrderServiceImplPostgresTest {
+
+    private static final PostgresTestDatabase DATABASE = new PostgresTestDatabase();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private static Order order(LocalDateTime time) {
+        Order order = new Order();
+        order.setTime(time);
+        order.setStatus("pending");
+        order.setItems(Map.of(1, 2, 2, 1));
+        return order;
+    }
+
+    private int lineItemsAt(int orderId, LocalDateTime time) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_to_order WHERE order_id = ? AND order_time = ?",
+                Integer.class, orderId, time);
+    }
+
+    @Test
+    void placesANewOrderWithoutATimeNow() {
+        LocalDateTime before = LocalDateTime.now();
+        Order saved = orderService.saveOrder(order(null));
+        entityManager.flush();
+
+        assertNotNull(saved.getTime());
+        assertFalse(saved.getTime().isBefore(before));
+        assertEquals(2, lineItemsAt(saved.getId(), saved.getTime()));
+    }
+
+    @Test
+    void keepsTheTimeOfAnEditedOrderSentWithoutOne() {
+        LocalDateTime placed = LocalDateTime.of(2024, 3, 1, 12, 30);
+        int id = orderService.saveOrder(order(placed)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Order edit = order(null);
+        edit.setId(id);
+        edit.setItems(Map.of(1, 3));
+        orderService.saveOrder(edit);
+        entityManager.flush();
+
+        assertEquals(placed, orderRepository.findById(id).orElseThrow().getTime());
+        assertEquals(1, lineItemsAt(id, placed));
+    }
+
+    @Test
+    void placesBatchOrdersWithoutATimeNow() {
+        LocalDateTime placed = LocalDateTime.of(2024, 3, 1, 12, 30);
+        List<Order> saved = orderService.saveOrders(new ArrayList<>(List.of(order(null), order(placed))));
+        entityManager.flush();
+
+        assertNotNull(saved.get(0).getTime());
+        assertTrue(saved.get(0).getTime().isAfter(placed));
+        assertEquals(placed, saved.get(1).getTime());
+        for (Order order : saved) {
+            assertEquals(2, lineItemsAt(order.getId(), order.getTime()));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.project3.backend.entity.Order;
+import com.project3.backend.repository.ItemToOrderRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Measures how many JDBC statements {@link OrderServiceImpl#saveOrder(Order)} prepares per order
+ * and checks that the number does not grow with the size of the basket.
+ */
+@DataJpaTest
+@Import(OrderServiceImpl.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orders;MODE=PostgreSQL",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderServiceImplStatementCountTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ItemToOrderRepository itemToOrderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Creates an order whose basket holds {@code itemCount} distinct items.
+     *
+     * @param itemCount The number of distinct items in the basket.
+     * @param firstItemId The ID of the first item in the basket.
+     * @return The new, unsaved order.
+     */
+    private static Order orderWithItems(int itemCount, int firstItemId) {
+        Order order = new Order();
+        Map<Integer, Integer> items = new HashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.put(firstItemId + i, 1 + i % 3);
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    /**
+     * Saves the order and flushes, returning the number of statements prepared along the way.
+     *
+     * @param order The order to save.
+     * @return The number of prepared JDBC statements.
+     */
+    private long statementsFor(Order order) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        orderService.saveOrder(order);
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void newOrderStatementCountIsIndependentOfBasketSize() {
+        // Warm up the pooled sequence so no nextval call lands inside a measurement
+        statementsFor(orderWithItems(1, 1));
+
+        long single = statementsFor(orderWithItems(1, 1));
+        long lunchRush = statementsFor(orderWithItems(12, 1));
+        long large = statementsFor(orderWithItems(30, 1));
+
+        assertEquals(single, lunchRush);
+        assertEquals(single, large);
+    }
+
+    @Test
+    void editedOrderStatementCountIsIndependentOfBasketSize() {
+        Order small = orderWithItems(2, 1);
+        orderService.saveOrder(small);
+        Order big = orderWithItems(20, 1);
+        orderService.saveOrder(big);
+
+        // Change quantities, drop one item and add one item in each basket
+        Order smallEdit = orderWithItems(2, 2);
+        smallEdit.setId(small.getId());
+        Order bigEdit = orderWithItems(20, 2);
+        bigEdit.setId(big.getId());
+
+        long smallStatements = statementsFor(smallEdit);
+        long bigStatements = statementsFor(bigEdit);
+
+        assertEquals(smallStatements, bigStatements);
+        assertEquals(20, itemToOrderRepository.findByOrderId(big.getId()).size());
+    }
+}
@@ -0,0 +1,308 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project3.backend.OrderHistory;
+import com.project3.backend.PostgresTestDatabase;
+import com.project3.backend.entity.Order;
+import com.project3.backend.event.OrderChangedEvent;
+import com.project3.backend.event.OrderState;
+import com.project3.backend.reports.SalesReport;
+import com.project3.backend.repository.ItemRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Checks that the {@code item_sales_hourly} rollup matches the order history: after the V7 migration backfilled
+ * it, as orders are placed, moved to another hour and deleted through the write path, including concurrently,
+ * and after a rebuild, which must not hold up the orders written meanwhile. {@link
+ * SalesRollupServiceImpl#salesReport} must then agree with the live query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({SalesRollupServiceImpl.class, OrderServiceImpl.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class SalesRollupServiceImplTest {
+
+    private static final PostgresTestDatabase DATABASE = new PostgresTestDatabase();
+
+    private static final LocalDateTime START = OrderHistory.START;
+
+    /**
+     * The rollup as the order history defines it, like the V7 backfill.
+     */
+    private static final String HISTORY =
+            "SELECT ito.item_id, date_trunc('hour', ito.order_time) AS hour, CAST(COUNT(*) AS bigint) AS order_count, " +
+            "CAST(SUM(ito.quantity) AS bigint) AS quantity, ROUND(CAST(SUM(ito.quantity * i.price) AS numeric), 6) AS revenue " +
+            "FROM item_to_order ito JOIN item i ON i.id = ito.item_id " +
+            "GROUP BY ito.item_id, date_trunc('hour', ito.order_time) ORDER BY 1, 2";
+
+    /**
+     * The rows of the rollup, leaving out those every order was removed from.
+     */
+    private static final String ROLLUP =
+            "SELECT item_id, hour, CAST(order_count AS bigint) AS order_count, CAST(quantity AS bigint) AS quantity, " +
+            "ROUND(CAST(revenue AS numeric), 6) AS revenue FROM item_sales_hourly " +
+            "WHERE order_count <> 0 OR quantity <> 0 ORDER BY 1, 2";
+
+    static {
+        // A database holding order history from before the rollup; the application migrates the rest
+        DATABASE.migrateTo("6");
+        OrderHistory.seed(DATABASE.getDataSource());
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        DATABASE.register(registry);
+    }
+
+    @Autowired
+    private SalesRollupServiceImpl salesRollupService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private void assertRollupMatchesHistory(String when) {
+        entityManager.flush();
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(ROLLUP), when);
+    }
+
+    private void assertReportMatchesLiveQuery(LocalDateTime startDate, LocalDateTime endDate) {
+        entityManager.flush();
+        Map<Integer, Integer> live = orderCounts(itemRepository.findItemsWithOrderCount(startDate, endDate));
+        assertFalse(live.isEmpty(), startDate + " - " + endDate);
+        assertEquals(live, orderCounts(salesRollupService.salesReport(startDate, endDate)), startDate + " - " + endDate);
+    }
+
+    private static Map<Integer, Integer> orderCounts(List<SalesReport> report) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        report.forEach(row -> counts.put(row.getId(), row.getOrderCount()));
+        return counts;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Order order(int id, LocalDateTime time, Map<Integer, Integer> items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setPrice(10);
+        order.setTime(time);
+        order.setStatus("completed");
+        order.setItems(items);
+        return order;
+    }
+
+    @Test
+    void migrationBackfillsTheOrderHistory() {
+        assertRollupMatchesHistory("after the migration");
+    }
+
+    @Test
+    void salesReportMatchesTheLiveQueryOverPartialHours() {
+        assertReportMatchesLiveQuery(START, START.plusDays(OrderHistory.DAYS));
+        assertReportMatchesLiveQuery(START.plusMinutes(17), START.plusHours(30).plusMinutes(41));
+        assertReportMatchesLiveQuery(START.plusHours(5).plusSeconds(30), START.plusHours(7));
+        assertReportMatchesLiveQuery(START.plusHours(9).plusMinutes(5), START.plusHours(9).plusMinutes(50));
+    }
+
+    @Test
+    void placingMovingAndDeletingOrdersKeepsTheRollupCurrent() {
+        LocalDateTime placed = START.plusDays(1).plusHours(10).plusMinutes(20);
+        int id = orderService.saveOrder(order(0, placed, Map.of(1, 2, 4, 1))).getId();
+        assertRollupMatchesHistory("after placing an order");
+
+        // Into another hour, with one item dropped, one added and one kept with a new quantity
+        LocalDateTime moved = START.plusDays(2).plusHours(15).plusMinutes(5);
+        orderService.saveOrder(order(id, moved, Map.of(1, 1, 5, 3)));
+        assertRollupMatchesHistory("after moving the order to another hour");
+        assertReportMatchesLiveQuery(placed.minusMinutes(30), moved.plusMinutes(30));
+
+        orderService.deleteOrder(id);
+        orderService.deleteOrder(7);
+        assertRollupMatchesHistory("after deleting orders");
+        assertReportMatchesLiveQuery(START, START.plusDays(OrderHistory.DAYS));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentEditsNeitherDeadlockNorDrift() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> edits = new ArrayList<>();
+            for (int writer = 0; writer < 8; writer++) {
+                int firstId = 301 + writer * 5;
+                Random random = new Random(writer);
+                edits.add(writers.submit(() -> {
+                    // Every edit moves one of this writer's orders between the hours of one day, which all writers share
+                    for (int i = 0; i < 25; i++) {
+                        Map<Integer, Integer> items = new HashMap<>();
+                        for (int n = 0; n < 3; n++) {
+                            items.put(1 + random.nextInt(OrderHistory.ITEMS), 1 + random.nextInt(3));
+                        }
+                        LocalDateTime time = START.plusDays(3).plusHours(random.nextInt(24)).plusMinutes(random.nextInt(60));
+                        orderService.saveOrder(order(firstId + random.nextInt(5), time, items));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> edit : edits) {
+                edit.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(ROLLUP));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertsRowsInHourAndItemOrder() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        SalesRollupServiceImpl service = new SalesRollupServiceImpl();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        OrderState before = new OrderState(1, 10, START.plusHours(5), 0, "completed", Map.of(5, 1, 2, 1, 11, 2));
+        OrderState after = new OrderState(1, 10, START.plusMinutes(20), 0, "completed", Map.of(9, 1, 3, 1, 12, 2));
+
+        service.onOrderChanged(new OrderChangedEvent(before, after));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbc).batchUpdate(anyString(), rows.capture());
+        // Concurrent orders lock the rows they share in the same order, so they cannot deadlock
+        List<Object[]> written = rows.getValue();
+        List<Object[]> sorted = new ArrayList<>(written);
+        sorted.sort(Comparator.comparing((Object[] row) -> (LocalDateTime) row[1]).thenComparing(row -> (Integer) row[0]));
+        assertEquals(6, written.size());
+        assertEquals(sorted, written);
+    }
+
+    @Test
+    void rebuildRepairsADriftedRollup() {
+        jdbcTemplate.update("UPDATE item_sales_hourly SET order_count = order_count + 3, revenue = revenue * 2 " +
+                "WHERE item_id = 2");
+        jdbcTemplate.update("INSERT INTO item_sales_hourly (item_id, hour, order_count, quantity, revenue) " +
+                "VALUES (3, ?, 1, 1, 6.0)", START.minusDays(1));
+
+        salesRollupService.rebuild();
+
+        assertRollupMatchesHistory("after the rebuild");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuildDoesNotHoldUpOrdersWrittenMeanwhile() throws Exception {
+        jdbcTemplate.update("UPDATE item_sales_hourly SET order_count = order_count + 2 WHERE item_id = 3 AND hour < ?",
+                START.plusDays(1));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch corrected = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // The rebuild keeps its transaction open after correcting the drifted rows
+            Future<?> rebuild = threads.submit(() -> transaction.executeWithoutResult(status -> {
+                salesRollupService.rebuild();
+                corrected.countDown();
+                await(commit);
+            }));
+            await(corrected);
+
+            // An order outside the corrected rows is written without waiting for the rebuild to commit
+            threads.submit(() -> orderService.saveOrder(order(0, START.plusDays(2).plusHours(6), Map.of(1, 1, 3, 2))))
+                    .get(5, TimeUnit.SECONDS);
+
+            commit.countDown();
+            rebuild.get(30, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            threads.shutdownNow();
+        }
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(ROLLUP));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuildCorrectsRowsAnOpenOrderIsWriting() throws Exception {
+        LocalDateTime hour = jdbcTemplate.queryForObject("SELECT MIN(hour) FROM item_sales_hourly WHERE item_id = 4 AND hour >= ?",
+                LocalDateTime.class, START.plusDays(2));
+        jdbcTemplate.update("UPDATE item_sales_hourly SET quantity = quantity + 5, revenue = revenue + 35 WHERE item_id = 4");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // The order has updated a drifted row but not committed when the rebuild reads its snapshot
+            Future<?> writer = threads.submit(() -> transaction.executeWithoutResult(status -> {
+                orderService.saveOrder(order(0, hour.plusMinutes(30), Map.of(4, 2, 5, 1)));
+                written.countDown();
+                await(commit);
+            }));
+            await(written);
+            Future<Integer> rebuild = threads.submit(salesRollupService::rebuild);
+            Thread.sleep(500);
+            assertFalse(rebuild.isDone(), "the rebuild corrects the row the order is writing once it commits");
+
+            commit.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            rebuild.get(30, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            threads.shutdownNow();
+        }
+        assertEquals(jdbcTemplate.queryForList(HISTORY), jdbcTemplate.queryForList(ROLLUP));
+    }
+}
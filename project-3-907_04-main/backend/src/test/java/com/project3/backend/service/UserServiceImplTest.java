@@ -0,0 +1,93 @@
+package com.project3.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project3.backend.cache.RoleCache;
+import com.project3.backend.entity.User;
+import com.project3.backend.repository.UserRepository;
+
+/**
+ * Checks that {@link UserServiceImpl} serves roles from the {@link RoleCache} and drops them when a user is
+ * saved or deleted.
+ */
+class UserServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "roleCache", new RoleCache(300, 100));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private User user(int id, String email, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setRole(role);
+        when(userRepository.findByEmail(email)).thenReturn(List.of(user));
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    @Test
+    void servesRepeatedLookupsFromTheCache() {
+        user(1, "a@example.com", "server");
+
+        assertEquals("server", userService.fetchRole("a@example.com"));
+        assertEquals("server", userService.fetchRole("a@example.com"));
+        verify(userRepository, times(1)).findByEmail("a@example.com");
+    }
+
+    @Test
+    void savingAUserDropsItsCachedRole() {
+        user(1, "a@example.com", "server");
+        assertEquals("server", userService.fetchRole("a@example.com"));
+
+        User promoted = user(1, "a@example.com", "manager");
+        userService.saveUser(promoted);
+
+        assertEquals("manager", userService.fetchRole("a@example.com"));
+    }
+
+    @Test
+    void changingAnEmailDropsTheRoleCachedUnderTheOldOne() {
+        user(1, "old@example.com", "manager");
+        assertEquals("manager", userService.fetchRole("old@example.com"));
+
+        User renamed = new User();
+        renamed.setId(1);
+        renamed.setEmail("new@example.com");
+        renamed.setRole("manager");
+        userService.saveUser(renamed);
+        when(userRepository.findByEmail("old@example.com")).thenReturn(List.of());
+
+        assertEquals("customer", userService.fetchRole("old@example.com"));
+    }
+
+    @Test
+    void deletingAUserDropsItsCachedRole() {
+        user(1, "a@example.com", "admin");
+        assertEquals("admin", userService.fetchRole("a@example.com"));
+
+        userService.deleteUser(1);
+        when(userRepository.findByEmail("a@example.com")).thenReturn(List.of());
+
+        assertEquals("customer", userService.fetchRole("a@example.com"));
+    }
+}
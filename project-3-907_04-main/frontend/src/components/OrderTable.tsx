@@ -35,6 +35,23 @@ import { MenuItemsDisplay } from './OrderMenuDisplay';
 
 const initialRows: GridRowsProp = [];
 
+// Number of orders requested per page from the server
+const ORDER_PAGE_SIZE = 100;
+
+/**
+ * One slice of orders returned by GET /orders.
+ * @interface
+ */
+interface OrderPage {
+  orders: Order[]; // Orders in this page, newest first.
+  nextCursor: string | null; // Cursor for the next page, or null when there are no more orders.
+}
+
+async function fetchOrderPage (cursor: string | null) {
+  return axios.get('/orders', {params: {limit: ORDER_PAGE_SIZE, cursor: cursor ?? undefined}})
+    .then((res) => res.data as OrderPage);
+}
+
 async function saveOrder (order: Order) {
   return axios.post('/orders', order).then((res) => res.data, handleErrorsNoRedirect);
 }
@@ -206,13 +223,24 @@ export default function FullFeaturedCrudGrid() {
   
   const [orderCart, setOrderCart] = React.useState<CartEntry[]>([]);
 
+  const [nextCursor, setNextCursor] = React.useState<string | null>(null);
+
   useEffect(() => {
-    axios.get("/orders").then((res) => res.data)
-    .then((data) => {
-      setRows(data.map((order: Order) => ({...order, isNew: false})));
+    fetchOrderPage(null)
+    .then((page) => {
+      setRows(page.orders.map((order: Order) => ({...order, isNew: false})));
+      setNextCursor(page.nextCursor);
     }, handleErrors);
   }, []);
 
+  const handleLoadMoreClick = () => {
+    fetchOrderPage(nextCursor)
+    .then((page) => {
+      setRows((oldRows) => [...oldRows, ...page.orders.map((order: Order) => ({...order, isNew: false}))]);
+      setNextCursor(page.nextCursor);
+    }, handleErrorsNoRedirect);
+  };
+
   const handleRowEditStop: GridEventListener<'rowEditStop'> = (params, event) => {
     if (params.reason === GridRowEditStopReasons.rowFocusOut) {
       event.defaultMuiPrevented = true;
@@ -452,6 +480,11 @@ export default function FullFeaturedCrudGrid() {
           toolbar: { setRows, setRowModesModel },
         }}
       />
+      {nextCursor && (
+        <Button color="primary" onClick={handleLoadMoreClick}>
+          Load more orders
+        </Button>
+      )}
       
       <Dialog title='Items' open={openOrderItemTable} onClose={handleCloseOrderItemTable} fullWidth={true} maxWidth='lg'>
         <ItemTable items={items} />
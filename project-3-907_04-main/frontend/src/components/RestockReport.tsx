@@ -1,9 +1,10 @@
 import React, { useState, useEffect, useRef } from "react";
-import axios from "../config/axiosConfig";
 import { Paper, Typography } from "@mui/material";
 import Chart from "chart.js/auto";
+import { serverUrl } from "../config/constant";
 
 interface RestockData {
+    ingredientId: number;
     ingredient: {
         name: string;
         stock: number;
@@ -11,17 +12,104 @@ interface RestockData {
     };
 }
 
+/**
+ * A threshold crossing pushed by the low-stock alert stream.
+ */
+interface StockAlert {
+    type: "low" | "restocked";
+    ingredientId: number;
+    name: string;
+    stock: number;
+    restock: number;
+}
+
+// Delay before reopening the alert stream after it closes or fails
+const RECONNECT_DELAY_MS = 5000;
+
+const toRow = (alert: StockAlert): RestockData => ({
+    ingredientId: alert.ingredientId,
+    ingredient: { name: alert.name, stock: alert.stock, restock: alert.restock },
+});
+
 export const RestockReport: React.FC = () => {
     const [restockData, setRestockData] = useState<RestockData[]>([]);
     const chartRef = useRef<HTMLCanvasElement | null>(null);
+    const chartInstance = useRef<Chart | null>(null);
 
+    // Subscribe to low-stock alerts: a snapshot on connect, then only threshold crossings.
+    // fetch is used instead of EventSource so the ID token can be sent in the Authorization header.
     useEffect(() => {
-        axios.get<RestockData[]>("/restockReport").then((res) => {
-            setRestockData(res.data);
-        });
+        const controller = new AbortController();
+
+        const handleEvent = (block: string) => {
+            let event = "message";
+            let data = "";
+            for (const line of block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    event = line.slice(6).trim();
+                } else if (line.startsWith("data:")) {
+                    data += line.slice(5);
+                }
+            }
+            if (!data) {
+                return;
+            }
+            if (event === "snapshot") {
+                setRestockData((JSON.parse(data) as StockAlert[]).map(toRow));
+            } else if (event === "alert") {
+                const alert = JSON.parse(data) as StockAlert;
+                setRestockData((rows) => {
+                    const others = rows.filter((row) => row.ingredientId !== alert.ingredientId);
+                    return alert.type === "low" ? [...others, toRow(alert)] : others;
+                });
+            }
+        };
+
+        const connect = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const IdToken = localStorage.getItem("IdToken");
+                    const response = await fetch(`${serverUrl}/restockReport/stream`, {
+                        headers: {
+                            Accept: "text/event-stream",
+                            Authorization: IdToken ? `Bearer ${IdToken}` : "",
+                        },
+                        signal: controller.signal,
+                    });
+                    if (response.ok && response.body) {
+                        const reader = response.body.getReader();
+                        const decoder = new TextDecoder();
+                        let buffer = "";
+                        for (;;) {
+                            const { value, done } = await reader.read();
+                            if (done) {
+                                break;
+                            }
+                            buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, "\n");
+                            let end;
+                            while ((end = buffer.indexOf("\n\n")) >= 0) {
+                                handleEvent(buffer.slice(0, end));
+                                buffer = buffer.slice(end + 2);
+                            }
+                        }
+                    }
+                } catch (error) {
+                    if (controller.signal.aborted) {
+                        return;
+                    }
+                    console.log(error);
+                }
+                await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS));
+            }
+        };
+
+        connect();
+        return () => controller.abort();
     }, []);
 
     useEffect(() => {
+        chartInstance.current?.destroy();
+        chartInstance.current = null;
         if (restockData.length > 0 && chartRef.current) {
             const ctx = chartRef.current.getContext("2d");
 
@@ -30,7 +118,7 @@ export const RestockReport: React.FC = () => {
                 const stockData = restockData.map((rowData) => rowData.ingredient.stock);
                 const restockDataPoints = restockData.map((rowData) => rowData.ingredient.restock);
 
-                new Chart(ctx, {
+                chartInstance.current = new Chart(ctx, {
                     type: "bar",
                     data: {
                         labels,
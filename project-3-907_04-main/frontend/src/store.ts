@@ -160,14 +160,13 @@ interface Store {
   ingredients: Ingredient[]; // List of all ingredients.
 }
 
-let menuItemsResponse: Promise<MenuItem[]> = axios
-  .get("/menuItems")
+// Categories and items are loaded together from the menu bundle in one round trip
+let menuPromise: Promise<{ categories: ItemCategory[]; items: MenuItem[] }> = axios
+  .get("/menu")
   .then((res) => res.data, handleErrorsNoRedirect);
-let menuItems: MenuItem[] = await menuItemsResponse;
-let itemCategoriesPromise: Promise<ItemCategory[]> = axios
-  .get("/itemCategories")
-  .then((res) => res.data, handleErrorsNoRedirect);
-let itemCategories: ItemCategory[] = await itemCategoriesPromise;
+let menu = await menuPromise;
+let menuItems: MenuItem[] = menu ? menu.items : [];
+let itemCategories: ItemCategory[] = menu ? menu.categories : [];
 let ingredientsPromise: Promise<Ingredient[]> = axios
   .get("/ingredients")
   .then((res) => res.data, handleErrorsNoRedirect);